@@ -0,0 +1,137 @@
+package com.ebanking.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration for exchange rate loading.
+ *
+ * Provides the executors used to load rate tables off the request thread and to run hedged
+ * provider calls, the circuit breaker guarding the external rate API, and enables the scheduled
+ * refresher in ExchangeRateService.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+public class ExchangeRateConfig {
+
+    public static final String CIRCUIT_BREAKER_NAME = "exchangeRateApi";
+
+    @Value("${app.exchange-rate.http.load-pool-size:4}")
+    private int loadPoolSize;
+
+    @Value("${app.exchange-rate.http.load-queue-capacity:100}")
+    private int loadQueueCapacity;
+
+    @Value("${app.exchange-rate.http.provider-pool-size:8}")
+    private int providerPoolSize;
+
+    @Value("${app.exchange-rate.http.provider-queue-capacity:16}")
+    private int providerQueueCapacity;
+
+    @Value("${app.exchange-rate.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${app.exchange-rate.circuit-breaker.slow-call-rate-threshold:50}")
+    private float slowCallRateThreshold;
+
+    @Value("${app.exchange-rate.circuit-breaker.slow-call-duration:2s}")
+    private Duration slowCallDuration;
+
+    @Value("${app.exchange-rate.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${app.exchange-rate.circuit-breaker.minimum-number-of-calls:5}")
+    private int minimumNumberOfCalls;
+
+    @Value("${app.exchange-rate.circuit-breaker.wait-duration-in-open-state:30s}")
+    private Duration waitDurationInOpenState;
+
+    @Value("${app.exchange-rate.circuit-breaker.permitted-calls-in-half-open-state:2}")
+    private int permittedCallsInHalfOpenState;
+
+    /**
+     * Executor running every rate table load, so HTTP calls never run on servlet threads.
+     * Queue depth and active threads are exported as executor.* metrics.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor exchangeRateExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(loadPoolSize);
+        executor.setMaxPoolSize(loadPoolSize);
+        executor.setQueueCapacity(loadQueueCapacity);
+        executor.setThreadNamePrefix("rate-load-");
+        // A full queue means the same tables are already being reloaded, drop the extra work
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "exchangeRateExecutor");
+        return executor;
+    }
+
+    /**
+     * Executor running individual provider calls, so a load can hedge a slow provider with the
+     * next one while the first call is still running.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor exchangeRateProviderExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(providerPoolSize);
+        executor.setMaxPoolSize(providerPoolSize);
+        executor.setQueueCapacity(providerQueueCapacity);
+        executor.setThreadNamePrefix("rate-provider-");
+        // A rejected call counts as a failed provider and the chain moves on to the next one
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "exchangeRateProviderExecutor");
+        return executor;
+    }
+
+    /**
+     * Circuit breaker for the exchange rate API.
+     *
+     * Opens when either the failure rate or the slow-call rate over the sliding window crosses
+     * its threshold, then lets a few probe calls through in half-open state before closing again.
+     * State and call outcomes are exported as resilience4j.circuitbreaker.* metrics and every
+     * transition is counted in exchange.rate.circuit.transitions.
+     */
+    @Bean
+    public CircuitBreaker exchangeRateCircuitBreaker(MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(CIRCUIT_BREAKER_NAME);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Exchange rate API circuit breaker: {}", event.getStateTransition());
+            meterRegistry.counter("exchange.rate.circuit.transitions",
+                    "from", event.getStateTransition().getFromState().name(),
+                    "to", event.getStateTransition().getToState().name()).increment();
+        });
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ebanking.config;
+
+import com.ebanking.simulator.ExchangeRateSimulator;
+import com.ebanking.simulator.ExchangeRateSimulator.LatencyDistribution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Starts the embedded exchange rate simulator when {@code app.exchange-rate.simulator.enabled}
+ * is set. Point {@code app.exchange-rate.api.base-url} at {@code http://localhost:<port>/latest}
+ * to run the application against it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.exchange-rate.simulator.enabled", havingValue = "true")
+public class ExchangeRateSimulatorConfig {
+
+    @Value("${app.exchange-rate.simulator.port:8089}")
+    private int port;
+
+    @Value("${app.exchange-rate.simulator.latency.distribution:LOG_NORMAL}")
+    private LatencyDistribution distribution;
+
+    @Value("${app.exchange-rate.simulator.latency.min:5ms}")
+    private Duration latencyMin;
+
+    @Value("${app.exchange-rate.simulator.latency.median:80ms}")
+    private Duration latencyMedian;
+
+    @Value("${app.exchange-rate.simulator.latency.p99:800ms}")
+    private Duration latencyP99;
+
+    @Value("${app.exchange-rate.simulator.latency.max:5s}")
+    private Duration latencyMax;
+
+    @Value("${app.exchange-rate.simulator.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${app.exchange-rate.simulator.requests-per-second:0}")
+    private int requestsPerSecond;
+
+    @Value("${app.exchange-rate.simulator.volatility:0.0005}")
+    private double volatility;
+
+    @Value("${app.exchange-rate.simulator.threads:64}")
+    private int threads;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ExchangeRateSimulator exchangeRateSimulator() {
+        return new ExchangeRateSimulator(ExchangeRateSimulator.Settings.builder()
+                .port(port)
+                .distribution(distribution)
+                .latencyMin(latencyMin)
+                .latencyMedian(latencyMedian)
+                .latencyP99(latencyP99)
+                .latencyMax(latencyMax)
+                .errorRate(errorRate)
+                .requestsPerSecond(requestsPerSecond)
+                .volatility(volatility)
+                .threads(threads)
+                .build());
+    }
+}
@@ -0,0 +1,75 @@
+package com.ebanking.config;
+
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.health.AdditionalHealthEndpointPath;
+import org.springframework.boot.actuate.health.HealthEndpointGroup;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+import org.springframework.boot.actuate.health.HealthEndpointGroupsPostProcessor;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Health endpoint configuration.
+ *
+ * Contributors that only say whether a pod should receive traffic yet, such as the rate
+ * pre-warm, are left out of the default {@code /actuator/health} aggregate and only count
+ * in the groups that include them (readiness), so load balancer checks against the default
+ * endpoint do not report a warming pod as down.
+ */
+@Configuration
+public class HealthConfig {
+
+    /**
+     * Contributors excluded from the default health aggregate.
+     */
+    static final Set<String> READINESS_ONLY = Set.of("rateWarmup");
+
+    @Bean
+    public HealthEndpointGroupsPostProcessor readinessOnlyHealthContributors() {
+        return groups -> HealthEndpointGroups.of(
+                new ExcludingGroup(groups.getPrimary(), READINESS_ONLY),
+                groups.getNames().stream().collect(Collectors.toMap(Function.identity(), groups::get)));
+    }
+
+    /**
+     * A health group without the given members, otherwise configured like the group it wraps.
+     */
+    private record ExcludingGroup(HealthEndpointGroup group, Set<String> excluded) implements HealthEndpointGroup {
+
+        @Override
+        public boolean isMember(String name) {
+            return !excluded.contains(name) && group.isMember(name);
+        }
+
+        @Override
+        public boolean showComponents(SecurityContext securityContext) {
+            return group.showComponents(securityContext);
+        }
+
+        @Override
+        public boolean showDetails(SecurityContext securityContext) {
+            return group.showDetails(securityContext);
+        }
+
+        @Override
+        public StatusAggregator getStatusAggregator() {
+            return group.getStatusAggregator();
+        }
+
+        @Override
+        public HttpCodeStatusMapper getHttpCodeStatusMapper() {
+            return group.getHttpCodeStatusMapper();
+        }
+
+        @Override
+        public AdditionalHealthEndpointPath getAdditionalPath() {
+            return group.getAdditionalPath();
+        }
+    }
+}
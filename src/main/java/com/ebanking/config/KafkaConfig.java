@@ -1,20 +1,37 @@
 package com.ebanking.config;
 
+import com.ebanking.domain.RateTable;
 import com.ebanking.domain.Transaction;
+import com.ebanking.service.HotTransactionView;
+import com.ebanking.service.KafkaExchangeRateConsumer;
+import com.ebanking.service.KafkaExchangeRatePublisher;
+import com.ebanking.service.TransactionResponseCache;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.TopicPartitionOffset;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.time.Duration;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,6 +40,13 @@ import java.util.Map;
  *
  * Configures serialization, deserialization, and connection settings
  * for both producing and consuming transaction messages.
+ *
+ * When {@code app.exchange-rate.kafka.enabled} is set, also configures the compacted
+ * exchange rate topic that feeds every instance's rate cache.
+ *
+ * When {@code app.transactions.response-cache.enabled} is set, every instance also reads the
+ * whole transactions topic to invalidate its cached responses, and with
+ * {@code app.transactions.hot-view.enabled} to keep its in-memory view of recent months up to date.
  */
 @Configuration
 public class KafkaConfig {
@@ -33,6 +57,18 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${app.kafka.topic.exchange-rates:exchange-rates}")
+    private String exchangeRatesTopic;
+
+    @Value("${app.kafka.topic.exchange-rate-requests:exchange-rate-requests}")
+    private String exchangeRateRequestsTopic;
+
+    @Value("${app.exchange-rate.kafka.publisher-group:exchange-rate-publisher}")
+    private String ratePublisherGroup;
+
+    @Value("${app.kafka.topic.transactions}")
+    private String transactionsTopic;
+
     // Producer Configuration
     @Bean
     public ProducerFactory<String, Transaction> producerFactory() {
@@ -92,4 +128,175 @@ public class KafkaConfig {
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         return factory;
     }
-}
\ No newline at end of file
+
+    // Exchange rate feed
+    @Bean
+    @ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+    public NewTopic exchangeRatesTopic() {
+        // One partition: the topic holds one small record per table, and partition 0 doubles as the publisher lease
+        return TopicBuilder.name(exchangeRatesTopic)
+                .partitions(1)
+                .compact()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+    public NewTopic exchangeRateRequestsTopic() {
+        // Requests only matter to the publisher running now, so they are not kept for long
+        return TopicBuilder.name(exchangeRateRequestsTopic)
+                .partitions(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+    public ProducerFactory<String, RateTable> rateTableProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+    public KafkaTemplate<String, RateTable> rateTableKafkaTemplate() {
+        return new KafkaTemplate<>(rateTableProducerFactory());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+    public ConsumerFactory<String, RateTable> rateTableConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // No group: the listener assigns itself the partition, so every instance reads every table
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.ebanking.domain");
+        configProps.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, RateTable.class.getName());
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<String, RateTable> rateTableListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, RateTable> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(rateTableConsumerFactory());
+        // Without a group no offsets are committed: each start re-reads the compacted topic from the beginning
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+    public ConcurrentMessageListenerContainer<String, byte[]> ratePublisherElectionContainer(
+            KafkaExchangeRatePublisher kafkaExchangeRatePublisher) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, ratePublisherGroup);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        ContainerProperties containerProperties = new ContainerProperties(exchangeRatesTopic);
+        containerProperties.setConsumerRebalanceListener(kafkaExchangeRatePublisher);
+        containerProperties.setMessageListener((MessageListener<String, byte[]>) record -> {
+        });
+        return new ConcurrentMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(configProps), containerProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+    public ConcurrentMessageListenerContainer<String, byte[]> rateTableRequestContainer(
+            KafkaExchangeRateConsumer kafkaExchangeRateConsumer) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // No group: every instance sees every request, only the elected publisher acts on it
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        // Requests sent before this instance started have been answered or given up on
+        ContainerProperties containerProperties = new ContainerProperties(
+                new TopicPartitionOffset(exchangeRateRequestsTopic, 0, TopicPartitionOffset.SeekPosition.END));
+        containerProperties.setMessageListener((MessageListener<String, byte[]>) record ->
+                kafkaExchangeRateConsumer.consumeRateTableRequest(record.key()));
+        return new ConcurrentMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(configProps), containerProperties);
+    }
+
+    // Response cache invalidation
+    @Bean
+    @ConditionalOnProperty(name = "app.transactions.response-cache.enabled", havingValue = "true")
+    public ConcurrentMessageListenerContainer<String, Transaction> responseCacheInvalidationContainer(
+            TransactionResponseCache transactionResponseCache, KafkaAdmin kafkaAdmin) {
+        // No group: the partitions are assigned, so every instance reads every transaction.
+        // The cache starts empty, so only transactions from now on matter
+        ContainerProperties containerProperties = new ContainerProperties(transactionsPartitionsAtEnd(kafkaAdmin));
+        containerProperties.setMessageListener((MessageListener<String, Transaction>) record -> {
+            Transaction transaction = record.value();
+            if (transaction != null && transaction.getValueDate() != null) {
+                transactionResponseCache.invalidate(transaction.getCustomerId(), YearMonth.from(transaction.getValueDate()));
+            }
+        });
+        return new ConcurrentMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(groupLessTransactionConsumerProps()),
+                containerProperties);
+    }
+
+    // Hot transaction view
+    @Bean
+    @ConditionalOnProperty(name = "app.transactions.hot-view.enabled", havingValue = "true")
+    public ConcurrentMessageListenerContainer<String, Transaction> hotTransactionViewContainer(
+            HotTransactionView hotTransactionView, KafkaAdmin kafkaAdmin) {
+        // No group: the partitions are assigned, so every instance keeps its view up to date with every transaction
+        ContainerProperties containerProperties = new ContainerProperties(transactionsPartitionsAtEnd(kafkaAdmin));
+        containerProperties.setMessageListener((MessageListener<String, Transaction>) record -> {
+            if (record.value() != null) {
+                hotTransactionView.apply(record.value());
+            }
+        });
+        return new ConcurrentMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(groupLessTransactionConsumerProps()),
+                containerProperties);
+    }
+
+    /**
+     * Consumer settings for listeners that assign themselves the transactions topic's partitions
+     * without a consumer group, so they commit nothing.
+     */
+    private Map<String, Object> groupLessTransactionConsumerProps() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.ebanking.domain");
+        configProps.put(JsonDeserializer.TYPE_MAPPINGS, "transaction:com.ebanking.domain.Transaction");
+        return configProps;
+    }
+
+    /**
+     * Every partition of the transactions topic, positioned at its end. The partition count is read
+     * from the broker at startup, which fails if the topic cannot be described; partitions added
+     * later are only read after a restart.
+     */
+    private TopicPartitionOffset[] transactionsPartitionsAtEnd(KafkaAdmin kafkaAdmin) {
+        TopicDescription topic;
+        try {
+            topic = kafkaAdmin.describeTopics(transactionsTopic).get(transactionsTopic);
+        } catch (KafkaException e) {
+            throw new IllegalStateException("Cannot read the partitions of topic " + transactionsTopic, e);
+        }
+        return topic.partitions().stream()
+                .map(partition -> new TopicPartitionOffset(transactionsTopic, partition.partition(),
+                        TopicPartitionOffset.SeekPosition.END))
+                .toArray(TopicPartitionOffset[]::new);
+    }
+}
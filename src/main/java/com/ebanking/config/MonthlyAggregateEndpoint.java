@@ -0,0 +1,28 @@
+package com.ebanking.config;
+
+import com.ebanking.service.MonthlyAggregateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admin endpoint that rebuilds the monthly aggregates from the transactions table:
+ * {@code POST /actuator/monthlyaggregates}.
+ *
+ * Not exposed over HTTP by default; add {@code monthlyaggregates} to
+ * {@code management.endpoints.web.exposure.include} to enable it. Like every actuator path
+ * other than health and info, it requires an authenticated request.
+ */
+@Component
+@Endpoint(id = "monthlyaggregates")
+@RequiredArgsConstructor
+public class MonthlyAggregateEndpoint {
+
+    private final MonthlyAggregateService monthlyAggregateService;
+
+    @WriteOperation
+    public MonthlyAggregateService.RebuildResult rebuild() {
+        return monthlyAggregateService.rebuild();
+    }
+}
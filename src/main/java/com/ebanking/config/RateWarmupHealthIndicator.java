@@ -0,0 +1,30 @@
+package com.ebanking.config;
+
+import com.ebanking.service.ExchangeRateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE until the exchange rate pre-warm has finished or timed out.
+ *
+ * Part of the readiness health group, so Kubernetes only routes traffic to pods whose rate
+ * cache is hot, and left out of the default health aggregate (see {@link HealthConfig}) so a
+ * warming pod is not reported down. Disabled with {@code management.health.rateWarmup.enabled}.
+ */
+@Component("rateWarmup")
+@ConditionalOnEnabledHealthIndicator("rateWarmup")
+@RequiredArgsConstructor
+public class RateWarmupHealthIndicator implements HealthIndicator {
+
+    private final ExchangeRateService exchangeRateService;
+
+    @Override
+    public Health health() {
+        return exchangeRateService.isWarmedUp()
+                ? Health.up().build()
+                : Health.outOfService().withDetail("reason", "exchange rate cache warming up").build();
+    }
+}
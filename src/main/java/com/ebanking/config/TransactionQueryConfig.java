@@ -0,0 +1,93 @@
+package com.ebanking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration for transaction queries.
+ *
+ * Provides the executors that run page count queries alongside the content query, the
+ * months of a statement in parallel and the customers of a monthly aggregate rebuild.
+ */
+@Configuration
+public class TransactionQueryConfig {
+
+    @Value("${app.transactions.count-pool-size:4}")
+    private int countPoolSize;
+
+    @Value("${app.transactions.count-queue-capacity:100}")
+    private int countQueueCapacity;
+
+    @Value("${app.transactions.statement.pool-size:4}")
+    private int statementPoolSize;
+
+    @Value("${app.transactions.statement.queue-capacity:100}")
+    private int statementQueueCapacity;
+
+    @Value("${app.transactions.monthly-aggregates.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    @Value("${app.transactions.monthly-aggregates.rebuild-queue-capacity:100}")
+    private int rebuildQueueCapacity;
+
+    /**
+     * Executor running page count queries, so a page costs one round trip instead of two in a row.
+     * When it is saturated the count runs on the calling thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor transactionCountExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(countPoolSize);
+        executor.setMaxPoolSize(countPoolSize);
+        executor.setQueueCapacity(countQueueCapacity);
+        executor.setThreadNamePrefix("tx-count-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "transactionCountExecutor");
+        return executor;
+    }
+
+    /**
+     * Executor reading and converting the months of a statement; its size bounds the database
+     * connections one statement can hold. When it is saturated a month runs on the calling thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor transactionStatementExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(statementPoolSize);
+        executor.setMaxPoolSize(statementPoolSize);
+        executor.setQueueCapacity(statementQueueCapacity);
+        executor.setThreadNamePrefix("tx-statement-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "transactionStatementExecutor");
+        return executor;
+    }
+
+    /**
+     * Executor rebuilding customers' monthly aggregates; its size bounds the database connections
+     * a rebuild holds. When it is saturated the next customer runs on the calling thread, which
+     * keeps a rebuild of many customers from queueing them all at once.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor monthlyAggregateRebuildExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(rebuildParallelism);
+        executor.setMaxPoolSize(rebuildParallelism);
+        executor.setQueueCapacity(rebuildQueueCapacity);
+        executor.setThreadNamePrefix("aggregate-rebuild-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "monthlyAggregateRebuildExecutor");
+        return executor;
+    }
+}
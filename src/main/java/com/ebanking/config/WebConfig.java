@@ -1,30 +1,107 @@
 package com.ebanking.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Web configuration for HTTP client operations.
  * 
- * Provides RestTemplate bean for external API calls.
+ * Provides RestTemplate bean for external API calls, backed by a pooled keep-alive
+ * Apache HttpClient so rate fetches reuse connections instead of opening one per call.
  */
 @Configuration
 public class WebConfig {
 
+    private static final String POOL_NAME = "exchangeRateApi";
+    private static final String ACQUIRE_STARTED_ATTRIBUTE = "ebanking.connection.acquire.started";
+
     @Value("${app.exchange-rate.api.timeout:5000}")
     private int timeout;
 
+    @Value("${app.exchange-rate.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${app.exchange-rate.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.exchange-rate.http.pool-wait-timeout:1s}")
+    private Duration poolWaitTimeout;
+
+    @Value("${app.exchange-rate.http.connection-time-to-live:5m}")
+    private Duration connectionTimeToLive;
+
+    @Value("${app.exchange-rate.http.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(timeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(timeout))
+                        .setTimeToLive(TimeValue.ofMilliseconds(connectionTimeToLive.toMillis()))
+                        .build())
+                .build();
+
+        // Exports httpcomponents.httpclient.pool.total.{max,connections,pending}
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager,
+                                          MeterRegistry meterRegistry) {
+        Timer acquireTimer = Timer.builder("exchange.rate.http.connection.acquire")
+                .description("Time waiting for a pooled connection to the rate API, including connect for new ones")
+                .tag("pool", POOL_NAME)
+                .register(meterRegistry);
+
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(timeout))
+                        .build())
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()))
+                // The connection is leased in the CONNECT step, time it from just before to just after
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), "acquire-start", (request, scope, chain) -> {
+                    scope.clientContext.setAttribute(ACQUIRE_STARTED_ATTRIBUTE, System.nanoTime());
+                    return chain.proceed(request, scope);
+                })
+                .addExecInterceptorAfter(ChainElement.CONNECT.name(), "acquire-end", (request, scope, chain) -> {
+                    if (scope.clientContext.getAttribute(ACQUIRE_STARTED_ATTRIBUTE) instanceof Long started) {
+                        acquireTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    }
+                    return chain.proceed(request, scope);
+                })
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(timeout);
-        factory.setReadTimeout(timeout);
-        
-        return new RestTemplate(factory);
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
-} 
\ No newline at end of file
+}
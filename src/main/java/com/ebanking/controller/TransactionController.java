@@ -3,9 +3,13 @@ package com.ebanking.controller;
 import com.ebanking.domain.Transaction;
 import com.ebanking.dto.AddTransactionResponse;
 import com.ebanking.dto.ErrorResponse;
+import com.ebanking.dto.StatementResponse;
 import com.ebanking.dto.TransactionRequest;
 import com.ebanking.dto.TransactionResponse;
+import com.ebanking.exception.InvalidCursorException;
 import com.ebanking.service.KafkaTransactionProducer;
+import com.ebanking.service.TransactionExportService;
+import com.ebanking.service.TransactionResponseCache;
 import com.ebanking.service.TransactionService;
 import com.ebanking.validation.NotZero;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,16 +28,24 @@ import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for transaction retrieval.
@@ -50,6 +62,8 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final KafkaTransactionProducer kafkaProducer;
+    private final TransactionResponseCache transactionResponseCache;
+    private final TransactionExportService transactionExportService;
 
     @Operation(
             summary = "Get paginated list of transactions for the authenticated customer",
@@ -94,8 +108,8 @@ public class TransactionController {
                     )
             )
     })
-    @GetMapping("/getTransaction")
-    public ResponseEntity<TransactionResponse> getTransactions(
+    @GetMapping(value = "/getTransaction", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getTransactions(
             @Parameter(description = "Calendar month (1-12)", required = true)
             @RequestParam("month")
             @NotNull(message = "Month is required")
@@ -121,6 +135,17 @@ public class TransactionController {
             @Max(value = 100, message = "Size must be at most 100")
             Integer size,
 
+            @Parameter(description = "Count totalPages and totalElements; false returns first/last only and skips the count",
+                    example = "true")
+            @RequestParam(value = "count", defaultValue = "true")
+            Boolean count,
+
+            @Parameter(description = "Keyset cursor: empty for the first page, then the previous page's nextCursor. "
+                    + "When present, page is ignored and totalPages/totalElements are not counted")
+            @RequestParam(value = "cursor", required = false)
+            @Size(max = 200, message = "Cursor cannot exceed 200 characters")
+            String cursor,
+
             @Parameter(description = "Base currency for totals (ISO 4217)", example = "GBP")
             @RequestParam(value = "baseCurrency", defaultValue = "GBP")
             @NotBlank(message = "Base currency cannot be empty")
@@ -138,20 +163,204 @@ public class TransactionController {
                     .year(year)
                     .page(page)
                     .size(size)
+                    .includeCount(count)
+                    .cursor(cursor)
                     .baseCurrency(baseCurrency)
                     .build();
 
-            // Retrieve paginated transactions from the database
-            TransactionResponse response = transactionService.getTransactions(customerId, request);
+            // Retrieve paginated transactions from the database, or the serialized response of a closed month
+            byte[] response = transactionResponseCache.getOrRender(customerId, request,
+                    () -> transactionService.getTransactions(customerId, request));
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response);
 
+        } catch (InvalidCursorException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to retrieve transactions: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to retrieve transactions", e);
         }
     }
 
+    @Operation(
+            summary = "Get a statement of a date range for the authenticated customer",
+            description = "Returns every transaction with a value date in the range, in value date order, with the " +
+                    "range's total credit and debit and the totals of each month at the current exchange rate. " +
+                    "The range may span up to 12 months."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieve the statement",
+                    content = @Content(
+                            schema = @Schema(implementation = StatementResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "BadRequest",
+                                    value = "{ \"status\": 400, \"error\": \"Bad Request\", \"message\": \"A statement can cover at most 12 months, 2023-01-01 to 2024-06-30 covers 18\", \"path\": \"/api/v1/getStatement\", \"timestamp\": \"2024-06-01 12:00:00\" }"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/getStatement")
+    public ResponseEntity<StatementResponse> getStatement(
+            @Parameter(description = "First value date (yyyy-MM-dd format)", required = true, example = "2024-01-01")
+            @RequestParam("from")
+            @Pattern(regexp = "^(\\d{4})-(0[1-9]|1[0-2])-(0[1-9]|[12]\\d|3[01])$",
+                    message = "From must be in yyyy-MM-dd format (e.g., 2024-01-01)")
+            String fromStr,
+
+            @Parameter(description = "Last value date (yyyy-MM-dd format)", required = true, example = "2024-12-31")
+            @RequestParam("to")
+            @Pattern(regexp = "^(\\d{4})-(0[1-9]|1[0-2])-(0[1-9]|[12]\\d|3[01])$",
+                    message = "To must be in yyyy-MM-dd format (e.g., 2024-12-31)")
+            String toStr,
+
+            @Parameter(description = "Base currency for totals (ISO 4217)", example = "GBP")
+            @RequestParam(value = "baseCurrency", defaultValue = "GBP")
+            @NotBlank(message = "Base currency cannot be empty")
+            @Size(min = 3, max = 3, message = "Base currency must be exactly 3 characters")
+            @Pattern(regexp = "^[A-Z]{3}$", message = "Base currency must be a valid 3-letter currency code (ISO 4217)")
+            String baseCurrency
+    ) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String customerId = authentication.getName();
+        LocalDate from = LocalDate.parse(fromStr);
+        LocalDate to = LocalDate.parse(toStr);
+
+        log.info("Building statement for customer {} from {} to {} in {}", customerId, from, to, baseCurrency);
+        return ResponseEntity.ok(transactionService.getStatement(customerId, from, to, baseCurrency));
+    }
+
+    @Operation(
+            summary = "Export the authenticated customer's transactions of a month",
+            description = "Streams every transaction of the given month and year as NDJSON (one JSON object per line) " +
+                    "or CSV, in value date order. The response is gzip-compressed when the client accepts it."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transactions streamed",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bad request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/exportTransactions")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Parameter(description = "Calendar month (1-12)", required = true)
+            @RequestParam("month")
+            @NotNull(message = "Month is required")
+            @Min(value = 1, message = "Month must be between 1 and 12")
+            @Max(value = 12, message = "Month must be between 1 and 12")
+            Integer month,
+
+            @Parameter(description = "Calendar year", required = true)
+            @RequestParam("year")
+            @NotNull(message = "Year is required")
+            @Min(value = 2020, message = "Year must be 2020 or later")
+            @Max(value = 2030, message = "Year must be 2030 or earlier")
+            Integer year,
+
+            @Parameter(description = "Output format", example = "ndjson")
+            @RequestParam(value = "format", defaultValue = "ndjson")
+            @Pattern(regexp = "^(ndjson|csv)$", message = "Format must be ndjson or csv")
+            String format,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding
+    ) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String customerId = authentication.getName();
+        YearMonth yearMonth = YearMonth.of(year, month);
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        log.info("Exporting transactions of customer {} for {} as {} (gzip={})", customerId, yearMonth, format, gzip);
+
+        // Rows are written as they are read, on an async request thread, so nothing is buffered per export
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            transactionExportService.export(customerId, yearMonth.atDay(1), yearMonth.atEndOfMonth(),
+                    exportFormat, target);
+            if (target instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions-" + yearMonth + "." + exportFormat.getFileExtension())
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Whether an Accept-Encoding header accepts gzip: listed as gzip or x-gzip, or covered by
+     * {@code *}, with a non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        return gzipQuality != null ? gzipQuality > 0 : anyQuality != null && anyQuality > 0;
+    }
+
     @PostMapping("/addTransaction")
     @Operation(
             summary = "Add transaction via Kafka",
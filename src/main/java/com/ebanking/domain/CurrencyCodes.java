@@ -0,0 +1,41 @@
+package com.ebanking.domain;
+
+/**
+ * Packs three-letter ISO 4217 currency codes into small ints, so currency pairs can be used
+ * as primitive keys without building strings.
+ */
+public final class CurrencyCodes {
+
+    /**
+     * Returned by {@link #pack} for anything that is not three ASCII letters.
+     */
+    public static final int INVALID = -1;
+
+    /**
+     * Number of bits of a packed code: five per letter.
+     */
+    public static final int BITS = 15;
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * Packs a currency code, ignoring case.
+     *
+     * @return the packed code in the low {@value #BITS} bits, or {@link #INVALID}
+     */
+    public static int pack(String code) {
+        if (code == null || code.length() != 3) {
+            return INVALID;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = (code.charAt(i) | 0x20) - 'a';
+            if (letter < 0 || letter > 25) {
+                return INVALID;
+            }
+            packed = (packed << 5) | (letter + 1);
+        }
+        return packed;
+    }
+}
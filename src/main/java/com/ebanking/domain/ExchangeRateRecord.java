@@ -0,0 +1,55 @@
+package com.ebanking.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One persisted exchange rate: the amount of the quote currency one unit of the base
+ * currency bought on the rate date.
+ *
+ * All rows sharing a base currency and rate date make up one {@link RateTable}.
+ */
+@Entity
+@Table(name = "exchange_rates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_exchange_rates_base_date_quote",
+                columnNames = {"base_currency", "rate_date", "quote_currency"}),
+        indexes = @Index(name = "idx_exchange_rates_rate_date", columnList = "rate_date"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRateRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "base_currency", length = 3, nullable = false)
+    private String baseCurrency;
+
+    @Column(name = "quote_currency", length = 3, nullable = false)
+    private String quoteCurrency;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(name = "rate", precision = 24, scale = 12, nullable = false)
+    private BigDecimal rate;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+}
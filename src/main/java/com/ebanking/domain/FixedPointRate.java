@@ -0,0 +1,121 @@
+package com.ebanking.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exchange rate held as a scaled {@code long}, used to convert amounts without building
+ * intermediate {@link BigDecimal} objects.
+ *
+ * Conversions give exactly the result of {@code amount.multiply(rate).setScale(scale, HALF_UP)}.
+ * The product is computed on longs; when an operand does not fit or the product overflows,
+ * the conversion falls back to {@link BigDecimal}.
+ */
+public final class FixedPointRate {
+
+    /**
+     * Returned by {@link #multiplyUnscaled} when the result cannot be computed on longs.
+     */
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    /**
+     * Largest number of digits guaranteed to fit a {@code long}.
+     */
+    static final int MAX_LONG_DIGITS = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final BigDecimal rate;
+    private final long unscaledRate;
+    private final int rateScale;
+    private final boolean fitsLong;
+
+    private FixedPointRate(BigDecimal rate) {
+        this.rate = rate;
+        this.fitsLong = fitsLong(rate);
+        this.unscaledRate = fitsLong ? rate.unscaledValue().longValue() : 0;
+        this.rateScale = rate.scale();
+    }
+
+    public static FixedPointRate of(BigDecimal rate) {
+        return new FixedPointRate(rate);
+    }
+
+    public BigDecimal getRate() {
+        return rate;
+    }
+
+    /**
+     * Converts an amount and rounds it HALF_UP to the given scale.
+     */
+    public BigDecimal multiply(BigDecimal amount, int resultScale) {
+        long unscaled = multiplyUnscaled(amount, resultScale);
+        if (unscaled != OVERFLOW) {
+            return BigDecimal.valueOf(unscaled, resultScale);
+        }
+        return amount.multiply(rate).setScale(resultScale, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Converts an amount and rounds it HALF_UP to the given scale, returning the unscaled result.
+     *
+     * @return the result in units of 10^-resultScale, or {@link #OVERFLOW} if it does not fit a long
+     */
+    public long multiplyUnscaled(BigDecimal amount, int resultScale) {
+        if (!fitsLong || !fitsLong(amount)) {
+            return OVERFLOW;
+        }
+        long unscaledAmount = amount.unscaledValue().longValue();
+        long product = unscaledAmount * unscaledRate;
+        if (Math.multiplyHigh(unscaledAmount, unscaledRate) != (product >> 63)) {
+            return OVERFLOW;
+        }
+        return rescale(product, amount.scale() + rateScale, resultScale);
+    }
+
+    /**
+     * Rescales an unscaled value, rounding HALF_UP when digits are dropped.
+     *
+     * @return the rescaled value, or {@link #OVERFLOW} if it does not fit a long
+     */
+    static long rescale(long unscaled, int fromScale, int toScale) {
+        if (toScale >= fromScale) {
+            int shift = toScale - fromScale;
+            if (shift > MAX_LONG_DIGITS) {
+                return unscaled == 0 ? 0 : OVERFLOW;
+            }
+            long factor = POWERS_OF_TEN[shift];
+            long result = unscaled * factor;
+            if (Math.multiplyHigh(unscaled, factor) != (result >> 63) || result == OVERFLOW) {
+                return OVERFLOW;
+            }
+            return result;
+        }
+
+        int shift = fromScale - toScale;
+        if (shift > MAX_LONG_DIGITS) {
+            return OVERFLOW;
+        }
+        long divisor = POWERS_OF_TEN[shift];
+        long quotient = unscaled / divisor;
+        long remainder = Math.abs(unscaled % divisor);
+        // HALF_UP: round away from zero when the dropped digits are at least one half
+        if (remainder >= divisor - remainder) {
+            quotient += Long.signum(unscaled);
+        }
+        return quotient;
+    }
+
+    static boolean fitsLong(BigDecimal value) {
+        return value.precision() <= MAX_LONG_DIGITS
+                && value.scale() <= MAX_LONG_DIGITS
+                && value.scale() >= -MAX_LONG_DIGITS;
+    }
+}
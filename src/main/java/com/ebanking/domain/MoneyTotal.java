@@ -0,0 +1,59 @@
+package com.ebanking.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable running total kept as a scaled {@code long}.
+ *
+ * The total equals chaining {@link BigDecimal#add} from {@link BigDecimal#ZERO}, including the
+ * scale of the result (the largest scale added). Once the sum no longer fits a long it
+ * continues in {@link BigDecimal}.
+ */
+public final class MoneyTotal {
+
+    private long unscaled;
+    private int scale;
+    private BigDecimal overflowTotal;
+
+    /**
+     * Adds a value given as unscaled units of 10^-scale.
+     */
+    public void add(long unscaledValue, int valueScale) {
+        if (overflowTotal == null && addExact(unscaledValue, valueScale)) {
+            return;
+        }
+        spill(BigDecimal.valueOf(unscaledValue, valueScale));
+    }
+
+    public void add(BigDecimal value) {
+        if (overflowTotal == null && FixedPointRate.fitsLong(value)
+                && addExact(value.unscaledValue().longValue(), value.scale())) {
+            return;
+        }
+        spill(value);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return overflowTotal != null ? overflowTotal : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private boolean addExact(long unscaledValue, int valueScale) {
+        int targetScale = Math.max(scale, valueScale);
+        long current = FixedPointRate.rescale(unscaled, scale, targetScale);
+        long addend = FixedPointRate.rescale(unscaledValue, valueScale, targetScale);
+        if (current == FixedPointRate.OVERFLOW || addend == FixedPointRate.OVERFLOW) {
+            return false;
+        }
+        long sum = current + addend;
+        if (((current ^ sum) & (addend ^ sum)) < 0 || sum == FixedPointRate.OVERFLOW) {
+            return false;
+        }
+        unscaled = sum;
+        scale = targetScale;
+        return true;
+    }
+
+    private void spill(BigDecimal value) {
+        overflowTotal = toBigDecimal().add(value);
+    }
+}
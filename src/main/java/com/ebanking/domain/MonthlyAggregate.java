@@ -0,0 +1,60 @@
+package com.ebanking.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals of one customer's transactions in one currency over one calendar month.
+ *
+ * Maintained together with every transaction insert, so month totals are read from a few
+ * rows instead of summing every transaction.
+ */
+@Entity
+@Table(name = "monthly_aggregates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_monthly_aggregates_customer_month_currency",
+                columnNames = {"customer_id", "year_month", "currency"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    /**
+     * Calendar month in ISO format, e.g. {@code 2024-07}.
+     */
+    @Column(name = "year_month", length = 7, nullable = false)
+    private String yearMonth;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency;
+
+    @Column(name = "credit_total", precision = 38, scale = 2, nullable = false)
+    private BigDecimal creditTotal;
+
+    /**
+     * Sum of debits as a positive amount.
+     */
+    @Column(name = "debit_total", precision = 38, scale = 2, nullable = false)
+    private BigDecimal debitTotal;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+}
@@ -0,0 +1,112 @@
+package com.ebanking.domain;
+
+/**
+ * Open-addressing map from a primitive (from currency, to currency, epoch day) key to a value.
+ *
+ * Lookups take no locks and allocate nothing. Writes are serialised and publish immutable
+ * slots, so a reader either sees a complete entry or misses and takes the slow path.
+ * When the map reaches its maximum size it is cleared rather than evicting single entries.
+ *
+ * @param <V> type of the values
+ */
+public final class RateMatrix<V> {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final int maxEntries;
+    private volatile Slot<V>[] slots;
+    private int size;
+
+    public RateMatrix(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.slots = newSlots(MIN_CAPACITY);
+    }
+
+    /**
+     * Builds the key of a currency pair on a day from codes packed by {@link CurrencyCodes#pack}.
+     */
+    public static long key(int fromCurrency, int toCurrency, long epochDay) {
+        return ((long) fromCurrency << (32 + CurrencyCodes.BITS))
+                | ((long) toCurrency << 32)
+                | (epochDay & 0xFFFF_FFFFL);
+    }
+
+    public V get(long key) {
+        Slot<V>[] table = slots;
+        int mask = table.length - 1;
+        for (int i = indexFor(key, mask); ; i = (i + 1) & mask) {
+            Slot<V> slot = table[i];
+            if (slot == null) {
+                return null;
+            }
+            if (slot.key == key) {
+                return slot.value;
+            }
+        }
+    }
+
+    public synchronized void put(long key, V value) {
+        if (size >= maxEntries) {
+            clear();
+        }
+        if ((size + 1) * 2 > slots.length) {
+            resize();
+        }
+        Slot<V>[] table = slots;
+        int mask = table.length - 1;
+        int i = indexFor(key, mask);
+        while (table[i] != null && table[i].key != key) {
+            i = (i + 1) & mask;
+        }
+        if (table[i] == null) {
+            size++;
+        }
+        table[i] = new Slot<>(key, value);
+    }
+
+    public synchronized void clear() {
+        slots = newSlots(MIN_CAPACITY);
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void resize() {
+        Slot<V>[] old = slots;
+        Slot<V>[] table = newSlots(old.length * 2);
+        int mask = table.length - 1;
+        for (Slot<V> slot : old) {
+            if (slot != null) {
+                int i = indexFor(slot.key, mask);
+                while (table[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = slot;
+            }
+        }
+        slots = table;
+    }
+
+    private static int indexFor(long key, int mask) {
+        long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Slot<V>[] newSlots(int capacity) {
+        return (Slot<V>[]) new Slot[capacity];
+    }
+
+    private static final class Slot<V> {
+
+        private final long key;
+        private final V value;
+
+        private Slot(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ebanking.domain;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable, versioned set of rate tables.
+ *
+ * A new snapshot is published whenever the set of cached tables changes; readers hold on to one
+ * snapshot for a whole request, so every rate in a response comes from the same version.
+ * Tables are keyed by packed (base currency, snapshot day) and looked up without allocating.
+ */
+public final class RateSnapshot {
+
+    public static final RateSnapshot EMPTY = new RateSnapshot(0, List.of());
+
+    private final long version;
+    private final RateMatrix<Entry> tables;
+
+    /**
+     * A table and the ticker time (in nanoseconds) at which it stops being served.
+     */
+    public record Entry(RateTable table, long expiresAtNanos) {
+    }
+
+    public RateSnapshot(long version, Collection<Entry> entries) {
+        this.version = version;
+        this.tables = new RateMatrix<>(Integer.MAX_VALUE);
+        for (Entry entry : entries) {
+            RateTable table = entry.table();
+            tables.put(tableKey(CurrencyCodes.pack(table.getBaseCurrency()), table.getSnapshotDate().toEpochDay()), entry);
+        }
+    }
+
+    /**
+     * Key of the table for a base currency packed by {@link CurrencyCodes#pack} on an epoch day.
+     */
+    public static long tableKey(int baseCurrency, long epochDay) {
+        // No packed code is zero, so table keys never collide with pair keys
+        return RateMatrix.key(baseCurrency, 0, epochDay);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the table for a key, or null if the snapshot has none or it has expired.
+     */
+    public RateTable table(long tableKey, long nowNanos) {
+        Entry entry = tables.get(tableKey);
+        return entry != null && nowNanos - entry.expiresAtNanos() < 0 ? entry.table() : null;
+    }
+
+    public int size() {
+        return tables.size();
+    }
+}
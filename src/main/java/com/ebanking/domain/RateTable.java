@@ -0,0 +1,73 @@
+package com.ebanking.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Immutable table of exchange rates for one base currency, as published by the rate provider.
+ *
+ * Each entry maps a quote currency to the amount of that currency one unit of the base buys.
+ * Rates for any pair of currencies listed in the table can be derived from it.
+ */
+@Getter
+public final class RateTable {
+
+    /**
+     * Precision used when a rate has to be derived by division (inverse or cross rate).
+     */
+    public static final MathContext DERIVED_RATE_CONTEXT = new MathContext(16, RoundingMode.HALF_UP);
+
+    private final String baseCurrency;
+    private final LocalDate snapshotDate;
+    private final Map<String, BigDecimal> rates;
+    private final Instant fetchedAt;
+
+    @JsonCreator
+    public RateTable(@JsonProperty("baseCurrency") String baseCurrency,
+                     @JsonProperty("snapshotDate") LocalDate snapshotDate,
+                     @JsonProperty("rates") Map<String, BigDecimal> rates,
+                     @JsonProperty("fetchedAt") Instant fetchedAt) {
+        this.baseCurrency = baseCurrency;
+        this.snapshotDate = snapshotDate;
+        this.rates = Map.copyOf(rates);
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * Returns the rate for one unit of the base currency in the given currency, or null if unknown.
+     */
+    public BigDecimal rateOf(String currency) {
+        if (baseCurrency.equals(currency)) {
+            return BigDecimal.ONE;
+        }
+        return rates.get(currency);
+    }
+
+    /**
+     * Derives the rate from one currency to another using this table.
+     *
+     * A rate quoted directly against the base is returned as published; otherwise the
+     * rate is triangulated through the base currency.
+     *
+     * @return the derived rate, or null if either currency is missing from the table
+     */
+    public BigDecimal crossRate(String fromCurrency, String toCurrency) {
+        BigDecimal toRate = rateOf(toCurrency);
+        BigDecimal fromRate = rateOf(fromCurrency);
+        if (toRate == null || fromRate == null || fromRate.signum() == 0) {
+            return null;
+        }
+        if (baseCurrency.equals(fromCurrency)) {
+            return toRate;
+        }
+        return toRate.divide(fromRate, DERIVED_RATE_CONTEXT);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ebanking.domain;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reader for rate tables in CSV with the header {@code date,base,currency,rate}.
+ *
+ * Rows are grouped into one table per base currency and date. A table read from CSV counts as
+ * fetched at the end of its date, when the day's rates were final.
+ */
+public final class RateTableCsv {
+
+    public static final String HEADER = "date,base,currency,rate";
+
+    private RateTableCsv() {
+    }
+
+    /**
+     * Reads every table in the CSV, in order of first appearance.
+     *
+     * @throws IllegalArgumentException if a row is malformed
+     */
+    public static List<RateTable> read(Reader csv) throws IOException {
+        Map<TableKey, Map<String, BigDecimal>> tables = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(csv);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.equalsIgnoreCase(HEADER)) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 4) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected 4 fields but found " + fields.length);
+            }
+            try {
+                TableKey key = new TableKey(fields[1].trim().toUpperCase(Locale.ROOT), LocalDate.parse(fields[0].trim()));
+                tables.computeIfAbsent(key, k -> new HashMap<>())
+                        .put(fields[2].trim().toUpperCase(Locale.ROOT), new BigDecimal(fields[3].trim()));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        List<RateTable> result = new ArrayList<>(tables.size());
+        tables.forEach((key, rates) -> result.add(new RateTable(key.baseCurrency(), key.date(), rates,
+                key.date().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant())));
+        return result;
+    }
+
+    private record TableKey(String baseCurrency, LocalDate date) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.ebanking.dto;
+
+import com.ebanking.domain.Transaction;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for the date range statement API.
+ *
+ * Contains every transaction of the range in value date order, the range's totals and the
+ * totals of each month it spans.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Transaction statement of a date range")
+public class StatementResponse {
+
+    @Schema(description = "First value date of the statement", example = "2024-01-01")
+    private LocalDate from;
+
+    @Schema(description = "Last value date of the statement", example = "2024-12-31")
+    private LocalDate to;
+
+    @Schema(description = "Transactions of the range in value date order")
+    private List<Transaction> transactions;
+
+    @Schema(description = "Total credit amount of the range in base currency", example = "60000.00")
+    private BigDecimal totalCredit;
+
+    @Schema(description = "Total debit amount of the range in base currency", example = "36000.00")
+    private BigDecimal totalDebit;
+
+    @Schema(description = "Number of transactions in the range", example = "1200")
+    private long transactionCount;
+
+    @Schema(description = "Base currency for totals", example = "GBP")
+    private String baseCurrency;
+
+    @Schema(description = "Whether any rate used for the totals was stale (being refreshed) or a fallback rate",
+            example = "false")
+    private boolean staleRates;
+
+    @Schema(description = "Newest version of the exchange rate snapshots the months were converted with", example = "42")
+    private long rateVersion;
+
+    @Schema(description = "Totals of each month of the range, in month order")
+    private List<MonthTotals> months;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Totals of one month of a statement")
+    public static class MonthTotals {
+
+        @Schema(description = "Month (yyyy-MM)", example = "2024-07")
+        private String month;
+
+        @Schema(description = "Total credit amount of the month's part of the range in base currency. A whole month "
+                + "read from monthly aggregates is converted per currency at the rate of its last day (today for the "
+                + "current month); otherwise each transaction at the rate of its value date", example = "5000.00")
+        private BigDecimal totalCredit;
+
+        @Schema(description = "Total debit amount of the month's part of the range in base currency", example = "3000.00")
+        private BigDecimal totalDebit;
+
+        @Schema(description = "Number of transactions in the month's part of the range", example = "100")
+        private long transactionCount;
+    }
+}
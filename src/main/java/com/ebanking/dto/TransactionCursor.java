@@ -0,0 +1,48 @@
+package com.ebanking.dto;
+
+import com.ebanking.domain.Transaction;
+import com.ebanking.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after a transaction in (value date, id) order, handed to clients as an opaque string.
+ *
+ * The next page is the rows strictly after this position, so it is found by an index seek
+ * however deep the client has paged, and rows inserted meanwhile never shift it.
+ */
+public record TransactionCursor(LocalDate valueDate, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getValueDate(), transaction.getId());
+    }
+
+    public String encode() {
+        String position = valueDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor returned by {@link #encode()}.
+     *
+     * @throws InvalidCursorException if the cursor was not produced by this class
+     */
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            if (separator < 0 || separator == position.length() - 1) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new TransactionCursor(LocalDate.parse(position.substring(0, separator)),
+                    position.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -44,6 +44,15 @@ public class TransactionRequest {
     @Builder.Default
     private Integer size = 20;
 
+    @Schema(description = "Whether to count totalPages and totalElements; when false only first/last are set",
+            example = "true", defaultValue = "true")
+    @Builder.Default
+    private Boolean includeCount = true;
+
+    @Schema(description = "Cursor from the previous page's nextCursor; empty for the first page. "
+            + "When set, pages are read by keyset instead of offset and page is ignored")
+    private String cursor;
+
     @Schema(description = "Base currency for totals", example = "GBP", defaultValue = "GBP")
     @Builder.Default
     private String baseCurrency = "GBP";
@@ -26,25 +26,38 @@ public class TransactionResponse {
     @Schema(description = "List of transactions for the current page")
     private List<Transaction> transactions;
 
-    @Schema(description = "Total credit amount in base currency", example = "5000.00")
+    @Schema(description = "Total credit amount in base currency. With monthly aggregates: the whole month's, each "
+            + "currency converted at the rate of the month's last day (today for the current month). Otherwise: "
+            + "the page's, each transaction converted at the rate of its value date", example = "5000.00")
     private BigDecimal totalCredit;
 
-    @Schema(description = "Total debit amount in base currency", example = "3000.00")
+    @Schema(description = "Total debit amount in base currency, converted as totalCredit is", example = "3000.00")
     private BigDecimal totalDebit;
 
     @Schema(description = "Base currency for totals", example = "GBP")
     private String baseCurrency;
 
+    @Schema(description = "Whether any rate used for the totals was stale (being refreshed) or a fallback rate",
+            example = "false")
+    private boolean staleRates;
+
+    @Schema(description = "Version of the exchange rate snapshot all totals were converted with", example = "42")
+    private long rateVersion;
+
     @Schema(description = "Current page number (0-based)", example = "0")
     private int page;
 
     @Schema(description = "Page size", example = "20")
     private int size;
 
-    @Schema(description = "Total number of pages", example = "5")
+    @Schema(description = "Cursor of the next page in cursor mode, absent on the last page",
+            example = "MjAyNC0wNy0xNXw4OWQzZjE3OS1hYmNkLTQ2NWItYTllZS1lMmQ1ZjZmZTFkNDY")
+    private String nextCursor;
+
+    @Schema(description = "Total number of pages, not counted in cursor mode", example = "5")
     private int totalPages;
 
-    @Schema(description = "Total number of transactions", example = "100")
+    @Schema(description = "Total number of transactions, not counted in cursor mode", example = "100")
     private long totalElements;
 
     @Schema(description = "Whether this is the first page", example = "true")
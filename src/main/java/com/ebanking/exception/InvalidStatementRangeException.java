@@ -0,0 +1,11 @@
+package com.ebanking.exception;
+
+/**
+ * Thrown when a statement's date range is reversed or larger than a statement may cover.
+ */
+public class InvalidStatementRangeException extends RuntimeException {
+
+    public InvalidStatementRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ebanking.repository;
+
+import com.ebanking.domain.ExchangeRateRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ExchangeRateRecordRepository extends JpaRepository<ExchangeRateRecord, Long> {
+
+    List<ExchangeRateRecord> findByBaseCurrencyAndRateDate(String baseCurrency, LocalDate rateDate);
+
+    List<ExchangeRateRecord> findByRateDateGreaterThanEqual(LocalDate rateDate);
+
+    @Query("select distinct r.rateDate from ExchangeRateRecord r")
+    List<LocalDate> findDistinctRateDates();
+
+    @Transactional
+    @Modifying
+    @Query("delete from ExchangeRateRecord r where r.baseCurrency = :baseCurrency and r.rateDate = :rateDate")
+    int deleteTable(String baseCurrency, LocalDate rateDate);
+}
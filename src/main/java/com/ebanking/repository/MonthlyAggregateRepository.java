@@ -0,0 +1,47 @@
+package com.ebanking.repository;
+
+import com.ebanking.domain.MonthlyAggregate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface MonthlyAggregateRepository extends JpaRepository<MonthlyAggregate, Long> {
+
+    List<MonthlyAggregate> findByCustomerIdAndYearMonth(String customerId, String yearMonth);
+
+    /**
+     * Rows of the months from {@code from} to {@code to} (yyyy-MM), which sort as text.
+     */
+    List<MonthlyAggregate> findByCustomerIdAndYearMonthBetween(String customerId, String from, String to);
+
+    /**
+     * Adds to an existing aggregate row in place, so concurrent writers never lose an update.
+     *
+     * @return the number of rows updated, 0 if the row does not exist yet
+     */
+    @Modifying
+    @Query("update MonthlyAggregate a set a.creditTotal = a.creditTotal + :credit, "
+            + "a.debitTotal = a.debitTotal + :debit, a.transactionCount = a.transactionCount + :count "
+            + "where a.customerId = :customerId and a.yearMonth = :yearMonth and a.currency = :currency")
+    int addTo(String customerId, String yearMonth, String currency, BigDecimal credit, BigDecimal debit, long count);
+
+    /**
+     * Reads one customer's rows and locks them until the transaction ends, so concurrent adds to
+     * them wait for it. Locked in a fixed order to avoid deadlocks between two lockers.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from MonthlyAggregate a where a.customerId = :customerId order by a.yearMonth, a.currency")
+    List<MonthlyAggregate> lockByCustomer(String customerId);
+
+    /**
+     * Deletes every customer's aggregates of the months before the given one (yyyy-MM).
+     */
+    @Modifying
+    @Query("delete from MonthlyAggregate a where a.yearMonth < :yearMonth")
+    int deleteByYearMonthBefore(String yearMonth);
+}
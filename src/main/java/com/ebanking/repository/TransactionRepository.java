@@ -1,14 +1,103 @@
 package com.ebanking.repository;
 
 import com.ebanking.domain.Transaction;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
-    Page<Transaction> findByCustomerIdAndValueDateBetween(
+
+    /**
+     * Selects transactions through their constructor, so read pages come back as plain objects:
+     * nothing is hydrated as a managed entity, snapshotted for dirty checking or flushed.
+     */
+    String TRANSACTION_VIEW = "select new com.ebanking.domain.Transaction("
+            + "t.id, t.amount, t.currency, t.accountIban, t.valueDate, t.description, t.customerId) ";
+
+    /**
+     * Rows per JDBC round trip: the largest page plus the row that tells whether there is a next one.
+     */
+    String PAGE_FETCH_SIZE = "101";
+
+    /**
+     * Rows per JDBC round trip when streaming an export.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Page content without a count query; fetches one extra row to tell whether there is a next page.
+     */
+    @Query(TRANSACTION_VIEW + "from Transaction t "
+            + "where t.customerId = :customerId and t.valueDate between :start and :end "
+            + "order by t.customerId, t.valueDate, t.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PAGE_FETCH_SIZE)})
+    Slice<Transaction> findSliceByCustomerIdAndValueDateBetween(
             String customerId, LocalDate start, LocalDate end, Pageable pageable
     );
-}
\ No newline at end of file
+
+    long countByCustomerIdAndValueDateBetween(String customerId, LocalDate start, LocalDate end);
+
+    /**
+     * Keyset page: the customer's transactions in the date range strictly after (afterDate, afterId)
+     * in (value date, id) order. Limit the result with an unsorted {@code PageRequest.of(0, size)}.
+     */
+    @Query(TRANSACTION_VIEW + "from Transaction t "
+            + "where t.customerId = :customerId and t.valueDate between :start and :end "
+            + "and t.valueDate >= :afterDate and (t.valueDate > :afterDate or t.id > :afterId) "
+            // Leading with the constant customer lets the planner read rows in index order without sorting
+            + "order by t.customerId, t.valueDate, t.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PAGE_FETCH_SIZE)})
+    List<Transaction> findPageAfter(String customerId, LocalDate start, LocalDate end,
+                                    LocalDate afterDate, String afterId, Pageable pageable);
+
+    /**
+     * All of the customer's transactions in the date range, in (value date, id) order, read from an
+     * open cursor. Must be consumed and closed inside a transaction.
+     */
+    @Query(TRANSACTION_VIEW + "from Transaction t "
+            + "where t.customerId = :customerId and t.valueDate between :start and :end "
+            + "order by t.customerId, t.valueDate, t.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE)})
+    Stream<Transaction> streamByCustomerIdAndValueDateBetween(String customerId, LocalDate start, LocalDate end);
+
+    @Query("select distinct t.customerId from Transaction t where t.customerId is not null")
+    List<String> findDistinctCustomerIds();
+
+    /**
+     * Month totals of one customer per currency, summed in the database.
+     */
+    @Query("select extract(year from t.valueDate) as valueYear, extract(month from t.valueDate) as valueMonth, "
+            + "t.currency as currency, "
+            + "sum(case when t.amount > 0 then t.amount else 0 end) as credit, "
+            + "sum(case when t.amount < 0 then -t.amount else 0 end) as debit, "
+            + "count(t) as transactionCount "
+            + "from Transaction t where t.customerId = :customerId "
+            + "group by extract(year from t.valueDate), extract(month from t.valueDate), t.currency")
+    List<MonthlyTotals> sumMonthlyTotals(String customerId);
+
+    interface MonthlyTotals {
+        Integer getValueYear();
+
+        Integer getValueMonth();
+
+        String getCurrency();
+
+        BigDecimal getCredit();
+
+        BigDecimal getDebit();
+
+        Long getTransactionCount();
+    }
+}
@@ -1,154 +1,1142 @@
 
 package com.ebanking.service;
 
+import com.ebanking.domain.CurrencyCodes;
+import com.ebanking.domain.FixedPointRate;
+import com.ebanking.domain.MoneyTotal;
+import com.ebanking.domain.RateMatrix;
+import com.ebanking.domain.RateSnapshot;
+import com.ebanking.domain.RateTable;
+import com.ebanking.domain.Transaction;
+import com.ebanking.service.provider.ExchangeRateProviderChain;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ExchangeRateService {
 
-    private final RestTemplate restTemplate;
-    
-    @Value("${app.exchange-rate.api.base-url}")
-    private String exchangeRateApiUrl;
-    
-    @Value("${app.exchange-rate.api.timeout:5000}")
-    private int timeout;
+    private static final String CACHE_NAME = "exchangeRates";
+
+    /**
+     * Scale of converted amounts, whatever the target currency.
+     */
+    private static final int CONVERTED_SCALE = 2;
+
+    private static final long NO_MATRIX_KEY = -1L;
+
+    private static final int TABLE_VERSION_SLOTS = 64;
+
+    private final ExchangeRateProviderChain exchangeRateProviders;
+    private final MeterRegistry meterRegistry;
+    private final Executor exchangeRateExecutor;
+    private final RateHistoryStore rateHistoryStore;
+    private final ApplicationEventPublisher eventPublisher;
     
-    private final ConcurrentHashMap<String, BigDecimal> rateCache = new ConcurrentHashMap<>();
+    @Value("${app.exchange-rate.pivot-currency:USD}")
+    private String pivotCurrency;
+
+    @Value("${app.exchange-rate.cache.maximum-size:1000}")
+    private long cacheMaximumSize;
+
+    @Value("${app.exchange-rate.cache.current-ttl:1h}")
+    private Duration currentRateTtl;
+
+    @Value("${app.exchange-rate.cache.historical-ttl:7d}")
+    private Duration historicalRateTtl;
+
+    @Value("${app.exchange-rate.cache.load-wait-timeout:2s}")
+    private Duration loadWaitTimeout;
+
+    @Value("${app.exchange-rate.refresh.enabled:true}")
+    private boolean refreshEnabled;
+
+    @Value("${app.exchange-rate.refresh.refresh-after:45m}")
+    private Duration refreshAfter;
+
+    @Value("${app.exchange-rate.history.enabled:true}")
+    private boolean historyEnabled;
+
+    @Value("${app.exchange-rate.history.preload-days:7}")
+    private int historyPreloadDays;
+
+    @Value("${app.exchange-rate.history.backfill-file:}")
+    private String historyBackfillFile;
+
+    @Value("${app.exchange-rate.prewarm.enabled:true}")
+    private boolean prewarmEnabled;
+
+    @Value("${app.exchange-rate.prewarm.currencies:}")
+    private List<String> prewarmCurrencies;
+
+    @Value("${app.exchange-rate.prewarm.readiness-timeout:30s}")
+    private Duration prewarmTimeout;
+
+    @Value("${app.exchange-rate.kafka.enabled:false}")
+    private boolean kafkaFeedEnabled;
+
+    @Value("${app.exchange-rate.kafka.table-wait-timeout:2s}")
+    private Duration publishedTableWaitTimeout;
+
+    /**
+     * True while this instance owns refreshing rate tables from the provider. Always true unless
+     * the Kafka rate feed is enabled, in which case only the elected publisher refreshes.
+     */
+    private volatile boolean refreshOwner = true;
+
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Clock clock = Clock.systemUTC();
+
+    private final StatsCounter cacheStats = new ConcurrentStatsCounter();
+
+    private Cache<RateTableKey, RateTable> rateCache;
+
+    @Value("${app.exchange-rate.cache.rate-matrix-size:8192}")
+    private int rateMatrixSize;
+
+    /**
+     * Pair rates already derived from cached tables, keyed by packed (from, to, snapshot day).
+     */
+    private RateMatrix<RateMatrixEntry> rateMatrix;
+
+    /**
+     * Current rate snapshot, replaced as a whole whenever the cached tables change.
+     */
+    private final AtomicReference<RateSnapshot> rateSnapshot = new AtomicReference<>(RateSnapshot.EMPTY);
+
+    /**
+     * Bumped, per slot of snapshot days, after a table of that day is put in the cache. Days
+     * sharing a slot only make each other's versions move more often.
+     */
+    private final AtomicLongArray tableVersions = new AtomicLongArray(TABLE_VERSION_SLOTS);
+
+    private volatile long todayEpochDay;
+
+    private volatile long nextDayStartMillis;
+
+    /**
+     * Loads currently running per key. Concurrent misses for the same key wait on the
+     * leader's future instead of issuing their own HTTP call.
+     */
+    private final ConcurrentHashMap<RateTableKey, CompletableFuture<RateTable>> inFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * Tables this instance asked the rate publisher for, completed when they arrive on the topic.
+     */
+    private final ConcurrentHashMap<RateTableKey, CompletableFuture<RateTable>> requestedTables = new ConcurrentHashMap<>();
+
+    /**
+     * Tables read since the background refresher last reloaded them. Only these are kept warm,
+     * tables nobody asks for are left to expire.
+     */
+    private final Set<RateTableKey> hotTables = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Completes once the startup pre-warm has loaded its tables or timed out.
+     */
+    private final CompletableFuture<Void> warmup = new CompletableFuture<>();
+
+    /**
+     * Result of a currency conversion.
+     *
+     * @param amount converted amount
+     * @param stale  true if the rate came from a table past its refresh point, or from the fallback rates
+     */
+    public record ConvertedAmount(BigDecimal amount, boolean stale) {
+    }
+
+    /**
+     * Result of converting a batch of transactions.
+     *
+     * @param totalCredit      sum of converted credits
+     * @param totalDebit       sum of converted debits, as a positive amount
+     * @param stale            true if any rate used was stale
+     * @param convertedAmounts converted amount per transaction in input order, empty unless requested
+     * @param rateVersion      version of the rate snapshot every cached rate in the batch came from
+     */
+    public record BatchConversion(BigDecimal totalCredit, BigDecimal totalDebit, boolean stale,
+                                  List<BigDecimal> convertedAmounts, long rateVersion) {
+    }
+
+    /**
+     * Credit and debit totals in one currency.
+     *
+     * @param currency currency of both totals
+     * @param credit   sum of credits
+     * @param debit    sum of debits, as a positive amount
+     */
+    public record CurrencyTotals(String currency, BigDecimal credit, BigDecimal debit) {
+    }
+
+    /**
+     * Rate for a currency pair, held in fixed point. A null rate keeps amounts unconverted.
+     */
+    private record RateQuote(FixedPointRate rate, boolean stale) {
+    }
+
+    /**
+     * Quote used for a batch group whose rate lookup failed.
+     */
+    private static final RateQuote FAILED_QUOTE = new RateQuote(null, true);
+
+    /**
+     * Rate matrix value: a pair's rate derived from one cached table, with both quotes
+     * prebuilt so a hit returns without allocating.
+     */
+    private record RateMatrixEntry(RateTableKey tableKey, long snapshotTableKey, RateTable table,
+                                   RateQuote fresh, RateQuote stale, long staleAtMillis) {
+
+        RateQuote quote(boolean isStale) {
+            return isStale ? stale : fresh;
+        }
+    }
+
+    /**
+     * Batch grouping key: every transaction in a currency that maps to the same rate snapshot
+     * shares one rate lookup.
+     */
+    private record RateGroupKey(String currency, long snapshotDay) {
+    }
+
+    /**
+     * Cache key for the rate table of one base currency at a given snapshot date.
+     */
+    private record RateTableKey(String baseCurrency, LocalDate snapshotDate) {
+    }
+
+    /**
+     * Builds the bounded rate cache and registers its statistics with the meter registry.
+     *
+     * Tables for today (or a future date) can still move, so they expire after {@code current-ttl};
+     * tables for past snapshot dates are settled and are kept for the longer {@code historical-ttl}.
+     */
+    @PostConstruct
+    void initCache() {
+        rateCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new RateExpiry())
+                .ticker(ticker)
+                .recordStats(() -> cacheStats)
+                .build();
+        rateMatrix = new RateMatrix<>(rateMatrixSize);
+        refreshOwner = !kafkaFeedEnabled;
+        publishSnapshot();
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, rateCache, CACHE_NAME);
+            meterRegistry.gauge("exchange.rate.snapshot.version", rateSnapshot, s -> s.get().getVersion());
+        }
+        log.info("Exchange rate cache initialised: maximumSize={}, currentTtl={}, historicalTtl={}, refreshAfter={}",
+                cacheMaximumSize, currentRateTtl, historicalRateTtl, refreshAfter);
+        if (refreshAfter.compareTo(currentRateTtl) >= 0) {
+            log.warn("app.exchange-rate.refresh.refresh-after ({}) should be shorter than cache.current-ttl ({}), "
+                    + "otherwise tables expire before they can be served stale", refreshAfter, currentRateTtl);
+        }
+    }
+
+    /**
+     * Per-entry expiry policy: the TTL is fixed at creation time from the key's snapshot date.
+     */
+    private class RateExpiry implements Expiry<RateTableKey, RateTable> {
+
+        @Override
+        public long expireAfterCreate(RateTableKey key, RateTable table, long currentTime) {
+            return ttlFor(key.snapshotDate()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(RateTableKey key, RateTable table, long currentTime, long currentDuration) {
+            return ttlFor(key.snapshotDate()).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(RateTableKey key, RateTable table, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private Duration ttlFor(LocalDate date) {
+        boolean historical = date != null && date.isBefore(LocalDate.now());
+        return historical ? historicalRateTtl : currentRateTtl;
+    }
+
+    /**
+     * Warm start: imports the configured backfill file, then loads the last
+     * {@code history.preload-days} of stored tables into the cache so a fresh instance
+     * does not have to ask the provider for every table again.
+     */
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStartFromHistory() {
+        if (!historyEnabled) {
+            return;
+        }
+        if (StringUtils.hasText(historyBackfillFile)) {
+            try (Reader csv = Files.newBufferedReader(Path.of(historyBackfillFile))) {
+                rateHistoryStore.importCsv(csv);
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not backfill exchange rate history from {}: {}", historyBackfillFile, e.getMessage());
+            }
+        }
+        try {
+            List<RateTable> tables = rateHistoryStore.findSince(LocalDate.now().minusDays(historyPreloadDays));
+            tables.forEach(table -> rateCache.put(new RateTableKey(table.getBaseCurrency(), table.getSnapshotDate()), table));
+            publishSnapshot();
+            tables.forEach(table -> bumpTableVersion(table.getSnapshotDate()));
+            log.info("Preloaded {} exchange rate tables from history", tables.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not preload exchange rate history: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies a rate table published by another instance (or echoed back from this one).
+     *
+     * A table older than the cached one for the same key is ignored, so replaying the
+     * compacted topic never rolls the cache back.
+     *
+     * @return true if the cache was updated
+     */
+    public boolean applyPublishedTable(RateTable table) {
+        RateTableKey key = new RateTableKey(table.getBaseCurrency(), table.getSnapshotDate());
+        RateTable cached = rateCache.policy().getIfPresentQuietly(key);
+        if (cached != null && !table.getFetchedAt().isAfter(cached.getFetchedAt())) {
+            completeRequest(key, cached);
+            return false;
+        }
+        rateCache.put(key, table);
+        publishSnapshot();
+        bumpTableVersion(key.snapshotDate());
+        completeRequest(key, table);
+        log.debug("Applied published exchange rates for {} on {}", key.baseCurrency(), key.snapshotDate());
+        return true;
+    }
+
+    /**
+     * Answers another instance's {@link RateTableRequestedEvent}: the elected publisher loads the
+     * table, which puts it on the topic, or republishes the one it already holds. Other instances
+     * ignore the request.
+     */
+    public void serveRequestedTable(String baseCurrency, LocalDate snapshotDate) {
+        if (!refreshOwner) {
+            return;
+        }
+        RateTableKey key = new RateTableKey(baseCurrency.toUpperCase(Locale.ROOT), snapshotDate);
+        RateTable cached = rateCache.policy().getIfPresentQuietly(key);
+        if (cached != null && !isStale(key, cached)) {
+            eventPublisher.publishEvent(new RateTableFetchedEvent(cached));
+        } else {
+            loadAsync(key);
+        }
+    }
+
+    private void completeRequest(RateTableKey key, RateTable table) {
+        CompletableFuture<RateTable> requested = requestedTables.get(key);
+        if (requested != null) {
+            requested.complete(table);
+        }
+    }
+
+    /**
+     * Takes over or hands back refreshing from the provider when the rate publisher
+     * election changes.
+     */
+    @EventListener
+    public void onPublisherElection(RatePublisherElectedEvent event) {
+        if (refreshOwner != event.elected()) {
+            log.info("Exchange rate publisher election: this instance {} refreshing rates",
+                    event.elected() ? "is now" : "is no longer");
+        }
+        refreshOwner = event.elected();
+    }
+
+    public boolean isRefreshOwner() {
+        return refreshOwner;
+    }
+
+    /**
+     * Pre-warm: loads today's table for every configured currency in parallel on the load
+     * executor, then derives the rate of every pair among them, so the first requests after
+     * a deploy are served from the cache. Tables already warm from the history are kept.
+     *
+     * The warm-up counts as done when every load has finished or after
+     * {@code prewarm.readiness-timeout}, whichever comes first; readiness waits for it.
+     */
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmRateTables() {
+        if (!prewarmEnabled || prewarmCurrencies == null || prewarmCurrencies.isEmpty()) {
+            warmup.complete(null);
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        List<String> currencies = prewarmCurrencies.stream()
+                .map(currency -> currency.trim().toUpperCase(Locale.ROOT))
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+        long start = System.nanoTime();
+        CompletableFuture<?>[] loads = currencies.stream()
+                .map(currency -> {
+                    RateTableKey key = new RateTableKey(currency, today);
+                    RateTable cached = rateCache.policy().getIfPresentQuietly(key);
+                    return cached != null && !isStale(key, cached)
+                            ? CompletableFuture.completedFuture(cached)
+                            : loadAsync(key);
+                })
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(loads)
+                .handle((ignored, failure) -> {
+                    warmPairRates(currencies, today);
+                    return null;
+                })
+                .orTimeout(prewarmTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, failure) -> {
+                    if (failure != null) {
+                        log.warn("Exchange rate pre-warm did not finish within {}, accepting traffic anyway", prewarmTimeout);
+                    } else {
+                        log.info("Pre-warmed exchange rates for {} currencies in {} ms", currencies.size(),
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                    warmup.complete(null);
+                });
+    }
+
+    /**
+     * Derives every pair among the pre-warmed currencies into the rate matrix.
+     */
+    private void warmPairRates(List<String> currencies, LocalDate today) {
+        RateSnapshot snapshot = rateSnapshot.get();
+        long snapshotDay = today.toEpochDay();
+        for (String from : currencies) {
+            for (String to : currencies) {
+                if (!from.equals(to)) {
+                    findSnapshotQuote(snapshot, from, to, snapshotDay);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true once the startup pre-warm has finished or timed out.
+     */
+    public boolean isWarmedUp() {
+        return warmup.isDone();
+    }
+
+    /**
+     * Completes once the startup pre-warm has finished or timed out.
+     */
+    public CompletableFuture<Void> getWarmup() {
+        return warmup.copy();
+    }
+
+    /**
+     * Version of the rate tables that amounts valued in a month are converted with: the tables
+     * of the month's own days where they are settled, and today's tables for the days that map
+     * to the latest snapshot. It only changes when one of those tables is loaded, refreshed or
+     * cleared, so anything converted for the month with an older version may be out of date.
+     */
+    public long getRateVersion(YearMonth month) {
+        long today = todayEpochDay();
+        long version = 0;
+        boolean usesToday = false;
+        for (LocalDate day = month.atDay(1); !day.isAfter(month.atEndOfMonth()); day = day.plusDays(1)) {
+            long snapshotDay = snapshotEpochDay(day);
+            if (snapshotDay == today) {
+                usesToday = true;
+            } else {
+                version += tableVersions.get(tableVersionSlot(snapshotDay));
+            }
+        }
+        return usesToday ? version + tableVersions.get(tableVersionSlot(today)) : version;
+    }
 
     public BigDecimal convertToBaseCurrency(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
+        return convert(amount, fromCurrency, toCurrency, date).amount();
+    }
+
+    /**
+     * Converts an amount and reports whether the rate used was stale.
+     *
+     * Stale rates are still served (stale-while-revalidate); looking one up schedules a
+     * background reload of its table.
+     */
+    public ConvertedAmount convert(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
         if (amount == null || fromCurrency == null || toCurrency == null) {
             log.warn("Invalid parameters for currency conversion: amount={}, from={}, to={}", 
                     amount, fromCurrency, toCurrency);
-            return amount != null ? amount : BigDecimal.ZERO;
+            return new ConvertedAmount(amount != null ? amount : BigDecimal.ZERO, false);
         }
         
         // If same currency, return original amount
         if (fromCurrency.equalsIgnoreCase(toCurrency)) {
-            return amount;
+            return new ConvertedAmount(amount, false);
         }
         
         try {
-            BigDecimal exchangeRate = getExchangeRate(fromCurrency, toCurrency, date);
-            return amount.multiply(exchangeRate).setScale(2, RoundingMode.HALF_UP);
+            RateQuote quote = getExchangeRate(rateSnapshot.get(), fromCurrency, toCurrency, date);
+            return new ConvertedAmount(quote.rate().multiply(amount, CONVERTED_SCALE), quote.stale());
             
         } catch (Exception e) {
             log.error("Error converting currency from {} to {}: {}", fromCurrency, toCurrency, e.getMessage());
             // Return original amount in case of error (don't fail the entire request)
-            return amount;
+            return new ConvertedAmount(amount, true);
         }
     }
 
-    private BigDecimal getExchangeRate(String fromCurrency, String toCurrency, LocalDate date) {
-        String cacheKey = String.format("%s_%s_%s", fromCurrency, toCurrency, date);
-        
-        // Check cache first
-        BigDecimal cachedRate = rateCache.get(cacheKey);
-        if (cachedRate != null) {
-            log.debug("Using cached exchange rate for {} to {}: {}", fromCurrency, toCurrency, cachedRate);
-            return cachedRate;
+    /**
+     * Converts a batch of transactions into the base currency and totals credits and debits.
+     *
+     * Transactions are grouped by currency and rate snapshot, so each distinct rate is resolved
+     * once per batch instead of once per row. Conversion and totals run in fixed point, with a
+     * BigDecimal fallback on overflow; per-row amounts are rounded exactly as {@link #convert}
+     * rounds them, so totals match the sum of single conversions.
+     *
+     * All cached rates come from one rate snapshot. Tables missing from the snapshot the batch
+     * started with are loaded first, then every rate is read from the snapshot published after
+     * those loads, so a concurrent refresh cannot mix two versions within one response.
+     *
+     * @param includeRowAmounts whether to return the converted amount of each transaction
+     */
+    public BatchConversion convertAll(Collection<Transaction> transactions, String baseCurrency,
+                                      boolean includeRowAmounts) {
+        RateSnapshot snapshot = rateSnapshot.get();
+        Map<RateGroupKey, RateQuote> rates = new HashMap<>();
+        boolean loaded = false;
+        for (Transaction transaction : transactions) {
+            if (transaction.getAmount() == null || !needsConversion(transaction.getCurrency(), baseCurrency)) {
+                continue;
+            }
+            RateGroupKey group = new RateGroupKey(transaction.getCurrency().toUpperCase(Locale.ROOT),
+                    snapshotEpochDay(transaction.getValueDate()));
+            if (!rates.containsKey(group)) {
+                RateQuote quote = findSnapshotQuote(snapshot, group.currency(), baseCurrency, group.snapshotDay());
+                if (quote != null) {
+                    cacheStats.recordHits(1);
+                } else {
+                    quote = batchRateFor(snapshot, group, baseCurrency, transaction.getValueDate());
+                    loaded = true;
+                }
+                rates.put(group, quote);
+            }
         }
-        
-        // Fetch from external API
-        BigDecimal rate = fetchExchangeRateFromApi(fromCurrency, toCurrency, date);
-        
-        // Cache the rate
-        if (rate != null) {
-            rateCache.put(cacheKey, rate);
+
+        // Loads published newer snapshots: re-read every rate from the latest one
+        if (loaded) {
+            snapshot = rateSnapshot.get();
+            for (Map.Entry<RateGroupKey, RateQuote> entry : rates.entrySet()) {
+                RateGroupKey group = entry.getKey();
+                RateQuote quote = findSnapshotQuote(snapshot, group.currency(), baseCurrency, group.snapshotDay());
+                if (quote != null) {
+                    entry.setValue(quote);
+                }
+            }
         }
-        
-        return rate != null ? rate : BigDecimal.ONE; // Default to 1:1 if API fails
+
+        List<BigDecimal> convertedAmounts = includeRowAmounts ? new ArrayList<>(transactions.size()) : List.of();
+        MoneyTotal totalCredit = new MoneyTotal();
+        MoneyTotal totalDebit = new MoneyTotal();
+        boolean stale = false;
+
+        for (Transaction transaction : transactions) {
+            BigDecimal amount = transaction.getAmount();
+            boolean credit = transaction.isCredit();
+            MoneyTotal total = credit ? totalCredit : totalDebit;
+
+            RateQuote batchRate = null;
+            if (amount != null && needsConversion(transaction.getCurrency(), baseCurrency)) {
+                batchRate = rates.get(new RateGroupKey(transaction.getCurrency().toUpperCase(Locale.ROOT),
+                        snapshotEpochDay(transaction.getValueDate())));
+                stale |= batchRate.stale();
+            }
+
+            // Fast path: convert and total in fixed point, only materialising row amounts when asked
+            long unscaled = batchRate != null && batchRate.rate() != null
+                    ? batchRate.rate().multiplyUnscaled(amount, CONVERTED_SCALE)
+                    : FixedPointRate.OVERFLOW;
+            if (unscaled != FixedPointRate.OVERFLOW) {
+                total.add(credit ? unscaled : Math.abs(unscaled), CONVERTED_SCALE);
+                if (includeRowAmounts) {
+                    convertedAmounts.add(BigDecimal.valueOf(unscaled, CONVERTED_SCALE));
+                }
+                continue;
+            }
+
+            BigDecimal converted = amount == null ? BigDecimal.ZERO
+                    : batchRate != null && batchRate.rate() != null
+                    ? batchRate.rate().multiply(amount, CONVERTED_SCALE)
+                    : amount;
+            total.add(credit ? converted : converted.abs());
+            if (includeRowAmounts) {
+                convertedAmounts.add(converted);
+            }
+        }
+
+        log.debug("Converted {} transactions to {} using {} distinct rates from rate snapshot {}",
+                transactions.size(), baseCurrency, rates.size(), snapshot.getVersion());
+        return new BatchConversion(totalCredit.toBigDecimal(), totalDebit.toBigDecimal(), stale, convertedAmounts,
+                snapshot.getVersion());
     }
 
-    private BigDecimal fetchExchangeRateFromApi(String fromCurrency, String toCurrency, LocalDate date) {
-        try {
-            // For demo purposes, use mock rates if API is unavailable
-            if (isApiUnavailable()) {
-                log.warn("Exchange rate API unavailable, using mock rates for {} to {}", fromCurrency, toCurrency);
-                return getMockExchangeRate(fromCurrency, toCurrency);
+    /**
+     * Converts per-currency totals at the rates of one date and adds them up.
+     *
+     * Each currency's total is converted and rounded once, so the work is proportional to the
+     * number of currencies, not of transactions. The result carries no row amounts.
+     */
+    public BatchConversion convertTotals(Collection<CurrencyTotals> totals, String baseCurrency, LocalDate rateDate) {
+        RateSnapshot snapshot = rateSnapshot.get();
+        long snapshotDay = snapshotEpochDay(rateDate);
+        Map<String, RateQuote> rates = new HashMap<>();
+        boolean loaded = false;
+        for (CurrencyTotals currencyTotals : totals) {
+            String currency = currencyTotals.currency().toUpperCase(Locale.ROOT);
+            if (!needsConversion(currency, baseCurrency) || rates.containsKey(currency)) {
+                continue;
             }
-            
-            String url = String.format("%s/%s", exchangeRateApiUrl, fromCurrency);
-            log.debug("Fetching exchange rate from API: {}", url);
-            
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            
-            if (response != null && response.containsKey("rates")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> rates = (Map<String, Object>) response.get("rates");
-                
-                if (rates.containsKey(toCurrency)) {
-                    Object rateObj = rates.get(toCurrency);
-                    if (rateObj instanceof Number) {
-                        return new BigDecimal(rateObj.toString());
-                    }
+            RateQuote quote = findSnapshotQuote(snapshot, currency, baseCurrency, snapshotDay);
+            if (quote != null) {
+                cacheStats.recordHits(1);
+            } else {
+                quote = batchRateFor(snapshot, new RateGroupKey(currency, snapshotDay), baseCurrency, rateDate);
+                loaded = true;
+            }
+            rates.put(currency, quote);
+        }
+
+        // Loads published newer snapshots: re-read every rate from the latest one
+        if (loaded) {
+            snapshot = rateSnapshot.get();
+            for (Map.Entry<String, RateQuote> entry : rates.entrySet()) {
+                RateQuote quote = findSnapshotQuote(snapshot, entry.getKey(), baseCurrency, snapshotDay);
+                if (quote != null) {
+                    entry.setValue(quote);
                 }
             }
-            
-            log.warn("Could not extract exchange rate from API response for {} to {}", fromCurrency, toCurrency);
-            return getMockExchangeRate(fromCurrency, toCurrency);
-            
-        } catch (ResourceAccessException e) {
-            log.warn("Network error accessing exchange rate API: {}", e.getMessage());
-            return getMockExchangeRate(fromCurrency, toCurrency);
-        } catch (HttpClientErrorException e) {
-            log.warn("HTTP error accessing exchange rate API: {} - {}", e.getStatusCode(), e.getMessage());
-            return getMockExchangeRate(fromCurrency, toCurrency);
+        }
+
+        MoneyTotal totalCredit = new MoneyTotal();
+        MoneyTotal totalDebit = new MoneyTotal();
+        boolean stale = false;
+        for (CurrencyTotals currencyTotals : totals) {
+            RateQuote quote = rates.get(currencyTotals.currency().toUpperCase(Locale.ROOT));
+            if (quote != null) {
+                stale |= quote.stale();
+            }
+            totalCredit.add(convertTotal(quote, currencyTotals.credit()));
+            totalDebit.add(convertTotal(quote, currencyTotals.debit()));
+        }
+
+        log.debug("Converted totals in {} currencies to {} from rate snapshot {}",
+                totals.size(), baseCurrency, snapshot.getVersion());
+        return new BatchConversion(totalCredit.toBigDecimal(), totalDebit.toBigDecimal(), stale, List.of(),
+                snapshot.getVersion());
+    }
+
+    private static BigDecimal convertTotal(RateQuote quote, BigDecimal amount) {
+        if (amount == null) {
+            return BigDecimal.ZERO;
+        }
+        return quote != null && quote.rate() != null ? quote.rate().multiply(amount, CONVERTED_SCALE) : amount;
+    }
+
+    private boolean needsConversion(String fromCurrency, String toCurrency) {
+        return fromCurrency != null && toCurrency != null && !fromCurrency.equalsIgnoreCase(toCurrency);
+    }
+
+    private RateQuote batchRateFor(RateSnapshot snapshot, RateGroupKey group, String baseCurrency, LocalDate valueDate) {
+        try {
+            return getExchangeRate(snapshot, group.currency(), baseCurrency, valueDate);
         } catch (Exception e) {
-            log.error("Error fetching exchange rate from API for {} to {}: {}", 
-                     fromCurrency, toCurrency, e.getMessage());
-            return getMockExchangeRate(fromCurrency, toCurrency);
+            log.error("Error converting currency from {} to {}: {}", group.currency(), baseCurrency, e.getMessage());
+            return FAILED_QUOTE;
         }
     }
 
+    private RateQuote getExchangeRate(RateSnapshot snapshot, String fromCurrency, String toCurrency, LocalDate date) {
+        long snapshotDay = snapshotEpochDay(date);
+        RateQuote snapshotQuote = findSnapshotQuote(snapshot, fromCurrency, toCurrency, snapshotDay);
+        if (snapshotQuote != null) {
+            cacheStats.recordHits(1);
+            return snapshotQuote;
+        }
+        cacheStats.recordMisses(1);
+
+        String from = fromCurrency.toUpperCase(Locale.ROOT);
+        String to = toCurrency.toUpperCase(Locale.ROOT);
+        LocalDate snapshotDate = LocalDate.ofEpochDay(snapshotDay);
+
+        // One fetch of the source currency's table answers every pair quoted against it
+        RateTableKey sourceKey = new RateTableKey(from, snapshotDate);
+        RateTableKey usedKey = sourceKey;
+        RateTable table = loadCoalesced(sourceKey);
+        BigDecimal rate = table != null ? table.crossRate(from, to) : null;
+
+        // The source table does not quote the target currency, triangulate through the pivot.
+        // A history-only date may simply lack the source table, so try the pivot there too.
+        if (rate == null && (table != null || !canFetch(sourceKey)) && !pivotCurrency.equals(from)) {
+            usedKey = new RateTableKey(pivotCurrency, snapshotDate);
+            table = loadCoalesced(usedKey);
+            rate = table != null ? table.crossRate(from, to) : null;
+        }
+        hotTables.add(usedKey);
+
+        if (rate == null) {
+            log.warn("No exchange rate available for {} to {}, using fallback rate", from, to);
+            return new RateQuote(FixedPointRate.of(exchangeRateProviders.fallbackRate(from, to, snapshotDate)), true);
+        }
+        // A table can arrive stale when the provider failed and the history answered instead
+        return rememberRate(pairKey(fromCurrency, toCurrency, snapshotDay), usedKey, table, rate)
+                .quote(isStale(usedKey, table));
+    }
+
     /**
-     * Check if the external API is available.
+     * The providers only serve "latest" tables unless one of them serves history (e.g. the HTTP
+     * provider with a historical URL), in which case past value dates get their own snapshot. Past dates found in the rate history also
+     * get their own snapshot. Splitting the cache by value date would
+     * otherwise just store the same latest table once per day of the month.
      */
-    private boolean isApiUnavailable() {
-        // For demo purposes, you can add a simple health check here
-        // In production, you might want to implement a circuit breaker pattern
-        return false; // Assume API is available by default
+    private long snapshotEpochDay(LocalDate valueDate) {
+        long today = todayEpochDay();
+        if (valueDate == null || valueDate.toEpochDay() >= today) {
+            return today;
+        }
+        return canFetchHistorical() || hasHistoryFor(valueDate) ? valueDate.toEpochDay() : today;
     }
 
     /**
-     * Get mock exchange rates for demo purposes.
+     * Today's epoch day, recomputed only when the day rolls over so lookups do not build a
+     * {@link LocalDate} per call.
      */
-    private BigDecimal getMockExchangeRate(String fromCurrency, String toCurrency) {
-        // Simple mock rates for demo
-        if ("USD".equalsIgnoreCase(fromCurrency) && "GBP".equalsIgnoreCase(toCurrency)) {
-            return new BigDecimal("0.79");
-        } else if ("GBP".equalsIgnoreCase(fromCurrency) && "USD".equalsIgnoreCase(toCurrency)) {
-            return new BigDecimal("1.27");
-        } else if ("EUR".equalsIgnoreCase(fromCurrency) && "GBP".equalsIgnoreCase(toCurrency)) {
-            return new BigDecimal("0.86");
-        } else if ("GBP".equalsIgnoreCase(fromCurrency) && "EUR".equalsIgnoreCase(toCurrency)) {
-            return new BigDecimal("1.16");
-        } else if ("CHF".equalsIgnoreCase(fromCurrency) && "GBP".equalsIgnoreCase(toCurrency)) {
-            return new BigDecimal("0.89");
-        } else if ("GBP".equalsIgnoreCase(fromCurrency) && "CHF".equalsIgnoreCase(toCurrency)) {
-            return new BigDecimal("1.12");
+    private long todayEpochDay() {
+        if (System.currentTimeMillis() >= nextDayStartMillis) {
+            LocalDate today = LocalDate.now();
+            todayEpochDay = today.toEpochDay();
+            nextDayStartMillis = today.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         }
-        
-        // Default 1:1 rate for unknown currency pairs
-        return BigDecimal.ONE;
+        return todayEpochDay;
+    }
+
+    private boolean canFetchHistorical() {
+        return exchangeRateProviders.supportsHistorical();
+    }
+
+    private boolean canFetch(RateTableKey key) {
+        return canFetchHistorical() || !key.snapshotDate().isBefore(LocalDate.now());
+    }
+
+    private boolean hasHistoryFor(LocalDate date) {
+        return historyEnabled && rateHistoryStore.hasRatesFor(date);
+    }
+
+    /**
+     * Resolves a pair from the given snapshot only, never loading: first from the rate matrix,
+     * then from any snapshot table that can answer it (direct, inverse or via the pivot).
+     *
+     * @return the quote, or null if the snapshot cannot answer the pair
+     */
+    private RateQuote findSnapshotQuote(RateSnapshot snapshot, String fromCurrency, String toCurrency, long snapshotDay) {
+        long matrixKey = pairKey(fromCurrency, toCurrency, snapshotDay);
+        // Allocation-free hit path: this pair was already derived for this snapshot day
+        RateQuote matrixQuote = findMatrixQuote(snapshot, matrixKey);
+        if (matrixQuote != null) {
+            return matrixQuote;
+        }
+        return findCachedQuote(snapshot, fromCurrency.toUpperCase(Locale.ROOT), toCurrency.toUpperCase(Locale.ROOT),
+                snapshotDay, matrixKey);
+    }
+
+    private long pairKey(String fromCurrency, String toCurrency, long snapshotDay) {
+        int fromCode = CurrencyCodes.pack(fromCurrency);
+        int toCode = CurrencyCodes.pack(toCurrency);
+        return fromCode != CurrencyCodes.INVALID && toCode != CurrencyCodes.INVALID
+                ? RateMatrix.key(fromCode, toCode, snapshotDay)
+                : NO_MATRIX_KEY;
+    }
+
+    /**
+     * Looks the pair up in the rate matrix. An entry only counts while the snapshot still holds
+     * the exact table it was derived from, so reloads and evictions invalidate it implicitly.
+     */
+    private RateQuote findMatrixQuote(RateSnapshot snapshot, long matrixKey) {
+        if (matrixKey == NO_MATRIX_KEY) {
+            return null;
+        }
+        RateMatrixEntry entry = rateMatrix.get(matrixKey);
+        if (entry == null || snapshot.table(entry.snapshotTableKey(), ticker.read()) != entry.table()) {
+            return null;
+        }
+        hotTables.add(entry.tableKey());
+        if (clock.millis() <= entry.staleAtMillis()) {
+            return entry.fresh();
+        }
+        refreshInBackground(entry.tableKey());
+        return entry.stale();
+    }
+
+    private RateQuote findCachedQuote(RateSnapshot snapshot, String from, String to, long snapshotDay, long matrixKey) {
+        long now = ticker.read();
+        for (String base : new String[]{from, to, pivotCurrency}) {
+            RateTable table = snapshot.table(RateSnapshot.tableKey(CurrencyCodes.pack(base), snapshotDay), now);
+            BigDecimal rate = table != null ? table.crossRate(from, to) : null;
+            if (rate != null) {
+                RateTableKey key = new RateTableKey(base, table.getSnapshotDate());
+                hotTables.add(key);
+                boolean stale = isStale(key, table);
+                if (stale) {
+                    refreshInBackground(key);
+                }
+                return rememberRate(matrixKey, key, table, rate).quote(stale);
+            }
+        }
+        return null;
+    }
+
+    private RateMatrixEntry rememberRate(long matrixKey, RateTableKey key, RateTable table, BigDecimal rate) {
+        FixedPointRate fixedPointRate = FixedPointRate.of(rate);
+        long staleAtMillis = isSettled(key)
+                ? Long.MAX_VALUE
+                : table.getFetchedAt().plus(refreshAfter).toEpochMilli();
+        long snapshotTableKey = RateSnapshot.tableKey(CurrencyCodes.pack(key.baseCurrency()),
+                key.snapshotDate().toEpochDay());
+        RateMatrixEntry entry = new RateMatrixEntry(key, snapshotTableKey, table,
+                new RateQuote(fixedPointRate, false), new RateQuote(fixedPointRate, true), staleAtMillis);
+        if (matrixKey != NO_MATRIX_KEY) {
+            rateMatrix.put(matrixKey, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * A table past {@code refresh-after} is stale: it is still served until it expires, but a
+     * reload is due. Past-dated snapshots never change and are never stale.
+     */
+    private boolean isStale(RateTableKey key, RateTable table) {
+        if (isSettled(key)) {
+            return false;
+        }
+        return table.getFetchedAt().plus(refreshAfter).isBefore(clock.instant());
+    }
+
+    private boolean isSettled(RateTableKey key) {
+        return key.snapshotDate().isBefore(LocalDate.now()) && (canFetchHistorical() || hasHistoryFor(key.snapshotDate()));
+    }
+
+    /**
+     * With the Kafka rate feed, instances that are not the elected publisher leave stale tables
+     * to the publisher and pick up its refreshed tables from the topic.
+     */
+    private void refreshInBackground(RateTableKey key) {
+        if (refreshOwner && !inFlightLoads.containsKey(key)) {
+            loadAsync(key);
+        }
+    }
+
+    /**
+     * Reloads hot tables that are due for a refresh, so that requests keep being served from
+     * the cache and the external API stays off the request path.
+     *
+     * A "latest" table left over from a previous day is replaced by today's table.
+     *
+     * With the Kafka rate feed only the elected publisher refreshes, and it keeps every cached
+     * table warm rather than only its own hot ones, since other instances read from its cache
+     * through the topic.
+     */
+    @Scheduled(fixedDelayString = "${app.exchange-rate.refresh.interval-ms:60000}",
+            initialDelayString = "${app.exchange-rate.refresh.interval-ms:60000}")
+    public void refreshHotRateTables() {
+        if (!refreshEnabled || !refreshOwner) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        int scheduled = 0;
+        for (Map.Entry<RateTableKey, RateTable> entry : rateCache.asMap().entrySet()) {
+            RateTableKey key = entry.getKey();
+            if (isSettled(key) || (!kafkaFeedEnabled && !hotTables.contains(key))) {
+                continue;
+            }
+            RateTableKey refreshKey = key.snapshotDate().isBefore(today)
+                    ? new RateTableKey(key.baseCurrency(), today)
+                    : key;
+            if (refreshKey != key || isStale(key, entry.getValue())) {
+                hotTables.remove(key);
+                refreshInBackground(refreshKey);
+                scheduled++;
+            }
+        }
+        if (scheduled > 0) {
+            log.debug("Scheduled background refresh of {} exchange rate tables", scheduled);
+        }
+    }
+
+    /**
+     * Single-flight load: the first caller for a key fetches the table and fills the cache,
+     * every concurrent caller for the same key waits on that one result.
+     *
+     * Waiters give up after {@code load-wait-timeout} and fall back to the mock rate without
+     * caching it, so a slow provider cannot hold request threads for the full HTTP timeout.
+     */
+    private RateTable loadCoalesced(RateTableKey key) {
+        return awaitInFlightLoad(key, loadAsync(key));
+    }
+
+    /**
+     * Asynchronous single-flight load. The HTTP call runs on the exchange rate executor, never on
+     * the caller's thread, so request threads only ever wait for {@code load-wait-timeout}.
+     *
+     * @return the shared future of the in-flight load for this key
+     */
+    private CompletableFuture<RateTable> loadAsync(RateTableKey key) {
+        CompletableFuture<RateTable> pending = new CompletableFuture<>();
+        CompletableFuture<RateTable> existing = inFlightLoads.putIfAbsent(key, pending);
+        if (existing != null) {
+            return existing;
+        }
+
+        long submittedAt = System.nanoTime();
+        try {
+            exchangeRateExecutor.execute(() -> {
+                recordQueueWait(System.nanoTime() - submittedAt);
+                completeLoad(key, pending);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Exchange rate load for {} rejected, executor is saturated", key.baseCurrency());
+            inFlightLoads.remove(key, pending);
+            pending.completeExceptionally(e);
+        }
+        return pending;
+    }
+
+    private void completeLoad(RateTableKey key, CompletableFuture<RateTable> pending) {
+        long startTime = ticker.read();
+        try {
+            RateTable table = loadRateTable(key);
+            if (table != null) {
+                rateCache.put(key, table);
+                publishSnapshot();
+                bumpTableVersion(key.snapshotDate());
+                cacheStats.recordLoadSuccess(ticker.read() - startTime);
+            } else {
+                cacheStats.recordLoadFailure(ticker.read() - startTime);
+            }
+            pending.complete(table);
+        } catch (RuntimeException e) {
+            cacheStats.recordLoadFailure(ticker.read() - startTime);
+            pending.completeExceptionally(e);
+        } finally {
+            inFlightLoads.remove(key, pending);
+        }
+    }
+
+    /**
+     * Reads through the rate history before going to the provider. A stored table is used as is
+     * when it is settled or still fresh; otherwise the provider is asked, and the stored table is
+     * kept as a fallback that beats the mock rates if the provider cannot answer.
+     *
+     * Fetched tables are stored and announced with a {@link RateTableFetchedEvent}. With the
+     * Kafka rate feed, only the elected publisher calls the provider and it also announces the
+     * stored tables it loads; other instances ask it for the table and wait for it on the topic.
+     */
+    private RateTable loadRateTable(RateTableKey key) {
+        RateTable stored = findInHistory(key);
+        if (stored != null && (isSettled(key) || !isStale(key, stored))) {
+            return shareLoaded(stored);
+        }
+        // Past dates are only available from the history unless the provider serves them
+        if (!canFetch(key)) {
+            return shareLoaded(stored);
+        }
+        if (!refreshOwner) {
+            return awaitPublishedTable(key, stored);
+        }
+
+        RateTable fetched = exchangeRateProviders.fetchRates(key.baseCurrency(), key.snapshotDate());
+        if (fetched == null) {
+            return shareLoaded(stored);
+        }
+        saveToHistory(fetched);
+        eventPublisher.publishEvent(new RateTableFetchedEvent(fetched));
+        return fetched;
+    }
+
+    /**
+     * Puts a table the elected publisher loaded from the history on the topic, so that instances
+     * waiting for it are answered.
+     */
+    private RateTable shareLoaded(RateTable table) {
+        if (table != null && kafkaFeedEnabled && refreshOwner) {
+            eventPublisher.publishEvent(new RateTableFetchedEvent(table));
+        }
+        return table;
+    }
+
+    /**
+     * Asks the elected publisher for a table and waits up to {@code kafka.table-wait-timeout} for it
+     * to arrive on the topic. Without an answer the stored table, if any, is used, and otherwise the
+     * caller falls back to the pivot table or the fallback rates; the provider is never called.
+     */
+    private RateTable awaitPublishedTable(RateTableKey key, RateTable stored) {
+        CompletableFuture<RateTable> requested = requestedTables.computeIfAbsent(key, k -> new CompletableFuture<>());
+        try {
+            // The table may have arrived between the miss and the registration
+            RateTable cached = rateCache.policy().getIfPresentQuietly(key);
+            if (cached != null) {
+                return cached;
+            }
+            eventPublisher.publishEvent(new RateTableRequestedEvent(key.baseCurrency(), key.snapshotDate()));
+            return requested.get(publishedTableWaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Exchange rates of {} on {} not published within {}, using {}", key.baseCurrency(),
+                    key.snapshotDate(), publishedTableWaitTimeout, stored != null ? "stored rates" : "fallback rates");
+            return stored;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return stored;
+        } catch (ExecutionException e) {
+            return stored;
+        } finally {
+            requestedTables.remove(key, requested);
+        }
+    }
+
+    private RateTable findInHistory(RateTableKey key) {
+        if (!historyEnabled) {
+            return null;
+        }
+        try {
+            return rateHistoryStore.find(key.baseCurrency(), key.snapshotDate()).orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("Could not read exchange rate history for {}: {}", key.baseCurrency(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveToHistory(RateTable table) {
+        if (!historyEnabled) {
+            return;
+        }
+        try {
+            rateHistoryStore.save(table);
+        } catch (DataAccessException e) {
+            log.warn("Could not store exchange rates for {}: {}", table.getBaseCurrency(), e.getMessage());
+        }
+    }
+
+    private void recordQueueWait(long nanos) {
+        if (meterRegistry != null) {
+            meterRegistry.timer("exchange.rate.load.queue.wait").record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private RateTable awaitInFlightLoad(RateTableKey key, CompletableFuture<RateTable> inFlight) {
+        log.debug("Waiting for exchange rate load for {}", key.baseCurrency());
+        try {
+            return inFlight.get(loadWaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Timed out after {} waiting for exchange rates of {}", loadWaitTimeout, key.baseCurrency());
+            recordLoadWaitTimeout();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for exchange rates of {}", key.baseCurrency());
+        } catch (ExecutionException e) {
+            log.warn("In-flight exchange rate load for {} failed: {}", key.baseCurrency(), e.getCause().getMessage());
+        }
+        return null;
+    }
+
+    private void recordLoadWaitTimeout() {
+        if (meterRegistry != null) {
+            meterRegistry.counter("exchange.rate.load.wait.timeouts").increment();
+        }
+    }
+
+    /**
+     * Publishes a new snapshot of the cached tables (copy-on-write). Readers keep whichever
+     * snapshot they already hold; the next reader sees the new version.
+     *
+     * A table evicted for size stays readable through the current snapshot until the next
+     * publish, but never past its own expiry.
+     */
+    private synchronized void publishSnapshot() {
+        long now = ticker.read();
+        List<RateSnapshot.Entry> entries = new ArrayList<>();
+        rateCache.asMap().forEach((key, table) -> rateCache.policy().expireVariably()
+                .flatMap(expiry -> expiry.getExpiresAfter(key))
+                .ifPresent(remaining -> entries.add(new RateSnapshot.Entry(table, now + remaining.toNanos()))));
+        RateSnapshot published = new RateSnapshot(rateSnapshot.get().getVersion() + 1, entries);
+        rateSnapshot.set(published);
+        log.debug("Published exchange rate snapshot {} with {} tables", published.getVersion(), entries.size());
+    }
+
+    /**
+     * Called after the snapshot holding the new table is published, so a reader that sees the
+     * new version also sees the new table.
+     */
+    private void bumpTableVersion(LocalDate snapshotDate) {
+        tableVersions.incrementAndGet(tableVersionSlot(snapshotDate.toEpochDay()));
+    }
+
+    private static int tableVersionSlot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) TABLE_VERSION_SLOTS);
     }
 
     public void clearCache() {
-        rateCache.clear();
+        rateCache.invalidateAll();
+        rateMatrix.clear();
+        hotTables.clear();
+        publishSnapshot();
+        for (int slot = 0; slot < TABLE_VERSION_SLOTS; slot++) {
+            tableVersions.incrementAndGet(slot);
+        }
         log.debug("Exchange rate cache cleared");
     }
 }
\ No newline at end of file
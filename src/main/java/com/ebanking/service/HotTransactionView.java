@@ -0,0 +1,312 @@
+package com.ebanking.service;
+
+import com.ebanking.domain.Transaction;
+import com.ebanking.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory view of the recent months of frequently read customers.
+ *
+ * A month is loaded from the database once it has been requested a few times, then kept in
+ * value date order and updated from the transactions topic, so pages of it are served without a
+ * query. Months are bounded by the estimated memory of their rows, least recently used first out,
+ * and reloaded from the database after max-age.
+ *
+ * Every instance reads every partition of the transactions topic for the view through its own
+ * listener without a consumer group (see KafkaConfig), so each replica sees every transaction,
+ * whichever instance stores it. A month loaded while a transaction is on its way to the database
+ * may miss it until the month is reloaded after max-age.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotTransactionView {
+
+    static final String CACHE_NAME = "hotTransactionView";
+
+    /**
+     * Approximate heap taken by one transaction: the object, its strings and amount.
+     */
+    private static final int ROW_BYTES = 400;
+
+    /**
+     * Approximate heap taken by a month's key and entry, added to its rows.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private static final int STRIPES = 64;
+
+    private static final Comparator<Transaction> VALUE_DATE_ORDER = Comparator
+            .comparing(Transaction::getValueDate)
+            .thenComparing(Transaction::getId);
+
+    private final TransactionRepository transactionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transactions.hot-view.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.transactions.hot-view.max-size:32MB}")
+    private DataSize maxSize;
+
+    @Value("${app.transactions.hot-view.recent-months:2}")
+    private int recentMonths;
+
+    @Value("${app.transactions.hot-view.max-month-rows:5000}")
+    private int maxMonthRows;
+
+    @Value("${app.transactions.hot-view.admit-after-requests:2}")
+    private int admitAfterRequests;
+
+    @Value("${app.transactions.hot-view.max-age:1m}")
+    private Duration maxAge;
+
+    private Clock clock = Clock.systemDefaultZone();
+    private Ticker ticker = Ticker.systemTicker();
+    private Cache<MonthKey, MonthView> months;
+    private Cache<MonthKey, AtomicInteger> requests;
+
+    /**
+     * Bumped, per stripe of customers, on every update; a month loaded across one is not kept,
+     * as it may predate the transaction that caused it.
+     */
+    private final AtomicLongArray updates = new AtomicLongArray(STRIPES);
+    private final Object[] locks = new Object[STRIPES];
+
+    record MonthKey(String customerId, YearMonth month) {
+    }
+
+    @PostConstruct
+    void initCache() {
+        Arrays.setAll(locks, i -> new Object());
+        months = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((MonthKey key, MonthView view) -> view.size() * ROW_BYTES + ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(maxAge)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        requests = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, months, CACHE_NAME);
+        }
+        log.info("Hot transaction view initialised: enabled={}, maxSize={}, recentMonths={}, maxAge={}",
+                enabled, maxSize, recentMonths, maxAge);
+    }
+
+    /**
+     * A customer's month in value date order, or null when it should be read from the database:
+     * the view is disabled, the month is not recent, not requested often enough yet, or too large.
+     */
+    public MonthView getMonth(String customerId, YearMonth month) {
+        if (!enabled || customerId == null || !isRecent(month)) {
+            return null;
+        }
+        MonthKey key = new MonthKey(customerId, month);
+        MonthView view = months.getIfPresent(key);
+        if (view != null) {
+            return view.tooLarge ? null : view;
+        }
+        if (requests.get(key, k -> new AtomicInteger()).incrementAndGet() < admitAfterRequests) {
+            return null;
+        }
+        return load(key);
+    }
+
+    /**
+     * Applies a transaction read from the transactions topic to the resident months it belongs to.
+     * The version it replaces, if any, is taken out of whichever recent month of the customer
+     * holds it, as a correction may move a transaction to another month.
+     */
+    public void apply(Transaction transaction) {
+        if (!enabled || !isViewable(transaction)) {
+            return;
+        }
+        MonthKey key = keyOf(transaction);
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i < recentMonths; i++) {
+            MonthKey other = new MonthKey(transaction.getCustomerId(), current.minusMonths(i));
+            if (!other.equals(key)) {
+                update(other, view -> view.withoutId(transaction.getId()));
+            }
+        }
+        update(key, view -> view.withoutId(transaction.getId()).with(transaction));
+    }
+
+    private MonthView load(MonthKey key) {
+        int stripe = stripe(key.customerId());
+        long generation = updates.get(stripe);
+        Slice<Transaction> rows = transactionRepository.findSliceByCustomerIdAndValueDateBetween(key.customerId(),
+                key.month().atDay(1), key.month().atEndOfMonth(), PageRequest.of(0, maxMonthRows));
+        MonthView view = rows.hasNext() ? MonthView.TOO_LARGE : new MonthView(rows.getContent().toArray(Transaction[]::new));
+        synchronized (locks[stripe]) {
+            if (updates.get(stripe) == generation) {
+                months.asMap().putIfAbsent(key, view);
+            }
+        }
+        log.debug("Loaded {} transactions of customer {} for {} into the hot view", rows.getNumberOfElements(),
+                key.customerId(), key.month());
+        return view.tooLarge ? null : view;
+    }
+
+    private void update(MonthKey key, UnaryOperator<MonthView> change) {
+        int stripe = stripe(key.customerId());
+        synchronized (locks[stripe]) {
+            updates.incrementAndGet(stripe);
+            months.asMap().computeIfPresent(key, (k, view) -> {
+                if (view.tooLarge) {
+                    return view;
+                }
+                MonthView changed = change.apply(view);
+                return changed.size() > maxMonthRows ? MonthView.TOO_LARGE : changed;
+            });
+        }
+    }
+
+    private boolean isRecent(YearMonth month) {
+        YearMonth current = YearMonth.now(clock);
+        return !month.isAfter(current) && month.isAfter(current.minusMonths(recentMonths));
+    }
+
+    private static boolean isViewable(Transaction transaction) {
+        return transaction != null && transaction.getCustomerId() != null && transaction.getValueDate() != null
+                && transaction.getId() != null;
+    }
+
+    private static MonthKey keyOf(Transaction transaction) {
+        return new MonthKey(transaction.getCustomerId(), YearMonth.from(transaction.getValueDate()));
+    }
+
+    private static int stripe(String customerId) {
+        return Math.floorMod(customerId.hashCode(), STRIPES);
+    }
+
+    /**
+     * Immutable snapshot of a customer's month in (value date, id) order, replaced on every update.
+     */
+    public static final class MonthView {
+
+        static final MonthView TOO_LARGE = new MonthView(new Transaction[0], true);
+
+        private final Transaction[] rows;
+        private final boolean tooLarge;
+        private volatile List<ExchangeRateService.CurrencyTotals> currencyTotals;
+
+        MonthView(Transaction[] rows) {
+            this(rows, false);
+        }
+
+        private MonthView(Transaction[] rows, boolean tooLarge) {
+            this.rows = rows;
+            this.tooLarge = tooLarge;
+        }
+
+        public int size() {
+            return rows.length;
+        }
+
+        /**
+         * Rows from an offset, as an offset page reads them.
+         */
+        public List<Transaction> page(int offset, int limit) {
+            if (offset >= rows.length) {
+                return List.of();
+            }
+            return List.of(Arrays.copyOfRange(rows, offset, Math.min(rows.length, offset + limit)));
+        }
+
+        /**
+         * Rows strictly after (afterDate, afterId), as a keyset page reads them.
+         */
+        public List<Transaction> after(LocalDate afterDate, String afterId, int limit) {
+            int index = search(afterDate, afterId);
+            int from = index >= 0 ? index + 1 : -index - 1;
+            return page(from, limit);
+        }
+
+        /**
+         * Credit and debit totals of the month per currency, as the monthly aggregates hold them.
+         */
+        public List<ExchangeRateService.CurrencyTotals> currencyTotals() {
+            List<ExchangeRateService.CurrencyTotals> totals = currencyTotals;
+            if (totals == null) {
+                Map<String, BigDecimal[]> sums = new TreeMap<>();
+                for (Transaction row : rows) {
+                    if (row.getAmount() == null || row.getCurrency() == null) {
+                        continue;
+                    }
+                    BigDecimal[] sum = sums.computeIfAbsent(row.getCurrency().toUpperCase(Locale.ROOT),
+                            currency -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                    sum[row.isCredit() ? 0 : 1] = sum[row.isCredit() ? 0 : 1].add(row.getAmount().abs());
+                }
+                totals = sums.entrySet().stream()
+                        .map(sum -> new ExchangeRateService.CurrencyTotals(sum.getKey(), sum.getValue()[0], sum.getValue()[1]))
+                        .toList();
+                currencyTotals = totals;
+            }
+            return totals;
+        }
+
+        MonthView with(Transaction transaction) {
+            int index = search(transaction.getValueDate(), transaction.getId());
+            if (index >= 0) {
+                Transaction[] replaced = rows.clone();
+                replaced[index] = transaction;
+                return new MonthView(replaced);
+            }
+            int insertAt = -index - 1;
+            Transaction[] inserted = new Transaction[rows.length + 1];
+            System.arraycopy(rows, 0, inserted, 0, insertAt);
+            inserted[insertAt] = transaction;
+            System.arraycopy(rows, insertAt, inserted, insertAt + 1, rows.length - insertAt);
+            return new MonthView(inserted);
+        }
+
+        MonthView withoutId(String id) {
+            for (int index = 0; index < rows.length; index++) {
+                if (id.equals(rows[index].getId())) {
+                    Transaction[] removed = new Transaction[rows.length - 1];
+                    System.arraycopy(rows, 0, removed, 0, index);
+                    System.arraycopy(rows, index + 1, removed, index, rows.length - index - 1);
+                    return new MonthView(removed);
+                }
+            }
+            return this;
+        }
+
+        private int search(LocalDate valueDate, String id) {
+            Transaction probe = Transaction.builder().valueDate(valueDate).id(id).build();
+            return Arrays.binarySearch(rows, probe, VALUE_DATE_ORDER);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ebanking.service;
+
+import com.ebanking.domain.RateTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+/**
+ * Materialises the compacted exchange rate topic into the local rate cache, and hands table
+ * requests from other instances to the rate service, which serves them when elected publisher.
+ *
+ * Every instance assigns itself the topic's single partition without a consumer group and reads
+ * it from the beginning, so a new pod starts with the latest table for every key and no group
+ * is left behind when it stops.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+public class KafkaExchangeRateConsumer {
+
+    private final ExchangeRateService exchangeRateService;
+
+    @KafkaListener(
+            // Offset 0 may be compacted away; auto.offset.reset=earliest then starts at the first kept record
+            topicPartitions = @TopicPartition(
+                    topic = "${app.kafka.topic.exchange-rates}",
+                    partitionOffsets = @PartitionOffset(partition = "0", initialOffset = "0")
+            ),
+            containerFactory = "rateTableListenerContainerFactory"
+    )
+    public void consumeRateTable(
+            @Payload(required = false) RateTable table,
+            @Header(KafkaHeaders.RECEIVED_KEY) String key,
+            @Header(KafkaHeaders.OFFSET) long offset) {
+        // Tombstones remove a key from the topic; the cached table simply expires
+        if (table == null) {
+            log.debug("Ignoring exchange rate tombstone for {} at offset {}", key, offset);
+            return;
+        }
+        try {
+            exchangeRateService.applyPublishedTable(table);
+        } catch (Exception e) {
+            log.error("Error applying exchange rates {} from Kafka at offset {}: {}", key, offset, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Handles one record of the rate request topic, keyed like the rate topic.
+     */
+    public void consumeRateTableRequest(String key) {
+        try {
+            RateTableRequestedEvent request = KafkaExchangeRatePublisher.parseKey(key);
+            exchangeRateService.serveRequestedTable(request.baseCurrency(), request.snapshotDate());
+        } catch (Exception e) {
+            log.error("Error serving exchange rate request {}: {}", key, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ebanking.service;
+
+import com.ebanking.domain.RateTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+
+/**
+ * Publishes fetched rate tables to the compacted exchange rate topic and takes part in the
+ * election of the single instance that refreshes rates from the provider.
+ *
+ * The election piggybacks on Kafka group management: every instance joins the same publisher
+ * group on the single-partition rate topic, and whichever instance is assigned partition 0 is
+ * the publisher. When it stops or is fenced, the partition moves and another instance takes over.
+ *
+ * Instances that miss a table send its key to the rate request topic, which the publisher reads
+ * to load the table and put it on the rate topic.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.exchange-rate.kafka.enabled", havingValue = "true")
+public class KafkaExchangeRatePublisher implements ConsumerAwareRebalanceListener {
+
+    private static final int ELECTION_PARTITION = 0;
+
+    private final KafkaTemplate<String, RateTable> rateTableKafkaTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.kafka.topic.exchange-rates}")
+    private String topicName;
+
+    @Value("${app.kafka.topic.exchange-rate-requests}")
+    private String requestTopicName;
+
+    /**
+     * Compaction key: one record per base currency and snapshot date.
+     */
+    public static String keyOf(RateTable table) {
+        return keyOf(table.getBaseCurrency(), table.getSnapshotDate());
+    }
+
+    public static String keyOf(String baseCurrency, LocalDate snapshotDate) {
+        return baseCurrency + ":" + snapshotDate;
+    }
+
+    /**
+     * Parses a compaction key back into its base currency and snapshot date.
+     *
+     * @throws IllegalArgumentException if the key is not one produced by {@link #keyOf}
+     */
+    public static RateTableRequestedEvent parseKey(String key) {
+        int separator = key != null ? key.indexOf(':') : -1;
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Not a rate table key: " + key);
+        }
+        try {
+            return new RateTableRequestedEvent(key.substring(0, separator), LocalDate.parse(key.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Not a rate table key: " + key, e);
+        }
+    }
+
+    @EventListener
+    public void onRateTableFetched(RateTableFetchedEvent event) {
+        RateTable table = event.table();
+        String key = keyOf(table);
+        rateTableKafkaTemplate.send(topicName, key, table)
+                .whenComplete((result, throwable) -> {
+                    if (throwable == null) {
+                        log.debug("Published exchange rates {} at offset: {}", key, result.getRecordMetadata().offset());
+                    } else {
+                        log.error("Failed to publish exchange rates {} to Kafka: {}", key, throwable.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Asks the publisher for a table; the request carries only the key.
+     */
+    @EventListener
+    public void onRateTableRequested(RateTableRequestedEvent event) {
+        String key = keyOf(event.baseCurrency(), event.snapshotDate());
+        rateTableKafkaTemplate.send(requestTopicName, key, null)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Failed to request exchange rates {} from the publisher: {}", key, throwable.getMessage());
+                    }
+                });
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (holdsElectionPartition(partitions)) {
+            // The election consumer only needs the assignment, never the records
+            consumer.seekToEnd(partitions);
+            eventPublisher.publishEvent(new RatePublisherElectedEvent(true));
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (holdsElectionPartition(partitions)) {
+            eventPublisher.publishEvent(new RatePublisherElectedEvent(false));
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (holdsElectionPartition(partitions)) {
+            eventPublisher.publishEvent(new RatePublisherElectedEvent(false));
+        }
+    }
+
+    private boolean holdsElectionPartition(Collection<TopicPartition> partitions) {
+        return partitions.contains(new TopicPartition(topicName, ELECTION_PARTITION));
+    }
+}
@@ -0,0 +1,202 @@
+package com.ebanking.service;
+
+import com.ebanking.domain.MonthlyAggregate;
+import com.ebanking.domain.Transaction;
+import com.ebanking.repository.MonthlyAggregateRepository;
+import com.ebanking.repository.TransactionRepository;
+import com.ebanking.repository.TransactionRepository.MonthlyTotals;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps per-customer monthly totals in step with the transactions table.
+ *
+ * Every stored transaction adds its amount to the (customer, month, currency) row in the same
+ * database transaction as the insert, so a month's totals never disagree with its rows.
+ * {@link #rebuild()} recomputes all rows from the transactions table, e.g. after a backfill.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonthlyAggregateService {
+
+    private final MonthlyAggregateRepository monthlyAggregateRepository;
+    private final TransactionRepository transactionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final Executor monthlyAggregateRebuildExecutor;
+
+    /**
+     * Result of a rebuild.
+     *
+     * @param customers  customers whose aggregates were rebuilt
+     * @param aggregates aggregate rows written
+     * @param failed     customers whose rebuild failed and kept their previous rows
+     * @param tookMillis wall-clock duration
+     */
+    public record RebuildResult(int customers, int aggregates, int failed, long tookMillis) {
+    }
+
+    /**
+     * Adds a transaction to its month's totals. Must run in the transaction that stores it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Transaction transaction) {
+        apply(transaction, false);
+    }
+
+    /**
+     * Takes a previously stored version of a transaction out of its month's totals.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtract(Transaction transaction) {
+        apply(transaction, true);
+    }
+
+    /**
+     * Aggregate rows of one customer's month, one per currency.
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlyAggregate> findMonth(String customerId, YearMonth month) {
+        return monthlyAggregateRepository.findByCustomerIdAndYearMonth(customerId, month.toString());
+    }
+
+    /**
+     * Aggregate rows of a customer's months from {@code from} to {@code to}, by month. Months
+     * without rows are absent.
+     */
+    @Transactional(readOnly = true)
+    public Map<YearMonth, List<MonthlyAggregate>> findMonths(String customerId, YearMonth from, YearMonth to) {
+        return monthlyAggregateRepository.findByCustomerIdAndYearMonthBetween(customerId, from.toString(), to.toString())
+                .stream()
+                .collect(Collectors.groupingBy(aggregate -> YearMonth.parse(aggregate.getYearMonth())));
+    }
+
+    /**
+     * Recomputes every customer's aggregates from the transactions table.
+     *
+     * Customers are rebuilt in parallel on the rebuild executor, each in its own transaction, so a
+     * failure only leaves that customer's previous rows in place.
+     */
+    public RebuildResult rebuild() {
+        long start = System.currentTimeMillis();
+        List<String> customerIds = transactionRepository.findDistinctCustomerIds();
+        TransactionTemplate perCustomer = new TransactionTemplate(transactionManager);
+        AtomicInteger aggregates = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        log.info("Rebuilding monthly aggregates of {} customers", customerIds.size());
+        CompletableFuture.allOf(customerIds.stream()
+                .map(customerId -> CompletableFuture.runAsync(() -> {
+                    try {
+                        aggregates.addAndGet(perCustomer.execute(status -> rebuildCustomer(customerId)));
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.error("Failed to rebuild monthly aggregates of customer {}: {}", customerId, e.getMessage(), e);
+                    }
+                }, monthlyAggregateRebuildExecutor))
+                .toArray(CompletableFuture[]::new)).join();
+
+        RebuildResult result = new RebuildResult(customerIds.size() - failed.get(), aggregates.get(), failed.get(),
+                System.currentTimeMillis() - start);
+        log.info("Rebuilt monthly aggregates: {}", result);
+        return result;
+    }
+
+    /**
+     * Recomputes one customer's rows in place while holding a lock on them.
+     *
+     * Rows are updated rather than deleted and reinserted, so a transaction stored concurrently
+     * is never lost: either it committed before the lock was taken and is in the sums, or its
+     * add waits for the lock and then adds to the rebuilt row.
+     */
+    private int rebuildCustomer(String customerId) {
+        Map<String, MonthlyAggregate> stale = new HashMap<>();
+        for (MonthlyAggregate row : monthlyAggregateRepository.lockByCustomer(customerId)) {
+            stale.put(row.getYearMonth() + ' ' + row.getCurrency(), row);
+        }
+        List<MonthlyAggregate> rows = new ArrayList<>();
+        for (MonthlyTotals totals : transactionRepository.sumMonthlyTotals(customerId)) {
+            String month = YearMonth.of(totals.getValueYear(), totals.getValueMonth()).toString();
+            MonthlyAggregate row = stale.remove(month + ' ' + totals.getCurrency());
+            if (row == null) {
+                row = MonthlyAggregate.builder()
+                        .customerId(customerId)
+                        .yearMonth(month)
+                        .currency(totals.getCurrency())
+                        .build();
+            }
+            row.setCreditTotal(totals.getCredit());
+            row.setDebitTotal(totals.getDebit());
+            row.setTransactionCount(totals.getTransactionCount());
+            rows.add(row);
+        }
+        monthlyAggregateRepository.saveAll(rows);
+        // Months and currencies without transactions left
+        monthlyAggregateRepository.deleteAll(stale.values());
+        return rows.size();
+    }
+
+    private void apply(Transaction transaction, boolean subtract) {
+        if (transaction.getCustomerId() == null || transaction.getAmount() == null
+                || transaction.getValueDate() == null || transaction.getCurrency() == null) {
+            return;
+        }
+        String customerId = transaction.getCustomerId();
+        String month = YearMonth.from(transaction.getValueDate()).toString();
+        String currency = transaction.getCurrency().toUpperCase(Locale.ROOT);
+        BigDecimal amount = transaction.getAmount().abs();
+        BigDecimal credit = transaction.isCredit() ? amount : BigDecimal.ZERO;
+        BigDecimal debit = transaction.isCredit() ? BigDecimal.ZERO : amount;
+        long count = 1;
+        if (subtract) {
+            credit = credit.negate();
+            debit = debit.negate();
+            count = -1;
+        }
+
+        if (monthlyAggregateRepository.addTo(customerId, month, currency, credit, debit, count) == 0) {
+            createEmptyRow(customerId, month, currency);
+            monthlyAggregateRepository.addTo(customerId, month, currency, credit, debit, count);
+        }
+    }
+
+    /**
+     * Inserts a zero row in its own transaction, so concurrent first writers of a month race on
+     * the unique key instead of both inserting; the loser finds the winner's row.
+     */
+    private void createEmptyRow(String customerId, String month, String currency) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status -> monthlyAggregateRepository.saveAndFlush(MonthlyAggregate.builder()
+                    .customerId(customerId)
+                    .yearMonth(month)
+                    .currency(currency)
+                    .creditTotal(BigDecimal.ZERO)
+                    .debitTotal(BigDecimal.ZERO)
+                    .transactionCount(0)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Monthly aggregate {} {} {} was created concurrently", customerId, month, currency);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.ebanking.service;
+
+import com.ebanking.domain.ExchangeRateRecord;
+import com.ebanking.domain.RateTable;
+import com.ebanking.domain.RateTableCsv;
+import com.ebanking.repository.ExchangeRateRecordRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent history of exchange rate tables, kept in the application datasource.
+ *
+ * Every table fetched from the provider is written here, so a restarted instance starts with
+ * warm rates and past value dates keep resolving to the rates that applied on that day.
+ * Historical tables can also be backfilled in bulk from CSV.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateHistoryStore {
+
+    private final ExchangeRateRecordRepository exchangeRateRecordRepository;
+
+    /**
+     * Snapshot dates with at least one stored table, kept in memory so the request path can
+     * check for history without a query.
+     */
+    private final Set<LocalDate> storedDates = new ConcurrentSkipListSet<>();
+
+    @PostConstruct
+    void indexStoredDates() {
+        storedDates.addAll(exchangeRateRecordRepository.findDistinctRateDates());
+        log.info("Exchange rate history holds tables for {} dates", storedDates.size());
+    }
+
+    /**
+     * Returns true if any table is stored for the given date.
+     */
+    public boolean hasRatesFor(LocalDate date) {
+        return date != null && storedDates.contains(date);
+    }
+
+    /**
+     * Returns the stored table for a base currency and date, if any.
+     */
+    public Optional<RateTable> find(String baseCurrency, LocalDate date) {
+        List<ExchangeRateRecord> records = exchangeRateRecordRepository.findByBaseCurrencyAndRateDate(baseCurrency, date);
+        if (records.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(toRateTable(baseCurrency, date, records));
+    }
+
+    /**
+     * Returns every stored table with a date on or after {@code from}.
+     */
+    public List<RateTable> findSince(LocalDate from) {
+        Map<TableKey, List<ExchangeRateRecord>> byTable = exchangeRateRecordRepository.findByRateDateGreaterThanEqual(from)
+                .stream()
+                .collect(Collectors.groupingBy(r -> new TableKey(r.getBaseCurrency(), r.getRateDate())));
+
+        List<RateTable> tables = new ArrayList<>(byTable.size());
+        byTable.forEach((key, records) -> tables.add(toRateTable(key.baseCurrency(), key.date(), records)));
+        return tables;
+    }
+
+    /**
+     * Stores a table, replacing any table previously stored for the same base currency and date.
+     */
+    @Transactional
+    public void save(RateTable table) {
+        replace(table);
+    }
+
+    /**
+     * Backfills historical tables from CSV with the header {@code date,base,currency,rate}.
+     *
+     * Rows are grouped into one table per base currency and date; each imported table replaces
+     * the stored one. The whole import runs in one transaction.
+     *
+     * @return the number of rates imported
+     * @throws IllegalArgumentException if a row is malformed
+     */
+    @Transactional
+    public int importCsv(Reader csv) throws IOException {
+        List<RateTable> tables = RateTableCsv.read(csv);
+        int rateCount = 0;
+        for (RateTable table : tables) {
+            replace(table);
+            rateCount += table.getRates().size();
+        }
+        log.info("Imported {} exchange rates in {} tables from CSV", rateCount, tables.size());
+        return rateCount;
+    }
+
+    private void replace(RateTable table) {
+        exchangeRateRecordRepository.deleteTable(table.getBaseCurrency(), table.getSnapshotDate());
+        List<ExchangeRateRecord> records = table.getRates().entrySet().stream()
+                .map(rate -> ExchangeRateRecord.builder()
+                        .baseCurrency(table.getBaseCurrency())
+                        .quoteCurrency(rate.getKey())
+                        .rateDate(table.getSnapshotDate())
+                        .rate(rate.getValue())
+                        .fetchedAt(table.getFetchedAt())
+                        .build())
+                .toList();
+        exchangeRateRecordRepository.saveAll(records);
+        indexAfterCommit(table.getSnapshotDate());
+    }
+
+    /**
+     * Marks the date as stored once its rows are visible to readers; a rolled back import leaves
+     * the index unchanged.
+     */
+    private void indexAfterCommit(LocalDate date) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            storedDates.add(date);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                storedDates.add(date);
+            }
+        });
+    }
+
+    private RateTable toRateTable(String baseCurrency, LocalDate date, List<ExchangeRateRecord> records) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (ExchangeRateRecord record : records) {
+            rates.put(record.getQuoteCurrency(), record.getRate());
+        }
+        Instant fetchedAt = records.stream()
+                .map(ExchangeRateRecord::getFetchedAt)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        return new RateTable(baseCurrency, date, rates, fetchedAt);
+    }
+
+    private record TableKey(String baseCurrency, LocalDate date) {
+    }
+}
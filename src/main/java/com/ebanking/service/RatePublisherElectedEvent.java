@@ -0,0 +1,9 @@
+package com.ebanking.service;
+
+/**
+ * Published when this instance gains or loses the exchange rate publisher role.
+ *
+ * @param elected true if this instance is now the publisher
+ */
+public record RatePublisherElectedEvent(boolean elected) {
+}
@@ -0,0 +1,11 @@
+package com.ebanking.service;
+
+import com.ebanking.domain.RateTable;
+
+/**
+ * Published when a rate table has been fetched from the provider.
+ *
+ * @param table the freshly fetched table
+ */
+public record RateTableFetchedEvent(RateTable table) {
+}
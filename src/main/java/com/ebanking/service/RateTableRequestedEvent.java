@@ -0,0 +1,13 @@
+package com.ebanking.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published when an instance that is not the rate publisher misses a rate table and asks the
+ * publisher to put it on the exchange rate topic.
+ *
+ * @param baseCurrency base currency of the missing table
+ * @param snapshotDate snapshot date of the missing table
+ */
+public record RateTableRequestedEvent(String baseCurrency, LocalDate snapshotDate) {
+}
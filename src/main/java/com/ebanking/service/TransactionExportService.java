@@ -0,0 +1,142 @@
+package com.ebanking.service;
+
+import com.ebanking.domain.Transaction;
+import com.ebanking.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a customer's transactions as NDJSON or CSV.
+ *
+ * Rows are read from a database cursor and written to the output one at a time, so memory use
+ * does not depend on how many rows are exported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,valueDate,amount,currency,accountIban,description,customerId";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+    }
+
+    /**
+     * Writes the customer's transactions with a value date in [start, end], in value date order.
+     * The output stream is flushed but not closed.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(String customerId, LocalDate start, LocalDate end, Format format, OutputStream out)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        long rows;
+        try (Stream<Transaction> transactions = transactionRepository.streamByCustomerIdAndValueDateBetween(
+                customerId, start, end)) {
+            rows = format == Format.CSV
+                    ? writeCsv(transactions.iterator(), out)
+                    : writeNdjson(transactions.iterator(), out);
+        }
+        log.info("Exported {} transactions of customer {} from {} to {} as {} in {} ms", rows, customerId, start, end,
+                format, (System.nanoTime() - startNanos) / 1_000_000);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        // Flushing after every row would defeat the output buffer and compression
+        ObjectWriter writer = objectMapper.writerFor(Transaction.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (transactions.hasNext()) {
+                writer.writeValue(generator, transactions.next());
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long rows = 0;
+        while (transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+            writer.write(csvField(transaction.getId(), false));
+            writer.write(',');
+            writer.write(String.valueOf(transaction.getValueDate()));
+            writer.write(',');
+            writer.write(transaction.getAmount() != null ? transaction.getAmount().toPlainString() : "");
+            writer.write(',');
+            writer.write(csvField(transaction.getCurrency(), false));
+            writer.write(',');
+            writer.write(csvField(transaction.getAccountIban(), true));
+            writer.write(',');
+            writer.write(csvField(transaction.getDescription(), true));
+            writer.write(',');
+            writer.write(csvField(transaction.getCustomerId(), false));
+            writer.write("\r\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * Quotes a field when needed (RFC 4180). Free-text fields starting like a formula are
+     * prefixed with an apostrophe so spreadsheets show them as text.
+     */
+    static String csvField(String value, boolean freeText) {
+        if (value == null) {
+            return "";
+        }
+        if (freeText && !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
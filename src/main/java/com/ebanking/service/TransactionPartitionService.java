@@ -0,0 +1,201 @@
+package com.ebanking.service;
+
+import com.ebanking.repository.MonthlyAggregateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of the transactions table on PostgreSQL.
+ *
+ * Keeps a partition ready for the current month and the next few, moving any of their rows out
+ * of the default partition, and detaches (optionally drops) partitions past the retention period
+ * together with their monthly aggregates. Callers of TransactionRepository never see partitions.
+ * Month and statement reads filter on value date, which PostgreSQL uses to prune to the months
+ * queried; findById and sumMonthlyTotals do not, and search the index of every partition.
+ *
+ * Ids are kept unique across partitions by the transaction_ids table the PostgreSQL migration
+ * maintains with a trigger (see db/vendor/postgresql); moving rows between partitions here goes
+ * around the partitioned table, so its entries are restored or removed explicitly.
+ *
+ * On other databases the table is not partitioned (see db/vendor) and this does nothing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionPartitionService {
+
+    static final String DEFAULT_PARTITION = "transactions_default";
+
+    static final String ID_TABLE = "transaction_ids";
+
+    private static final Pattern MONTH_PARTITION = Pattern.compile("transactions_(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MonthlyAggregateRepository monthlyAggregateRepository;
+    private final TransactionResponseCache transactionResponseCache;
+
+    @Value("${app.transactions.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.transactions.partitions.months-ahead:2}")
+    private int monthsAhead;
+
+    @Value("${app.transactions.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${app.transactions.partitions.drop-detached:false}")
+    private boolean dropDetached;
+
+    private Clock clock = Clock.systemDefaultZone();
+    private Boolean partitioned;
+
+    /**
+     * Result of a maintenance run.
+     *
+     * @param created  partitions created
+     * @param detached partitions detached, and dropped when configured
+     */
+    public record MaintenanceResult(List<String> created, List<String> detached) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    /**
+     * Creates the partitions of upcoming months and detaches those past retention.
+     */
+    @Scheduled(cron = "${app.transactions.partitions.maintenance-cron:0 0 3 * * *}")
+    public synchronized MaintenanceResult maintain() {
+        if (!enabled || !isPartitioned()) {
+            return new MaintenanceResult(List.of(), List.of());
+        }
+        try {
+            Set<String> existing = new TreeSet<>(findPartitions());
+            YearMonth current = YearMonth.now(clock);
+
+            List<String> created = new ArrayList<>();
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = current.plusMonths(i);
+                if (!existing.contains(partitionName(month))) {
+                    createPartition(month);
+                    created.add(partitionName(month));
+                }
+            }
+
+            List<String> detached = new ArrayList<>();
+            if (retentionMonths > 0) {
+                YearMonth oldestKept = current.minusMonths(retentionMonths);
+                for (String partition : existing) {
+                    YearMonth month = monthOf(partition);
+                    if (month != null && month.isBefore(oldestKept)) {
+                        detachPartition(partition, month);
+                        detached.add(partition);
+                    }
+                }
+                if (!detached.isEmpty()) {
+                    // Their months no longer have transactions to total or count
+                    new TransactionTemplate(transactionManager).executeWithoutResult(
+                            status -> monthlyAggregateRepository.deleteByYearMonthBefore(oldestKept.toString()));
+                    transactionResponseCache.invalidateBefore(oldestKept);
+                }
+            }
+
+            MaintenanceResult result = new MaintenanceResult(created, detached);
+            log.info("Transaction partition maintenance: {}", result);
+            return result;
+        } catch (RuntimeException e) {
+            log.error("Transaction partition maintenance failed: {}", e.getMessage(), e);
+            return new MaintenanceResult(List.of(), List.of());
+        }
+    }
+
+    /**
+     * Creates a month's partition detached, moves in the month's rows that landed in the default
+     * partition meanwhile, then attaches it; attaching fails while the default still holds any.
+     * The default partition is locked first, so transactions stored meanwhile wait for the attach
+     * instead of landing in the default and making it fail.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("INSERT INTO " + partition + " SELECT * FROM " + DEFAULT_PARTITION
+                    + " WHERE value_date >= DATE '" + from + "' AND value_date < DATE '" + to + "'");
+            if (moved > 0) {
+                jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION
+                        + " WHERE value_date >= DATE '" + from + "' AND value_date < DATE '" + to + "'");
+                // The delete dropped their ids; the new partition has no trigger until it is attached
+                jdbcTemplate.update("INSERT INTO " + ID_TABLE + " (id, value_date) SELECT id, value_date FROM " + partition);
+                log.info("Moved {} transactions of {} out of the default partition", moved, month);
+            }
+            jdbcTemplate.execute("ALTER TABLE transactions ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        });
+    }
+
+    /**
+     * Detaches a month's partition and releases its ids, which no longer belong to stored transactions.
+     */
+    private void detachPartition(String partition, YearMonth month) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + partition);
+            jdbcTemplate.update("DELETE FROM " + ID_TABLE + " WHERE value_date >= DATE '" + month.atDay(1)
+                    + "' AND value_date < DATE '" + month.plusMonths(1).atDay(1) + "'");
+            if (dropDetached) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+        });
+    }
+
+    private List<String> findPartitions() {
+        return jdbcTemplate.queryForList("SELECT child.relname FROM pg_inherits i "
+                + "JOIN pg_class child ON child.oid = i.inhrelid "
+                + "JOIN pg_class parent ON parent.oid = i.inhparent "
+                + "WHERE parent.relname = 'transactions'", String.class);
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            partitioned = "PostgreSQL".equalsIgnoreCase(product);
+            log.info("Transactions table is {}partitioned by month on {}", partitioned ? "" : "not ", product);
+        }
+        return partitioned;
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("transactions_%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static YearMonth monthOf(String partition) {
+        Matcher matcher = MONTH_PARTITION.matcher(partition);
+        return matcher.matches()
+                ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                : null;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ebanking.service;
+
+import com.ebanking.dto.TransactionRequest;
+import com.ebanking.dto.TransactionResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache of serialized transaction list responses for closed months.
+ *
+ * Past months almost never change, so their responses are kept as the JSON bytes sent to the
+ * client and served without querying, converting or serializing again. The cache is bounded by
+ * the total size of those bytes and entries expire after a maximum age.
+ *
+ * A transaction for a closed month invalidates only the cached responses of that customer and
+ * month, by bumping a generation the entries are checked against when read. Every instance hears
+ * of every transaction through a listener assigned all partitions of the transactions topic (see
+ * KafkaConfig); the instance storing a correction also invalidates the month it moved out of,
+ * which other instances drop when their entries reach the maximum age. Entries also record the
+ * version of the rate tables their month is converted with, so new rates for that month are
+ * picked up on the next request while loads of other tables leave them alone.
+ *
+ * The current month is never cached, nor are responses with stale or fallback rates.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionResponseCache {
+
+    static final String CACHE_NAME = "transactionResponses";
+
+    /**
+     * Approximate heap taken by a key and its entry, added to the size of the bytes.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private static final int GENERATION_SLOTS = 4096;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ExchangeRateService exchangeRateService;
+
+    @Value("${app.transactions.response-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.transactions.response-cache.max-size:64MB}")
+    private DataSize maxSize;
+
+    @Value("${app.transactions.response-cache.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    private Clock clock = Clock.systemDefaultZone();
+    private Cache<ResponseKey, CachedResponse> cache;
+
+    /**
+     * Bumped, per slot of customer months, on every invalidation of a month in the slot. An entry
+     * written under an older generation is dropped when read, and a response computed across a
+     * bump is not cached, as it may predate the transaction that caused it.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+
+    /**
+     * Bumped whenever months are removed; entries written before for months older than
+     * {@link #retainedFrom} are dropped when read.
+     */
+    private final AtomicLong retentionChanges = new AtomicLong();
+    private volatile YearMonth retainedFrom;
+
+    record ResponseKey(String customerId, YearMonth month, int page, String cursor, int size,
+                       boolean includeCount, String baseCurrency) {
+    }
+
+    private record CachedResponse(byte[] body, long generation, long rateVersion, long retentionChange) {
+    }
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((ResponseKey key, CachedResponse cached) -> cached.body().length + ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        }
+        log.info("Transaction response cache initialised: enabled={}, maxSize={}, expireAfterWrite={}",
+                enabled, maxSize, expireAfterWrite);
+    }
+
+    /**
+     * Returns the serialized response for a request, from the cache when its month is closed.
+     *
+     * @param response computes the response on a miss
+     */
+    public byte[] getOrRender(String customerId, TransactionRequest request, Supplier<TransactionResponse> response) {
+        YearMonth month = YearMonth.of(request.getYear(), request.getMonth());
+        if (!enabled || !isClosed(month)) {
+            return serialize(response.get());
+        }
+
+        int slot = generationSlot(customerId, month);
+        long generation = generations.get(slot);
+        long retentionChange = retentionChanges.get();
+        long rateVersion = exchangeRateService.getRateVersion(month);
+        ResponseKey key = new ResponseKey(customerId, month, request.getPage(), request.getCursor(), request.getSize(),
+                Boolean.TRUE.equals(request.getIncludeCount()), request.getBaseCurrency());
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (cached.generation() == generation && cached.rateVersion() == rateVersion && isRetained(cached, month)) {
+                return cached.body();
+            }
+            cache.asMap().remove(key, cached);
+        }
+
+        TransactionResponse computed = response.get();
+        byte[] body = serialize(computed);
+        // Only kept if neither the month's transactions nor its rates changed while it was computed
+        if (!computed.isStaleRates() && generations.get(slot) == generation
+                && exchangeRateService.getRateVersion(month) == rateVersion
+                && retentionChanges.get() == retentionChange) {
+            cache.put(key, new CachedResponse(body, generation, rateVersion, retentionChange));
+        }
+        return body;
+    }
+
+    /**
+     * Drops the cached responses of one customer's month, after a transaction for it was stored.
+     */
+    public void invalidate(String customerId, YearMonth month) {
+        if (!enabled || customerId == null || !isClosed(month)) {
+            return;
+        }
+        // Entries are left for the next read or the size bound to drop, so this never scans the cache
+        generations.incrementAndGet(generationSlot(customerId, month));
+        log.debug("Invalidated cached responses of customer {} for {}", customerId, month);
+    }
+
+    /**
+     * Drops the cached responses of every month before the given one, after their transactions
+     * were removed.
+     */
+    public void invalidateBefore(YearMonth month) {
+        if (!enabled) {
+            return;
+        }
+        YearMonth retained = retainedFrom;
+        if (retained == null || month.isAfter(retained)) {
+            retainedFrom = month;
+        }
+        retentionChanges.incrementAndGet();
+        log.info("Invalidated cached responses of months before {}", month);
+    }
+
+    private boolean isRetained(CachedResponse cached, YearMonth month) {
+        YearMonth retained = retainedFrom;
+        return cached.retentionChange() == retentionChanges.get() || retained == null || !month.isBefore(retained);
+    }
+
+    private static int generationSlot(String customerId, YearMonth month) {
+        int hash = Objects.hash(customerId, month.getYear(), month.getMonthValue());
+        return Math.floorMod(hash ^ (hash >>> 16), GENERATION_SLOTS);
+    }
+
+    private boolean isClosed(YearMonth month) {
+        return month.isBefore(YearMonth.now(clock));
+    }
+
+    private byte[] serialize(TransactionResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
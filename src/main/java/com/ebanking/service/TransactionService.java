@@ -1,18 +1,39 @@
 package com.ebanking.service;
 
+import com.ebanking.domain.MonthlyAggregate;
 import com.ebanking.domain.Transaction;
+import com.ebanking.dto.StatementResponse;
+import com.ebanking.dto.TransactionCursor;
 import com.ebanking.dto.TransactionRequest;
 import com.ebanking.dto.TransactionResponse;
+import com.ebanking.exception.InvalidStatementRangeException;
 import com.ebanking.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -21,57 +42,393 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final ExchangeRateService exchangeRateService;
+    private final MonthlyAggregateService monthlyAggregateService;
+    private final Executor transactionCountExecutor;
+    private final Executor transactionStatementExecutor;
+    private final TransactionResponseCache transactionResponseCache;
+    private final HotTransactionView hotTransactionView;
 
+    /**
+     * Totals cover the whole month from the monthly aggregates; when false they only cover the page.
+     */
+    @Value("${app.transactions.monthly-aggregates.enabled:true}")
+    private boolean monthlyAggregatesEnabled;
+
+    @Value("${app.transactions.statement.max-months:12}")
+    private int statementMaxMonths;
+
+    @Value("${app.transactions.statement.max-rows:20000}")
+    private int statementMaxRows;
+
+    /**
+     * One month's part of a statement.
+     */
+    private record MonthStatement(YearMonth month, List<Transaction> transactions,
+                                  ExchangeRateService.BatchConversion conversion) {
+    }
+
+    @Transactional
     public void processTransaction(Transaction transaction) {
         log.debug("Saving transaction to DB: {}", transaction.getId());
+        Transaction previous = transactionRepository.findById(transaction.getId()).orElse(null);
+        if (previous != null && sameContribution(previous, transaction)) {
+            // Redelivery of a stored transaction: nothing changes
+            transactionRepository.save(transaction);
+            return;
+        }
+        if (previous != null) {
+            // Corrected transaction: take the stored version out before it is overwritten
+            monthlyAggregateService.subtract(previous);
+            invalidateResponsesAfterCommit(previous.getCustomerId(), previous.getValueDate());
+        }
         transactionRepository.save(transaction);
+        monthlyAggregateService.add(transaction);
+        invalidateResponsesAfterCommit(transaction.getCustomerId(), transaction.getValueDate());
     }
 
+    /**
+     * Read-only: Hibernate skips flushing and dirty checking, and the connection is marked read-only.
+     */
+    @Transactional(readOnly = true)
     public TransactionResponse getTransactions(String customerId, TransactionRequest request) {
         YearMonth ym = YearMonth.of(request.getYear(), request.getMonth());
+        HotTransactionView.MonthView resident = hotTransactionView.getMonth(customerId, ym);
+        if (resident != null) {
+            return getTransactionsFromView(request, ym, resident);
+        }
+
         LocalDate start = ym.atDay(1);
         LocalDate end = ym.atEndOfMonth();
+        List<MonthlyAggregate> aggregates = findAggregates(customerId, ym);
+
+        if (request.getCursor() != null) {
+            return getTransactionsAfterCursor(customerId, request, ym, aggregates);
+        }
 
-        var page = transactionRepository.findByCustomerIdAndValueDateBetween(
-                customerId, start, end, PageRequest.of(request.getPage(), request.getSize())
-        );
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
+        if (!request.getIncludeCount()) {
+            Slice<Transaction> slice = transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                    customerId, start, end, pageable);
+            return responseBuilder(request, slice.getContent(), aggregates, ym)
+                    .page(request.getPage())
+                    .size(request.getSize())
+                    .first(slice.isFirst())
+                    .last(!slice.hasNext())
+                    .build();
+        }
 
-        List<Transaction> transactions = page.getContent();
+        // Count from the monthly aggregates, or query it alongside the content instead of after it
+        CompletableFuture<Long> count = aggregates != null
+                ? CompletableFuture.completedFuture(aggregates.stream().mapToLong(MonthlyAggregate::getTransactionCount).sum())
+                : CompletableFuture.supplyAsync(() -> transactionRepository.countByCustomerIdAndValueDateBetween(
+                        customerId, start, end), transactionCountExecutor);
+        Slice<Transaction> slice = transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                customerId, start, end, pageable);
+        Page<Transaction> page = PageableExecutionUtils.getPage(slice.getContent(), pageable, count::join);
 
-        // Calculate totals
+        return responseBuilder(request, page.getContent(), aggregates, ym)
+                .page(request.getPage())
+                .size(request.getSize())
+                .totalPages(page.getTotalPages())
+                .totalElements((int) page.getTotalElements())
+                .first(page.isFirst())
+                .last(page.isLast())
+                .build();
+    }
+
+    /**
+     * Statement of a date range in one response.
+     *
+     * The range is counted first, whole months from their monthly aggregates and the rest with
+     * count queries, so an oversized range is refused before any row is read. It is then split
+     * into months, which are read and converted in parallel on the statement executor and merged
+     * in month order; months are disjoint, so the merged rows stay in (value date, id) order.
+     * Whole months take their totals from the monthly aggregates when enabled; the partial months
+     * at either end of the range are totalled from their rows.
+     *
+     * @throws InvalidStatementRangeException if the range is reversed, spans more than the
+     *                                        configured months or holds more than the configured rows
+     */
+    public StatementResponse getStatement(String customerId, LocalDate from, LocalDate to, String baseCurrency) {
+        if (to.isBefore(from)) {
+            throw new InvalidStatementRangeException("Statement start " + from + " is after its end " + to);
+        }
+        long monthCount = ChronoUnit.MONTHS.between(YearMonth.from(from), YearMonth.from(to)) + 1;
+        if (monthCount > statementMaxMonths) {
+            throw new InvalidStatementRangeException("A statement can cover at most " + statementMaxMonths
+                    + " months, " + from + " to " + to + " covers " + monthCount);
+        }
+        List<YearMonth> months = Stream.iterate(YearMonth.from(from), month -> month.plusMonths(1))
+                .limit(monthCount)
+                .toList();
+        Map<YearMonth, List<MonthlyAggregate>> aggregates = monthlyAggregatesEnabled
+                ? monthlyAggregateService.findMonths(customerId, months.get(0), months.get(months.size() - 1))
+                : Map.of();
+
+        long rowCount = 0;
+        for (YearMonth month : months) {
+            rowCount += countStatementMonth(customerId, month, from, to, aggregates.get(month));
+            if (rowCount > statementMaxRows) {
+                throw tooManyRows(from, to);
+            }
+        }
+
+        List<CompletableFuture<MonthStatement>> parts = months.stream()
+                .map(month -> CompletableFuture.supplyAsync(
+                        () -> readStatementMonth(customerId, month, from, to, baseCurrency, aggregates.get(month)),
+                        transactionStatementExecutor))
+                .toList();
+
+        List<Transaction> transactions = new ArrayList<>();
+        List<StatementResponse.MonthTotals> monthTotals = new ArrayList<>(months.size());
         BigDecimal totalCredit = BigDecimal.ZERO;
         BigDecimal totalDebit = BigDecimal.ZERO;
-        for (Transaction transaction : transactions) {
-            BigDecimal convertedAmount = exchangeRateService.convertToBaseCurrency(
-                    transaction.getAmount(),
-                    transaction.getCurrency(),
-                    request.getBaseCurrency(),
-                    transaction.getValueDate()
-            );
-            // Handle null converted amount gracefully
-            if (convertedAmount == null) {
-                log.warn("Exchange rate service returned null for transaction {}, using original amount",
-                        transaction.getId());
-                convertedAmount = transaction.getAmount() != null ? transaction.getAmount() : BigDecimal.ZERO;
-            }
-            if (transaction.isCredit()) {
-                totalCredit = totalCredit.add(convertedAmount);
-            } else {
-                totalDebit = totalDebit.add(convertedAmount.abs());
+        boolean stale = false;
+        long rateVersion = 0;
+        for (CompletableFuture<MonthStatement> part : parts) {
+            MonthStatement month = joinStatementMonth(part);
+            if (transactions.size() + month.transactions().size() > statementMaxRows) {
+                throw tooManyRows(from, to);
             }
+            transactions.addAll(month.transactions());
+            ExchangeRateService.BatchConversion conversion = month.conversion();
+            totalCredit = totalCredit.add(conversion.totalCredit());
+            totalDebit = totalDebit.add(conversion.totalDebit());
+            stale |= conversion.stale();
+            rateVersion = Math.max(rateVersion, conversion.rateVersion());
+            monthTotals.add(StatementResponse.MonthTotals.builder()
+                    .month(month.month().toString())
+                    .totalCredit(conversion.totalCredit())
+                    .totalDebit(conversion.totalDebit())
+                    .transactionCount(month.transactions().size())
+                    .build());
         }
 
-        return TransactionResponse.builder()
+        return StatementResponse.builder()
+                .from(from)
+                .to(to)
                 .transactions(transactions)
                 .totalCredit(totalCredit)
                 .totalDebit(totalDebit)
-                .baseCurrency(request.getBaseCurrency())
-                .page(request.getPage())
+                .transactionCount(transactions.size())
+                .baseCurrency(baseCurrency)
+                .staleRates(stale)
+                .rateVersion(rateVersion)
+                .months(monthTotals)
+                .build();
+    }
+
+    /**
+     * Rows of the month's part of a statement: from its aggregates when the whole month is in the
+     * range and has them, otherwise counted on the index.
+     *
+     * @param aggregates the month's aggregate rows, or null if it has none
+     */
+    private long countStatementMonth(String customerId, YearMonth month, LocalDate from, LocalDate to,
+                                     List<MonthlyAggregate> aggregates) {
+        LocalDate start = month.atDay(1).isBefore(from) ? from : month.atDay(1);
+        LocalDate end = month.atEndOfMonth().isAfter(to) ? to : month.atEndOfMonth();
+        if (aggregates != null && isWholeMonth(month, start, end)) {
+            return aggregates.stream().mapToLong(MonthlyAggregate::getTransactionCount).sum();
+        }
+        return transactionRepository.countByCustomerIdAndValueDateBetween(customerId, start, end);
+    }
+
+    /**
+     * @param aggregates the month's aggregate rows, or null if it has none
+     */
+    private MonthStatement readStatementMonth(String customerId, YearMonth month, LocalDate from, LocalDate to,
+                                              String baseCurrency, List<MonthlyAggregate> aggregates) {
+        LocalDate start = month.atDay(1).isBefore(from) ? from : month.atDay(1);
+        LocalDate end = month.atEndOfMonth().isAfter(to) ? to : month.atEndOfMonth();
+        // Rows stored since the range was counted may still take it over the limit
+        Slice<Transaction> rows = transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                customerId, start, end, PageRequest.of(0, statementMaxRows));
+        if (rows.hasNext()) {
+            throw tooManyRows(from, to);
+        }
+        ExchangeRateService.BatchConversion conversion = aggregates != null && isWholeMonth(month, start, end)
+                ? convertMonthTotals(currencyTotals(aggregates), month, baseCurrency)
+                : exchangeRateService.convertAll(rows.getContent(), baseCurrency, false);
+        return new MonthStatement(month, rows.getContent(), conversion);
+    }
+
+    private static boolean isWholeMonth(YearMonth month, LocalDate start, LocalDate end) {
+        return start.equals(month.atDay(1)) && end.equals(month.atEndOfMonth());
+    }
+
+    private static MonthStatement joinStatementMonth(CompletableFuture<MonthStatement> part) {
+        try {
+            return part.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private InvalidStatementRangeException tooManyRows(LocalDate from, LocalDate to) {
+        return new InvalidStatementRangeException("The statement from " + from + " to " + to + " holds more than "
+                + statementMaxRows + " transactions; narrow the range or use exportTransactions");
+    }
+
+    /**
+     * The month's aggregate rows, or null when aggregates are disabled or the month has none yet
+     * (e.g. its transactions predate the aggregates and were not rebuilt): such a month is
+     * counted and totalled from its transaction rows instead of reading as empty.
+     */
+    private List<MonthlyAggregate> findAggregates(String customerId, YearMonth ym) {
+        if (!monthlyAggregatesEnabled) {
+            return null;
+        }
+        List<MonthlyAggregate> aggregates = monthlyAggregateService.findMonth(customerId, ym);
+        return aggregates.isEmpty() ? null : aggregates;
+    }
+
+    /**
+     * Keyset pagination: seeks past the cursor on the (customer, value date, id) index, so every
+     * page costs the same as the first and concurrent inserts never shift pages. Pages are not
+     * counted.
+     */
+    private TransactionResponse getTransactionsAfterCursor(String customerId, TransactionRequest request, YearMonth ym,
+                                                           List<MonthlyAggregate> aggregates) {
+        LocalDate start = ym.atDay(1);
+        // An empty cursor starts before the first row: ids are never empty
+        TransactionCursor after = request.getCursor().isEmpty()
+                ? new TransactionCursor(start, "")
+                : TransactionCursor.decode(request.getCursor());
+
+        // One extra row tells whether there is a next page
+        List<Transaction> rows = transactionRepository.findPageAfter(customerId, start, ym.atEndOfMonth(),
+                after.valueDate(), after.id(), PageRequest.of(0, request.getSize() + 1));
+        boolean hasNext = rows.size() > request.getSize();
+        List<Transaction> transactions = hasNext ? rows.subList(0, request.getSize()) : rows;
+
+        return responseBuilder(request, transactions, aggregates, ym)
                 .size(request.getSize())
-                .totalPages(page.getTotalPages())
-                .totalElements((int) page.getTotalElements())
-                .first(page.isFirst())
-                .last(page.isLast())
+                .nextCursor(hasNext ? TransactionCursor.after(transactions.get(transactions.size() - 1)).encode() : null)
+                .first(request.getCursor().isEmpty())
+                .last(!hasNext)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Serves a page from a month resident in the hot view: rows, count and month totals come from
+     * memory, so only the exchange rates are looked up.
+     */
+    private TransactionResponse getTransactionsFromView(TransactionRequest request, YearMonth ym,
+                                                        HotTransactionView.MonthView month) {
+        int size = request.getSize();
+        if (request.getCursor() != null) {
+            TransactionCursor after = request.getCursor().isEmpty()
+                    ? new TransactionCursor(ym.atDay(1), "")
+                    : TransactionCursor.decode(request.getCursor());
+            List<Transaction> rows = month.after(after.valueDate(), after.id(), size + 1);
+            boolean hasNext = rows.size() > size;
+            List<Transaction> transactions = hasNext ? rows.subList(0, size) : rows;
+            return responseBuilder(request, transactions, viewConversion(request, ym, month, transactions))
+                    .size(size)
+                    .nextCursor(hasNext ? TransactionCursor.after(transactions.get(transactions.size() - 1)).encode() : null)
+                    .first(request.getCursor().isEmpty())
+                    .last(!hasNext)
+                    .build();
+        }
+
+        Page<Transaction> page = new PageImpl<>(month.page(request.getPage() * size, size),
+                PageRequest.of(request.getPage(), size), month.size());
+        TransactionResponse.TransactionResponseBuilder response = responseBuilder(request, page.getContent(),
+                viewConversion(request, ym, month, page.getContent()))
+                .page(request.getPage())
+                .size(size)
+                .first(page.isFirst())
+                .last(page.isLast());
+        if (request.getIncludeCount()) {
+            response.totalPages(page.getTotalPages()).totalElements(month.size());
+        }
+        return response.build();
+    }
+
+    /**
+     * Totals of a resident month: the whole month from its rows at the same rate the monthly
+     * aggregates are converted at, or only the page when the aggregates are disabled.
+     */
+    private ExchangeRateService.BatchConversion viewConversion(TransactionRequest request, YearMonth ym,
+                                                               HotTransactionView.MonthView month,
+                                                               List<Transaction> transactions) {
+        return monthlyAggregatesEnabled
+                ? convertMonthTotals(month.currencyTotals(), ym, request.getBaseCurrency())
+                : exchangeRateService.convertAll(transactions, request.getBaseCurrency(), false);
+    }
+
+    /**
+     * Response with the page's transactions and totals, to which the caller adds paging fields.
+     */
+    private TransactionResponse.TransactionResponseBuilder responseBuilder(TransactionRequest request,
+                                                                           List<Transaction> transactions,
+                                                                           List<MonthlyAggregate> aggregates,
+                                                                           YearMonth ym) {
+        return responseBuilder(request, transactions, aggregates != null
+                ? convertMonthTotals(currencyTotals(aggregates), ym, request.getBaseCurrency())
+                // Page totals, resolving each distinct rate once per page
+                : exchangeRateService.convertAll(transactions, request.getBaseCurrency(), false));
+    }
+
+    private TransactionResponse.TransactionResponseBuilder responseBuilder(TransactionRequest request,
+                                                                           List<Transaction> transactions,
+                                                                           ExchangeRateService.BatchConversion conversion) {
+        return TransactionResponse.builder()
+                .transactions(transactions)
+                .totalCredit(conversion.totalCredit())
+                .totalDebit(conversion.totalDebit())
+                .baseCurrency(request.getBaseCurrency())
+                .staleRates(conversion.stale())
+                .rateVersion(conversion.rateVersion());
+    }
+
+    /**
+     * Converts the month's per-currency totals, each at the rate of the month's last day
+     * (or today for the current month).
+     */
+    private ExchangeRateService.BatchConversion convertMonthTotals(List<ExchangeRateService.CurrencyTotals> totals,
+                                                                   YearMonth ym, String baseCurrency) {
+        LocalDate today = LocalDate.now();
+        LocalDate rateDate = ym.atEndOfMonth().isAfter(today) ? today : ym.atEndOfMonth();
+        return exchangeRateService.convertTotals(totals, baseCurrency, rateDate);
+    }
+
+    private static List<ExchangeRateService.CurrencyTotals> currencyTotals(List<MonthlyAggregate> aggregates) {
+        return aggregates.stream()
+                .map(aggregate -> new ExchangeRateService.CurrencyTotals(
+                        aggregate.getCurrency(), aggregate.getCreditTotal(), aggregate.getDebitTotal()))
+                .toList();
+    }
+
+    /**
+     * Drops cached responses of the month once the change is visible to readers.
+     */
+    private void invalidateResponsesAfterCommit(String customerId, LocalDate valueDate) {
+        if (valueDate == null) {
+            return;
+        }
+        YearMonth month = YearMonth.from(valueDate);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionResponseCache.invalidate(customerId, month);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transactionResponseCache.invalidate(customerId, month);
+            }
+        });
+    }
+
+    private static boolean sameContribution(Transaction previous, Transaction transaction) {
+        return Objects.equals(previous.getCustomerId(), transaction.getCustomerId())
+                && Objects.equals(previous.getCurrency(), transaction.getCurrency())
+                && Objects.equals(previous.getValueDate(), transaction.getValueDate())
+                && previous.getAmount() != null && transaction.getAmount() != null
+                && previous.getAmount().compareTo(transaction.getAmount()) == 0;
+    }
+}
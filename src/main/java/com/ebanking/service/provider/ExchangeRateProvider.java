@@ -0,0 +1,40 @@
+package com.ebanking.service.provider;
+
+import com.ebanking.domain.RateTable;
+
+import java.time.LocalDate;
+
+/**
+ * Source of exchange rate tables.
+ *
+ * Providers are tried in {@link org.springframework.core.annotation.Order} order by
+ * {@link ExchangeRateProviderChain}, which hedges a slow provider with the next one.
+ */
+public interface ExchangeRateProvider {
+
+    /**
+     * Short name used in logs and as the {@code provider} metric tag.
+     */
+    String getName();
+
+    /**
+     * Returns true if the provider serves tables for past snapshot dates; otherwise it only
+     * serves the latest table.
+     */
+    boolean supportsHistorical();
+
+    /**
+     * Fetches the table for a base currency at a snapshot date.
+     *
+     * @return the table, or null if the provider has no answer
+     */
+    RateTable fetchRates(String baseCurrency, LocalDate snapshotDate);
+
+    /**
+     * Fallback providers are never asked for tables to cache. They only supply last-resort rates,
+     * served as stale, once every other provider has failed.
+     */
+    default boolean isFallback() {
+        return false;
+    }
+}
@@ -0,0 +1,196 @@
+package com.ebanking.service.provider;
+
+import com.ebanking.domain.RateTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches rate tables from the ordered exchange rate providers with hedged requests.
+ *
+ * The first provider is asked first. If it has not answered within its own p95 latency, the
+ * next provider is asked as well and whichever answers first wins; if a provider fails, the
+ * next one is asked straight away. This cuts the tail latency of cache misses without
+ * shortening any provider's timeout.
+ *
+ * Fallback providers take no part in this; they only supply {@link #fallbackRate}.
+ */
+@Slf4j
+@Component
+public class ExchangeRateProviderChain {
+
+    private static final double HEDGE_PERCENTILE = 0.95;
+
+    private final List<ExchangeRateProvider> providers;
+    private final List<ExchangeRateProvider> fallbackProviders;
+    private final MeterRegistry meterRegistry;
+    private final Executor exchangeRateProviderExecutor;
+
+    @Value("${app.exchange-rate.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${app.exchange-rate.hedge.initial-delay:500ms}")
+    private Duration initialHedgeDelay;
+
+    @Value("${app.exchange-rate.hedge.min-delay:50ms}")
+    private Duration minHedgeDelay;
+
+    @Value("${app.exchange-rate.hedge.min-samples:20}")
+    private long minLatencySamples;
+
+    @Value("${app.exchange-rate.hedge.max-wait:10s}")
+    private Duration maxWait;
+
+    public ExchangeRateProviderChain(List<ExchangeRateProvider> providers, MeterRegistry meterRegistry,
+                                     @Qualifier("exchangeRateProviderExecutor") Executor exchangeRateProviderExecutor) {
+        this.providers = providers.stream().filter(p -> !p.isFallback()).toList();
+        this.fallbackProviders = providers.stream().filter(ExchangeRateProvider::isFallback).toList();
+        this.meterRegistry = meterRegistry;
+        this.exchangeRateProviderExecutor = exchangeRateProviderExecutor;
+        log.info("Exchange rate providers: {}, fallback: {}",
+                this.providers.stream().map(ExchangeRateProvider::getName).toList(),
+                this.fallbackProviders.stream().map(ExchangeRateProvider::getName).toList());
+    }
+
+    /**
+     * Returns true if any provider serves tables for past snapshot dates.
+     */
+    public boolean supportsHistorical() {
+        return providers.stream().anyMatch(ExchangeRateProvider::supportsHistorical);
+    }
+
+    /**
+     * Fetches a table from the first provider to answer.
+     *
+     * Past-dated tables are only asked of providers that serve them.
+     *
+     * @return the table, or null if no provider answered within {@code hedge.max-wait}
+     */
+    public RateTable fetchRates(String baseCurrency, LocalDate snapshotDate) {
+        boolean past = snapshotDate.isBefore(LocalDate.now());
+        List<ExchangeRateProvider> candidates = past
+                ? providers.stream().filter(ExchangeRateProvider::supportsHistorical).toList()
+                : providers;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        BlockingQueue<Attempt> finished = new LinkedBlockingQueue<>();
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        int launched = 0;
+        int completed = 0;
+        launch(candidates.get(launched++), baseCurrency, snapshotDate, finished);
+        try {
+            while (completed < launched) {
+                boolean canHedge = hedgeEnabled && launched < candidates.size();
+                long waitNanos = canHedge
+                        ? Math.min(hedgeDelayNanos(candidates.get(launched - 1)), deadline - System.nanoTime())
+                        : deadline - System.nanoTime();
+                Attempt attempt = finished.poll(Math.max(waitNanos, 0), TimeUnit.NANOSECONDS);
+                if (attempt == null) {
+                    if (!canHedge || System.nanoTime() - deadline >= 0) {
+                        break;
+                    }
+                    ExchangeRateProvider hedge = candidates.get(launched++);
+                    log.debug("Provider {} is slow for {}, hedging with {}",
+                            candidates.get(launched - 2).getName(), baseCurrency, hedge.getName());
+                    meterRegistry.counter("exchange.rate.provider.hedges", "provider", hedge.getName()).increment();
+                    launch(hedge, baseCurrency, snapshotDate, finished);
+                    continue;
+                }
+                completed++;
+                if (attempt.table() != null) {
+                    meterRegistry.counter("exchange.rate.provider.wins", "provider", attempt.provider().getName()).increment();
+                    return attempt.table();
+                }
+                // Failed without an answer: fail over to the next provider immediately
+                if (completed == launched && launched < candidates.size()) {
+                    launch(candidates.get(launched++), baseCurrency, snapshotDate, finished);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while fetching exchange rates for {}", baseCurrency);
+        }
+        log.warn("No exchange rate provider answered for {} on {}", baseCurrency, snapshotDate);
+        return null;
+    }
+
+    /**
+     * Last-resort rate from the fallback providers, 1:1 if none knows the pair.
+     */
+    public BigDecimal fallbackRate(String fromCurrency, String toCurrency, LocalDate snapshotDate) {
+        for (ExchangeRateProvider provider : fallbackProviders) {
+            RateTable table = provider.fetchRates(fromCurrency, snapshotDate);
+            BigDecimal rate = table != null ? table.crossRate(fromCurrency, toCurrency) : null;
+            if (rate != null) {
+                return rate;
+            }
+        }
+        return BigDecimal.ONE;
+    }
+
+    private void launch(ExchangeRateProvider provider, String baseCurrency, LocalDate snapshotDate,
+                        BlockingQueue<Attempt> finished) {
+        Timer latency = latencyTimer(provider);
+        try {
+            CompletableFuture.runAsync(() -> {
+                long start = System.nanoTime();
+                RateTable table = null;
+                try {
+                    table = provider.fetchRates(baseCurrency, snapshotDate);
+                } catch (RuntimeException e) {
+                    log.warn("Exchange rate provider {} failed for {}: {}", provider.getName(), baseCurrency, e.getMessage());
+                } finally {
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    finished.add(new Attempt(provider, table));
+                }
+            }, exchangeRateProviderExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Exchange rate provider {} rejected for {}, executor is saturated", provider.getName(), baseCurrency);
+            finished.add(new Attempt(provider, null));
+        }
+    }
+
+    /**
+     * How long to wait for a provider before hedging: its recent p95 latency, or
+     * {@code hedge.initial-delay} until enough calls have been timed.
+     */
+    private long hedgeDelayNanos(ExchangeRateProvider provider) {
+        Timer latency = latencyTimer(provider);
+        long delay = initialHedgeDelay.toNanos();
+        if (latency.count() >= minLatencySamples) {
+            for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == HEDGE_PERCENTILE) {
+                    delay = (long) percentile.value(TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        return Math.max(delay, minHedgeDelay.toNanos());
+    }
+
+    private Timer latencyTimer(ExchangeRateProvider provider) {
+        return Timer.builder("exchange.rate.provider.latency")
+                .tag("provider", provider.getName())
+                .publishPercentiles(HEDGE_PERCENTILE)
+                .register(meterRegistry);
+    }
+
+    private record Attempt(ExchangeRateProvider provider, RateTable table) {
+    }
+}
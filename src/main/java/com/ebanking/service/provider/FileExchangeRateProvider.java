@@ -0,0 +1,93 @@
+package com.ebanking.service.provider;
+
+import com.ebanking.domain.RateTable;
+import com.ebanking.domain.RateTableCsv;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary provider reading rate tables from a local CSV file ({@code date,base,currency,rate}),
+ * e.g. a feed dropped by a batch job. The file is re-read whenever it changes.
+ *
+ * Serves the newest table on or before the requested date. It only ever answers as a "latest"
+ * provider: the table is not treated as the settled rates of a past date.
+ */
+@Slf4j
+@Component
+@Order(1)
+public class FileExchangeRateProvider implements ExchangeRateProvider {
+
+    @Value("${app.exchange-rate.providers.file.path:}")
+    private String ratesFile;
+
+    private volatile Map<String, NavigableMap<LocalDate, RateTable>> tables = Map.of();
+
+    private volatile Instant loadedModifiedAt = Instant.MIN;
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public boolean supportsHistorical() {
+        return false;
+    }
+
+    @Override
+    public RateTable fetchRates(String baseCurrency, LocalDate snapshotDate) {
+        if (!StringUtils.hasText(ratesFile)) {
+            return null;
+        }
+        Instant modifiedAt = reloadIfChanged();
+        NavigableMap<LocalDate, RateTable> byDate = tables.get(baseCurrency);
+        Map.Entry<LocalDate, RateTable> entry = byDate != null ? byDate.floorEntry(snapshotDate) : null;
+        if (entry == null) {
+            return null;
+        }
+        RateTable table = entry.getValue();
+        // Never claim rates are newer than the file that holds them
+        Instant fetchedAt = table.getFetchedAt().isBefore(modifiedAt) ? table.getFetchedAt() : modifiedAt;
+        return new RateTable(baseCurrency, snapshotDate, table.getRates(), fetchedAt);
+    }
+
+    /**
+     * @return the modification time of the loaded file
+     */
+    private synchronized Instant reloadIfChanged() {
+        Path path = Path.of(ratesFile);
+        try {
+            Instant modifiedAt = Files.getLastModifiedTime(path).toInstant();
+            if (modifiedAt.equals(loadedModifiedAt)) {
+                return loadedModifiedAt;
+            }
+            Map<String, NavigableMap<LocalDate, RateTable>> loaded = new HashMap<>();
+            try (Reader csv = Files.newBufferedReader(path)) {
+                for (RateTable table : RateTableCsv.read(csv)) {
+                    loaded.computeIfAbsent(table.getBaseCurrency(), base -> new TreeMap<>())
+                            .put(table.getSnapshotDate(), table);
+                }
+            }
+            tables = loaded;
+            loadedModifiedAt = modifiedAt;
+            log.info("Loaded exchange rates for {} base currencies from {}", loaded.size(), path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read exchange rate file {}: {}", path, e.getMessage());
+        }
+        return loadedModifiedAt;
+    }
+}
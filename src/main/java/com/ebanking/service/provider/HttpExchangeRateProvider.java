@@ -0,0 +1,122 @@
+package com.ebanking.service.provider;
+
+import com.ebanking.domain.RateTable;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary provider: the external exchange rate API, called through the pooled RestTemplate
+ * and guarded by the exchange rate circuit breaker.
+ */
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class HttpExchangeRateProvider implements ExchangeRateProvider {
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker exchangeRateCircuitBreaker;
+
+    @Value("${app.exchange-rate.api.base-url}")
+    private String exchangeRateApiUrl;
+
+    @Value("${app.exchange-rate.api.historical-url:}")
+    private String historicalApiUrl;
+
+    private Clock clock = Clock.systemUTC();
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public boolean supportsHistorical() {
+        return StringUtils.hasText(historicalApiUrl);
+    }
+
+    /**
+     * Fetches the full rate table for a base currency through the circuit breaker.
+     *
+     * While the breaker is open this returns immediately, so callers fall back to other
+     * providers in microseconds instead of waiting for the connect and read timeouts.
+     *
+     * @return the table, or null if the API could not be reached or returned no rates
+     */
+    @Override
+    public RateTable fetchRates(String baseCurrency, LocalDate snapshotDate) {
+        if (!exchangeRateCircuitBreaker.tryAcquirePermission()) {
+            log.debug("Exchange rate API circuit is {}, not fetching rates for {}",
+                    exchangeRateCircuitBreaker.getState(), baseCurrency);
+            return null;
+        }
+
+        long start = System.nanoTime();
+        try {
+            String url = rateTableUrl(baseCurrency, snapshotDate);
+            log.debug("Fetching exchange rates from API: {}", url);
+
+            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+
+            if (response != null && response.get("rates") instanceof Map<?, ?> rates) {
+                Map<String, BigDecimal> parsedRates = new HashMap<>();
+                rates.forEach((currency, rateObj) -> {
+                    if (rateObj instanceof Number) {
+                        parsedRates.put(currency.toString(), new BigDecimal(rateObj.toString()));
+                    }
+                });
+                exchangeRateCircuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return new RateTable(baseCurrency, snapshotDate, parsedRates, clock.instant());
+            }
+
+            log.warn("Could not extract exchange rates from API response for {}", baseCurrency);
+            exchangeRateCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS,
+                    new IllegalStateException("Exchange rate API response has no rates"));
+            return null;
+
+        } catch (HttpClientErrorException e) {
+            log.warn("HTTP error accessing exchange rate API: {} - {}", e.getStatusCode(), e.getMessage());
+            // The provider answered; only throttling means it is in trouble
+            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                exchangeRateCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            } else {
+                exchangeRateCircuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return null;
+        } catch (ResourceAccessException e) {
+            log.warn("Network error accessing exchange rate API: {}", e.getMessage());
+            exchangeRateCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            return null;
+        } catch (Exception e) {
+            log.error("Error fetching exchange rates from API for {}: {}", baseCurrency, e.getMessage());
+            exchangeRateCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            return null;
+        }
+    }
+
+    private String rateTableUrl(String baseCurrency, LocalDate snapshotDate) {
+        if (StringUtils.hasText(historicalApiUrl) && snapshotDate.isBefore(LocalDate.now())) {
+            return UriComponentsBuilder.fromUriString(historicalApiUrl)
+                    .buildAndExpand(Map.of("base", baseCurrency, "date", snapshotDate))
+                    .toUriString();
+        }
+        return String.format("%s/%s", exchangeRateApiUrl, baseCurrency);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ebanking.service.provider;
+
+import com.ebanking.domain.RateTable;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Built-in demo rates, used as the last resort when no other provider answers.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class StaticExchangeRateProvider implements ExchangeRateProvider {
+
+    private static final Map<String, Map<String, BigDecimal>> RATES = Map.of(
+            "USD", Map.of("GBP", new BigDecimal("0.79")),
+            "EUR", Map.of("GBP", new BigDecimal("0.86")),
+            "CHF", Map.of("GBP", new BigDecimal("0.89")),
+            "GBP", Map.of(
+                    "USD", new BigDecimal("1.27"),
+                    "EUR", new BigDecimal("1.16"),
+                    "CHF", new BigDecimal("1.12")));
+
+    @Override
+    public String getName() {
+        return "static";
+    }
+
+    @Override
+    public boolean supportsHistorical() {
+        return false;
+    }
+
+    @Override
+    public RateTable fetchRates(String baseCurrency, LocalDate snapshotDate) {
+        Map<String, BigDecimal> rates = RATES.get(baseCurrency);
+        return rates != null ? new RateTable(baseCurrency, snapshotDate, rates, Instant.EPOCH) : null;
+    }
+
+    @Override
+    public boolean isFallback() {
+        return true;
+    }
+}
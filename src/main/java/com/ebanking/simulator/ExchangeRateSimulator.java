@@ -0,0 +1,259 @@
+package com.ebanking.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the external exchange rate API, for load tests and offline measurements.
+ *
+ * Serves {@code GET /latest/{base}} in the provider's format ({@code base}, {@code date},
+ * {@code time_last_updated}, {@code rates}) from a table of realistic mid rates that drifts a
+ * little with every request. Each request is delayed by a latency drawn from the configured
+ * distribution, and can be failed with a 500 or throttled with a 429, so the effect of cache,
+ * circuit breaker and timeout settings on tail latency can be measured without the real API.
+ *
+ * Runs on the JDK HTTP server, on its own port and threads, so it never competes with the
+ * application for servlet threads.
+ */
+@Slf4j
+public class ExchangeRateSimulator {
+
+    private static final String LATEST_PATH = "/latest/";
+
+    /**
+     * Quantile of the standard normal distribution at 0.99, to derive sigma from the p99.
+     */
+    private static final double Z_99 = 2.3263;
+
+    /**
+     * Units of each currency per US dollar.
+     */
+    private static final Map<String, Double> USD_RATES = Map.ofEntries(
+            Map.entry("USD", 1.0), Map.entry("EUR", 0.92), Map.entry("GBP", 0.79),
+            Map.entry("CHF", 0.89), Map.entry("JPY", 157.3), Map.entry("CAD", 1.37),
+            Map.entry("AUD", 1.50), Map.entry("NZD", 1.64), Map.entry("CNY", 7.26),
+            Map.entry("HKD", 7.81), Map.entry("SGD", 1.35), Map.entry("SEK", 10.6),
+            Map.entry("NOK", 10.7), Map.entry("DKK", 6.87), Map.entry("PLN", 3.98),
+            Map.entry("CZK", 23.1), Map.entry("HUF", 365.0), Map.entry("INR", 83.5),
+            Map.entry("BRL", 5.45), Map.entry("MXN", 18.1), Map.entry("ZAR", 18.3),
+            Map.entry("TRY", 32.8), Map.entry("KRW", 1380.0), Map.entry("AED", 3.6725));
+
+    private static final MathContext RATE_CONTEXT = new MathContext(8);
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Double> drift = new LinkedHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong throttleWindow = new AtomicLong();
+    private final AtomicLong requestsInWindow = new AtomicLong();
+
+    private Clock clock = Clock.systemUTC();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public enum LatencyDistribution {
+        /**
+         * Always {@code latencyMedian}.
+         */
+        FIXED,
+        /**
+         * Uniform between {@code latencyMin} and {@code latencyMax}.
+         */
+        UNIFORM,
+        /**
+         * {@code latencyMin} plus a log-normal delay with the given median and p99, capped at {@code latencyMax}.
+         */
+        LOG_NORMAL
+    }
+
+    /**
+     * Simulator settings. Durations default to zero, rates to no errors and no throttling.
+     *
+     * @param port              port to listen on, 0 for any free port
+     * @param distribution      latency distribution
+     * @param errorRate         fraction of requests answered with 500
+     * @param requestsPerSecond requests per second served before answering 429, 0 for unlimited
+     * @param volatility        relative random-walk step applied to each rate per request
+     */
+    @Builder
+    public record Settings(int port, LatencyDistribution distribution, Duration latencyMin, Duration latencyMedian,
+                           Duration latencyP99, Duration latencyMax, double errorRate, int requestsPerSecond,
+                           double volatility, int threads) {
+
+        public Settings {
+            distribution = distribution != null ? distribution : LatencyDistribution.FIXED;
+            latencyMin = latencyMin != null ? latencyMin : Duration.ZERO;
+            latencyMedian = latencyMedian != null ? latencyMedian : latencyMin;
+            latencyP99 = latencyP99 != null ? latencyP99 : latencyMedian;
+            latencyMax = latencyMax != null ? latencyMax : latencyP99.multipliedBy(4);
+            threads = threads > 0 ? threads : 64;
+        }
+    }
+
+    public ExchangeRateSimulator(Settings settings) {
+        this.settings = settings;
+        USD_RATES.forEach((currency, rate) -> drift.put(currency, 1.0));
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        executor = Executors.newFixedThreadPool(settings.threads());
+        server = HttpServer.create(new InetSocketAddress(settings.port()), 0);
+        server.setExecutor(executor);
+        server.createContext(LATEST_PATH, this::handleLatest);
+        server.start();
+        log.info("Exchange rate simulator listening on port {} ({} latency, median {}, p99 {}, error rate {}, {} rps)",
+                getPort(), settings.distribution(), settings.latencyMedian(), settings.latencyP99(),
+                settings.errorRate(), settings.requestsPerSecond() > 0 ? settings.requestsPerSecond() : "unlimited");
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Base URL to configure as {@code app.exchange-rate.api.base-url}.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort() + "/latest";
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    private void handleLatest(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requestCount.incrementAndGet();
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, Map.of("error", "method not allowed"));
+                return;
+            }
+            if (isThrottled()) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, Map.of("error", "too many requests"));
+                return;
+            }
+            sleep(nextLatency());
+            if (ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                respond(exchange, 500, Map.of("error", "simulated failure"));
+                return;
+            }
+
+            String base = exchange.getRequestURI().getPath().substring(LATEST_PATH.length()).toUpperCase(Locale.ROOT);
+            Map<String, BigDecimal> rates = ratesFor(base);
+            if (rates == null) {
+                respond(exchange, 404, Map.of("error", "unsupported base " + base));
+                return;
+            }
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("base", base);
+            body.put("date", LocalDate.now(clock).toString());
+            body.put("time_last_updated", clock.instant().getEpochSecond());
+            body.put("rates", rates);
+            respond(exchange, 200, body);
+        }
+    }
+
+    private boolean isThrottled() {
+        int limit = settings.requestsPerSecond();
+        if (limit <= 0) {
+            return false;
+        }
+        long second = clock.millis() / 1000;
+        long window = throttleWindow.get();
+        if (window != second && throttleWindow.compareAndSet(window, second)) {
+            requestsInWindow.set(0);
+        }
+        return requestsInWindow.incrementAndGet() > limit;
+    }
+
+    private Duration nextLatency() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long min = settings.latencyMin().toNanos();
+        long max = settings.latencyMax().toNanos();
+        return switch (settings.distribution()) {
+            case FIXED -> settings.latencyMedian();
+            case UNIFORM -> Duration.ofNanos(max > min ? random.nextLong(min, max) : min);
+            case LOG_NORMAL -> {
+                double median = Math.max(settings.latencyMedian().toNanos() - min, 1);
+                double p99 = Math.max(settings.latencyP99().toNanos() - min, median);
+                double sigma = Math.log(p99 / median) / Z_99;
+                long sample = min + (long) (median * Math.exp(sigma * random.nextGaussian()));
+                yield Duration.ofNanos(Math.min(sample, max));
+            }
+        };
+    }
+
+    /**
+     * Rates for one unit of {@code base}, after moving every rate one random-walk step.
+     */
+    private Map<String, BigDecimal> ratesFor(String base) {
+        Map<String, Double> current = new LinkedHashMap<>();
+        synchronized (drift) {
+            if (!drift.containsKey(base)) {
+                return null;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            drift.replaceAll((currency, factor) -> currency.equals("USD")
+                    ? factor
+                    : factor * (1 + settings.volatility() * random.nextGaussian()));
+            drift.forEach((currency, factor) -> current.put(currency, USD_RATES.get(currency) * factor));
+        }
+        double baseRate = current.get(base);
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        current.forEach((currency, rate) -> rates.put(currency,
+                currency.equals(base) ? BigDecimal.ONE : new BigDecimal(rate / baseRate, RATE_CONTEXT)));
+        return rates;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] json = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+
+    private static void sleep(Duration latency) {
+        if (latency.isZero() || latency.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+-- Baseline schema, previously generated by Hibernate (ddl-auto)
+
+CREATE TABLE transactions (
+    id           VARCHAR(36)    NOT NULL,
+    amount       NUMERIC(38, 2) NOT NULL,
+    currency     VARCHAR(3)     NOT NULL,
+    account_iban VARCHAR(255)   NOT NULL,
+    value_date   DATE           NOT NULL,
+    description  VARCHAR(255)   NOT NULL,
+    customer_id  VARCHAR(255),
+    CONSTRAINT pk_transactions PRIMARY KEY (id)
+);
+
+-- Serves every read path: the customer's month in (value_date, id) order for offset and keyset
+-- pages, counts, and monthly totals. Currency and amount make the totals an index-only scan.
+CREATE INDEX idx_transactions_customer_value_date_id
+    ON transactions (customer_id, value_date, id, currency, amount);
+
+CREATE TABLE monthly_aggregates (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    customer_id       VARCHAR(255)   NOT NULL,
+    year_month        VARCHAR(7)     NOT NULL,
+    currency          VARCHAR(3)     NOT NULL,
+    credit_total      NUMERIC(38, 2) NOT NULL,
+    debit_total       NUMERIC(38, 2) NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    CONSTRAINT pk_monthly_aggregates PRIMARY KEY (id),
+    CONSTRAINT uk_monthly_aggregates_customer_month_currency UNIQUE (customer_id, year_month, currency)
+);
+
+CREATE TABLE exchange_rates (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    base_currency  VARCHAR(3)                  NOT NULL,
+    quote_currency VARCHAR(3)                  NOT NULL,
+    rate_date      DATE                        NOT NULL,
+    rate           NUMERIC(24, 12)             NOT NULL,
+    fetched_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_exchange_rates PRIMARY KEY (id),
+    CONSTRAINT uk_exchange_rates_base_date_quote UNIQUE (base_currency, rate_date, quote_currency)
+);
+
+CREATE INDEX idx_exchange_rates_rate_date ON exchange_rates (rate_date);
@@ -0,0 +1,24 @@
+-- Backfills the monthly aggregates of transactions stored before they were maintained, so month
+-- totals and counts are complete as soon as the aggregates are read. Months that already have
+-- rows are left alone. Transactions stored during a rolling upgrade by instances still running a
+-- version without aggregates are not covered: rebuild with POST /actuator/monthlyaggregates once
+-- every instance is upgraded.
+INSERT INTO monthly_aggregates (customer_id, year_month, currency, credit_total, debit_total, transaction_count)
+SELECT t.customer_id,
+       t.year_month,
+       t.currency,
+       SUM(CASE WHEN t.amount > 0 THEN t.amount ELSE 0 END),
+       SUM(CASE WHEN t.amount < 0 THEN -t.amount ELSE 0 END),
+       COUNT(*)
+FROM (SELECT customer_id,
+             CAST(CAST(EXTRACT(YEAR FROM value_date) AS INTEGER) AS VARCHAR(4)) || '-'
+                 || LPAD(CAST(CAST(EXTRACT(MONTH FROM value_date) AS INTEGER) AS VARCHAR(2)), 2, '0') AS year_month,
+             UPPER(currency) AS currency,
+             amount
+      FROM transactions
+      WHERE customer_id IS NOT NULL) t
+WHERE NOT EXISTS (SELECT 1
+                  FROM monthly_aggregates a
+                  WHERE a.customer_id = t.customer_id
+                    AND a.year_month = t.year_month)
+GROUP BY t.customer_id, t.year_month, t.currency;
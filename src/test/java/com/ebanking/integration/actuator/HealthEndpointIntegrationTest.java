@@ -0,0 +1,44 @@
+package com.ebanking.integration.actuator;
+
+import com.ebanking.TransactionServiceApplication;
+import com.ebanking.service.ExchangeRateService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = TransactionServiceApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Health Endpoint Integration Tests")
+class HealthEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExchangeRateService exchangeRateService;
+
+    @Test
+    @DisplayName("Warming rate cache should hold back readiness but not the default health")
+    void rateWarmup_OnlyAffectsReadiness() throws Exception {
+        // Arrange
+        when(exchangeRateService.isWarmedUp()).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("OUT_OF_SERVICE"));
+    }
+}
@@ -3,10 +3,14 @@ package com.ebanking.integration.controller;
 import com.ebanking.TransactionServiceApplication;
 import com.ebanking.domain.Transaction;
 import com.ebanking.dto.AddTransactionResponse;
+import com.ebanking.dto.StatementResponse;
 import com.ebanking.dto.TransactionRequest;
 import com.ebanking.dto.TransactionResponse;
+import com.ebanking.exception.InvalidStatementRangeException;
+import com.ebanking.repository.TransactionRepository;
 import com.ebanking.service.KafkaTransactionProducer;
 import com.ebanking.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,19 +19,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,10 +62,20 @@ class TransactionControllerIntegrationTest {
     @MockBean
     private KafkaTransactionProducer kafkaProducer;
 
+    private static final String EXPORT_CUSTOMER = "P-0999000001";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
     private Transaction mockTransaction;
     private TransactionResponse mockTransactionResponse;
     private AddTransactionResponse mockAddTransactionResponse;
 
+    @AfterEach
+    void deleteExportTransactions() {
+        transactionRepository.deleteAllById(List.of("00000000-0000-4000-8000-000000000001", "00000000-0000-4000-8000-000000000002", "00000000-0000-4000-8000-000000000003"));
+    }
+
     @BeforeEach
     void setUp() {
         // Setup mock transaction
@@ -380,6 +405,140 @@ class TransactionControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Authentication is required to access this resource"));
     }
 
+    // ==================== GET STATEMENT TESTS ====================
+
+    @Test
+    @WithMockUser(username = "P-0123456789")
+    @DisplayName("GET /api/v1/getStatement - Valid range returns 200 OK")
+    void getStatement_ValidRange_ReturnsOk() throws Exception {
+        // Arrange
+        when(transactionService.getStatement("P-0123456789", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 7, 31), "USD"))
+                .thenReturn(StatementResponse.builder()
+                        .from(LocalDate.of(2024, 6, 1))
+                        .to(LocalDate.of(2024, 7, 31))
+                        .transactions(List.of(mockTransaction))
+                        .totalCredit(new BigDecimal("100.00"))
+                        .totalDebit(BigDecimal.ZERO)
+                        .transactionCount(1)
+                        .baseCurrency("USD")
+                        .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/getStatement")
+                        .param("from", "2024-06-01")
+                        .param("to", "2024-07-31")
+                        .param("baseCurrency", "USD"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2024-06-01"))
+                .andExpect(jsonPath("$.transactionCount").value(1))
+                .andExpect(jsonPath("$.transactions[0].id").value("test-transaction-id"));
+    }
+
+    @Test
+    @WithMockUser(username = "P-0123456789")
+    @DisplayName("GET /api/v1/getStatement - Invalid range returns 400 Bad Request")
+    void getStatement_InvalidRange_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(transactionService.getStatement(eq("P-0123456789"), any(), any(), any()))
+                .thenThrow(new InvalidStatementRangeException("Statement start 2024-08-01 is after its end 2024-07-01"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/getStatement")
+                        .param("from", "2024-08-01")
+                        .param("to", "2024-07-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Statement start 2024-08-01 is after its end 2024-07-01"));
+    }
+
+    // ==================== EXPORT TRANSACTIONS TESTS ====================
+
+    @Test
+    @WithMockUser(username = EXPORT_CUSTOMER)
+    @DisplayName("GET /api/v1/exportTransactions - CSV export escapes formulas and is not compressed unless accepted")
+    void exportTransactions_Csv_EscapesFormulas() throws Exception {
+        // Arrange
+        saveExportTransactions();
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/v1/exportTransactions")
+                        .param("month", "7")
+                        .param("year", "2024")
+                        .param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith("text/csv")))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("transactions-2024-07.csv")))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,valueDate,amount,currency,accountIban,description,customerId", lines[0]);
+        assertEquals("00000000-0000-4000-8000-000000000001,2024-07-02,100.00,USD,CH93-0000-0000-0000-0000-0,\"'=HYPERLINK(\"\"x\"\")\","
+                + EXPORT_CUSTOMER, lines[1]);
+        assertTrue(lines[2].startsWith("00000000-0000-4000-8000-000000000002,2024-07-20,-5.50,EUR,"));
+    }
+
+    @Test
+    @WithMockUser(username = EXPORT_CUSTOMER)
+    @DisplayName("GET /api/v1/exportTransactions - NDJSON export is gzip-compressed when accepted")
+    void exportTransactions_NdjsonGzip_Compressed() throws Exception {
+        // Arrange
+        saveExportTransactions();
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/v1/exportTransactions")
+                        .param("month", "7")
+                        .param("year", "2024")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith("application/x-ndjson")))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+        try (GZIPInputStream body = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            List<String> lines = new String(body.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).contains("\"id\":\"00000000-0000-4000-8000-000000000001\""), lines.get(0));
+            assertTrue(lines.get(1).contains("\"id\":\"00000000-0000-4000-8000-000000000002\""), lines.get(1));
+        }
+    }
+
+    @Test
+    @WithMockUser(username = EXPORT_CUSTOMER)
+    @DisplayName("GET /api/v1/exportTransactions - Unknown format returns 400 Bad Request")
+    void exportTransactions_InvalidFormat_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/exportTransactions")
+                        .param("month", "7")
+                        .param("year", "2024")
+                        .param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void saveExportTransactions() {
+        transactionRepository.saveAll(List.of(
+                Transaction.builder().id("00000000-0000-4000-8000-000000000002").amount(new BigDecimal("-5.50")).currency("EUR")
+                        .accountIban("CH93-0000-0000-0000-0000-0").valueDate(LocalDate.of(2024, 7, 20))
+                        .description("Groceries").customerId(EXPORT_CUSTOMER).build(),
+                Transaction.builder().id("00000000-0000-4000-8000-000000000001").amount(new BigDecimal("100.00")).currency("USD")
+                        .accountIban("CH93-0000-0000-0000-0000-0").valueDate(LocalDate.of(2024, 7, 2))
+                        .description("=HYPERLINK(\"x\")").customerId(EXPORT_CUSTOMER).build(),
+                Transaction.builder().id("00000000-0000-4000-8000-000000000003").amount(new BigDecimal("1.00")).currency("USD")
+                        .accountIban("CH93-0000-0000-0000-0000-0").valueDate(LocalDate.of(2024, 8, 1))
+                        .description("Next month").customerId(EXPORT_CUSTOMER).build()));
+    }
+
     // ==================== EDGE CASES ====================
 
     @Test
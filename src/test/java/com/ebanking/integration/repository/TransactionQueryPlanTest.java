@@ -0,0 +1,185 @@
+package com.ebanking.integration.repository;
+
+import com.ebanking.repository.TransactionRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the transaction read queries are planned on the composite index of the Flyway
+ * schema rather than as table scans.
+ *
+ * Each test calls the real TransactionRepository method, captures the SQL Hibernate generates
+ * for it and EXPLAINs that SQL with the same parameters bound, so a change to a query, its
+ * paging or the dialect is checked as it runs in production.
+ *
+ * Loads 100k rows by default; run with {@code -DqueryPlan.rows=10000000} to check the plans at
+ * production volume (see README).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Transaction Query Plan Tests")
+class TransactionQueryPlanTest {
+
+    private static final String INDEX = "IDX_TRANSACTIONS_CUSTOMER_VALUE_DATE_ID";
+    private static final long ROWS = Long.getLong("queryPlan.rows", 100_000);
+    private static final int CUSTOMERS = 1_000;
+
+    private static final String CUSTOMER = "P-0000000042";
+    private static final LocalDate START = LocalDate.of(2024, 7, 1);
+    private static final LocalDate END = LocalDate.of(2024, 7, 31);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CapturingStatementInspector statements;
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        CapturingStatementInspector capturingStatementInspector() {
+            return new CapturingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(CapturingStatementInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares, unchanged.
+     */
+    static class CapturingStatementInspector implements StatementInspector {
+
+        private final List<String> sql = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            this.sql.add(sql);
+            return sql;
+        }
+
+        /**
+         * The only statement prepared since the last clear.
+         */
+        String single() {
+            assertEquals(1, sql.size(), () -> "Expected one statement, got " + sql);
+            return sql.get(0);
+        }
+
+        void clear() {
+            sql.clear();
+        }
+    }
+
+    @BeforeAll
+    void loadTransactions() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        // Customers round-robin over the rows, value dates spread over two years
+        jdbcTemplate.update("INSERT INTO transactions (id, amount, currency, account_iban, value_date, description, customer_id) "
+                + "SELECT RANDOM_UUID(), (MOD(x, 2000) - 1000) + 0.5, "
+                + "CASE MOD(x, 3) WHEN 0 THEN 'USD' WHEN 1 THEN 'EUR' ELSE 'GBP' END, "
+                + "'CH93-0000-0000-0000-0000-0', DATEADD(DAY, MOD(x / " + CUSTOMERS + ", 730), DATE '2023-01-01'), "
+                + "'Generated', 'P-' || LPAD(CAST(MOD(x, " + CUSTOMERS + ") AS VARCHAR), 10, '0') "
+                + "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void deleteTransactions() {
+        // The database is shared with other tests using the same context
+        jdbcTemplate.update("DELETE FROM transactions");
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    @DisplayName("Offset page should seek the customer's month on the composite index")
+    void offsetPage_UsesCompositeIndex() {
+        // Act
+        transactionRepository.findSliceByCustomerIdAndValueDateBetween(CUSTOMER, START, END, PageRequest.of(2, 20));
+
+        // Assert: the slice reads one row past the page
+        assertUsesIndex(statements.single(), CUSTOMER, START, END, 40, 21);
+    }
+
+    @Test
+    @DisplayName("Keyset page should seek past the cursor on the composite index")
+    void keysetPage_UsesCompositeIndex() {
+        // Arrange
+        LocalDate afterDate = LocalDate.of(2024, 7, 15);
+        String afterId = "89d3f179-abcd-465b-a9ee-e2d5f6fe1d46";
+
+        // Act
+        transactionRepository.findPageAfter(CUSTOMER, START, END, afterDate, afterId, PageRequest.of(0, 21));
+
+        // Assert: rows come out of the index in order, so nothing is sorted and the scan stops after 21 rows
+        String plan = assertUsesIndex(statements.single(), CUSTOMER, START, END, afterDate, afterDate, afterId, 0, 21);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    @DisplayName("Page count should be answered from the composite index")
+    void count_UsesCompositeIndex() {
+        // Act
+        transactionRepository.countByCustomerIdAndValueDateBetween(CUSTOMER, START, END);
+
+        // Assert
+        assertUsesIndex(statements.single(), CUSTOMER, START, END);
+    }
+
+    @Test
+    @DisplayName("Monthly totals rebuild should read only the composite index")
+    void monthlyTotals_UseCompositeIndex() {
+        // Act
+        transactionRepository.sumMonthlyTotals(CUSTOMER);
+
+        // Assert
+        assertUsesIndex(statements.single(), CUSTOMER);
+    }
+
+    /**
+     * EXPLAINs a captured statement with its parameters bound in order of appearance.
+     */
+    private String assertUsesIndex(String sql, Object... parameters) {
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(),
+                () -> "Parameters do not match the generated SQL: " + sql);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        assertNotNull(plan);
+        assertTrue(plan.toUpperCase().contains(INDEX), plan);
+        assertFalse(plan.toLowerCase().contains("tablescan"), plan);
+        return plan;
+    }
+}
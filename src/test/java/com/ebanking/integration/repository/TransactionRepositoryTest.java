@@ -0,0 +1,136 @@
+package com.ebanking.integration.repository;
+
+import com.ebanking.domain.MonthlyAggregate;
+import com.ebanking.domain.Transaction;
+import com.ebanking.repository.MonthlyAggregateRepository;
+import com.ebanking.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Transaction Repository Integration Tests")
+class TransactionRepositoryTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 7, 1);
+    private static final LocalDate END = LocalDate.of(2024, 7, 31);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MonthlyAggregateRepository monthlyAggregateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(transaction("00000000-0000-0000-0000-000000000003", "-20.00", LocalDate.of(2024, 7, 20)));
+        entityManager.persist(transaction("00000000-0000-0000-0000-000000000002", "10.00", LocalDate.of(2024, 7, 5)));
+        entityManager.persist(transaction("00000000-0000-0000-0000-000000000001", "30.00", LocalDate.of(2024, 7, 5)));
+        entityManager.persist(transaction("00000000-0000-0000-0000-000000000004", "40.00", LocalDate.of(2024, 8, 1)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findSlice - Should return detached rows in (value date, id) order")
+    void findSlice_ReturnsDetachedRowsInOrder() {
+        // Act
+        Slice<Transaction> slice = transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                "P-0123456789", START, END, PageRequest.of(0, 2));
+
+        // Assert
+        assertEquals(List.of("00000000-0000-0000-0000-000000000001", "00000000-0000-0000-0000-000000000002"),
+                slice.getContent().stream().map(Transaction::getId).toList());
+        assertTrue(slice.hasNext());
+        Transaction first = slice.getContent().get(0);
+        assertEquals(new BigDecimal("30.00"), first.getAmount());
+        assertEquals("CH93-0000-0000-0000-0000-0", first.getAccountIban());
+        assertFalse(entityManager.getEntityManager().contains(first));
+    }
+
+    @Test
+    @DisplayName("findPageAfter - Should continue strictly after the cursor row")
+    void findPageAfter_ContinuesAfterCursor() {
+        // Act
+        List<Transaction> page = transactionRepository.findPageAfter("P-0123456789", START, END,
+                LocalDate.of(2024, 7, 5), "00000000-0000-0000-0000-000000000001", PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of("00000000-0000-0000-0000-000000000002", "00000000-0000-0000-0000-000000000003"),
+                page.stream().map(Transaction::getId).toList());
+        assertFalse(entityManager.getEntityManager().contains(page.get(0)));
+    }
+
+    @Test
+    @DisplayName("stream - Should stream the range's rows in (value date, id) order")
+    void stream_ReturnsRowsInOrder() {
+        // Act
+        List<String> ids;
+        try (Stream<Transaction> rows = transactionRepository.streamByCustomerIdAndValueDateBetween(
+                "P-0123456789", START, END)) {
+            ids = rows.map(Transaction::getId).toList();
+        }
+
+        // Assert
+        assertEquals(List.of("00000000-0000-0000-0000-000000000001", "00000000-0000-0000-0000-000000000002",
+                "00000000-0000-0000-0000-000000000003"), ids);
+    }
+
+    @Test
+    @DisplayName("V3 migration - Should backfill the aggregates of months that have none")
+    void backfillMigration_AddsMissingMonths() throws Exception {
+        // Arrange
+        monthlyAggregateRepository.saveAndFlush(MonthlyAggregate.builder().customerId("P-0123456789")
+                .yearMonth("2024-08").currency("USD").creditTotal(new BigDecimal("99.00"))
+                .debitTotal(BigDecimal.ZERO).transactionCount(9).build());
+        String backfill = new ClassPathResource("db/migration/V3__backfill_monthly_aggregates.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        // Act
+        int inserted = jdbcTemplate.update(backfill.strip().replaceAll(";$", ""));
+
+        // Assert
+        assertEquals(1, inserted);
+        MonthlyAggregate july = monthlyAggregateRepository.findByCustomerIdAndYearMonth("P-0123456789", "2024-07").get(0);
+        assertEquals(0, new BigDecimal("40.00").compareTo(july.getCreditTotal()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(july.getDebitTotal()));
+        assertEquals(3, july.getTransactionCount());
+        assertEquals(9, monthlyAggregateRepository.findByCustomerIdAndYearMonth("P-0123456789", "2024-08").get(0)
+                .getTransactionCount());
+    }
+
+    private static Transaction transaction(String id, String amount, LocalDate valueDate) {
+        return Transaction.builder()
+                .id(id)
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .accountIban("CH93-0000-0000-0000-0000-0")
+                .valueDate(valueDate)
+                .description("Payment")
+                .customerId("P-0123456789")
+                .build();
+    }
+}
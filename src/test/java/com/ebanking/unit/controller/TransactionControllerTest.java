@@ -6,7 +6,9 @@ import com.ebanking.dto.AddTransactionResponse;
 import com.ebanking.dto.TransactionRequest;
 import com.ebanking.dto.TransactionResponse;
 import com.ebanking.service.KafkaTransactionProducer;
+import com.ebanking.service.TransactionResponseCache;
 import com.ebanking.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -18,6 +20,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,9 +33,14 @@ class TransactionControllerTest {
     @Mock
     private KafkaTransactionProducer kafkaProducer;
 
+    @Mock
+    private TransactionResponseCache transactionResponseCache;
+
     @InjectMocks
     private TransactionController controller;
 
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @Mock
     private Authentication authentication;
 
@@ -44,7 +52,8 @@ class TransactionControllerTest {
     }
 
     @Test
-    void getTransactions_ReturnsResponse() {
+    @SuppressWarnings("unchecked")
+    void getTransactions_ReturnsResponse() throws Exception {
         TransactionResponse mockResponse = TransactionResponse.builder()
                 .transactions(List.of())
                 .totalCredit(BigDecimal.ZERO)
@@ -61,12 +70,16 @@ class TransactionControllerTest {
         when(transactionService.getTransactions(eq("P-0123456789"), any(TransactionRequest.class)))
                 .thenReturn(mockResponse);
 
-        ResponseEntity<TransactionResponse> response = controller.getTransactions(
-                7, 2024, 0, 20, "USD"
+        when(transactionResponseCache.getOrRender(eq("P-0123456789"), any(TransactionRequest.class), any()))
+                .thenAnswer(invocation -> objectMapper.writeValueAsBytes(
+                        ((Supplier<TransactionResponse>) invocation.getArgument(2)).get()));
+
+        ResponseEntity<byte[]> response = controller.getTransactions(
+                7, 2024, 0, 20, true, null, "USD"
         );
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals("USD", response.getBody().getBaseCurrency());
+        assertEquals("USD", objectMapper.readValue(response.getBody(), TransactionResponse.class).getBaseCurrency());
         verify(transactionService).getTransactions(eq("P-0123456789"), any(TransactionRequest.class));
     }
 
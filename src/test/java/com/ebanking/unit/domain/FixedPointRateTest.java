@@ -0,0 +1,106 @@
+package com.ebanking.unit.domain;
+
+import com.ebanking.domain.FixedPointRate;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property tests proving fixed-point conversion rounds exactly like the BigDecimal reference.
+ */
+@Label("Fixed Point Rate Properties")
+class FixedPointRateTest {
+
+    @Property(tries = 1000)
+    @Label("multiply - Should match BigDecimal multiply and HALF_UP setScale for typical amounts and rates")
+    void multiply_MatchesBigDecimalReference(@ForAll("amounts") BigDecimal amount,
+                                             @ForAll("rates") BigDecimal rate,
+                                             @ForAll @IntRange(min = 0, max = 4) int resultScale) {
+        // Act
+        BigDecimal result = FixedPointRate.of(rate).multiply(amount, resultScale);
+
+        // Assert
+        assertEquals(amount.multiply(rate).setScale(resultScale, RoundingMode.HALF_UP), result);
+    }
+
+    @Property(tries = 1000)
+    @Label("multiply - Should fall back to BigDecimal and still match when longs overflow")
+    void multiply_Overflow_MatchesBigDecimalReference(@ForAll("largeAmounts") BigDecimal amount,
+                                                      @ForAll("derivedRates") BigDecimal rate) {
+        // Act
+        BigDecimal result = FixedPointRate.of(rate).multiply(amount, 2);
+
+        // Assert
+        assertEquals(amount.multiply(rate).setScale(2, RoundingMode.HALF_UP), result);
+    }
+
+    @Property(tries = 1000)
+    @Label("multiplyUnscaled - Should either overflow or agree with multiply")
+    void multiplyUnscaled_AgreesWithMultiply(@ForAll("largeAmounts") BigDecimal amount,
+                                             @ForAll("rates") BigDecimal rate) {
+        // Act
+        long unscaled = FixedPointRate.of(rate).multiplyUnscaled(amount, 2);
+
+        // Assert
+        if (unscaled != FixedPointRate.OVERFLOW) {
+            assertEquals(amount.multiply(rate).setScale(2, RoundingMode.HALF_UP), BigDecimal.valueOf(unscaled, 2));
+        }
+    }
+
+    @Example
+    @Label("multiply - Ties should round away from zero for both signs")
+    void multiply_Ties_RoundHalfUp() {
+        FixedPointRate rate = FixedPointRate.of(new BigDecimal("0.5"));
+
+        assertEquals(new BigDecimal("0.03"), rate.multiply(new BigDecimal("0.05"), 2));
+        assertEquals(new BigDecimal("-0.03"), rate.multiply(new BigDecimal("-0.05"), 2));
+    }
+
+    @Example
+    @Label("multiplyUnscaled - Product beyond a long should report overflow")
+    void multiplyUnscaled_ProductTooLarge_ReportsOverflow() {
+        FixedPointRate rate = FixedPointRate.of(new BigDecimal("0.8602150537634409"));
+
+        assertEquals(FixedPointRate.OVERFLOW, rate.multiplyUnscaled(new BigDecimal("12345678.90"), 2));
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> amounts() {
+        return Arbitraries.longs().between(-100_000_000_00L, 100_000_000_00L)
+                .flatMap(unscaled -> Arbitraries.integers().between(0, 3)
+                        .map(scale -> BigDecimal.valueOf(unscaled, scale)));
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> largeAmounts() {
+        return Arbitraries.bigIntegers().between(BigInteger.TEN.pow(12).negate(), BigInteger.TEN.pow(22))
+                .flatMap(unscaled -> Arbitraries.integers().between(0, 4)
+                        .map(scale -> new BigDecimal(unscaled, scale)));
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> rates() {
+        return Arbitraries.longs().between(1, 10_000_000_000L)
+                .flatMap(unscaled -> Arbitraries.integers().between(0, 10)
+                        .map(scale -> BigDecimal.valueOf(unscaled, scale)));
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> derivedRates() {
+        return Arbitraries.bigDecimals().between(new BigDecimal("0.0001"), new BigDecimal("10000"))
+                .ofScale(16)
+                .map(rate -> rate.round(new MathContext(16)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.ebanking.unit.domain;
+
+import com.ebanking.domain.MoneyTotal;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property tests proving fixed-point totals equal chained BigDecimal additions, scale included.
+ */
+@Label("Money Total Properties")
+class MoneyTotalTest {
+
+    @Property(tries = 500)
+    @Label("add - Should equal BigDecimal.ZERO plus every value, including the result scale")
+    void add_MatchesBigDecimalSum(@ForAll("values") List<BigDecimal> values) {
+        // Arrange
+        MoneyTotal total = new MoneyTotal();
+        BigDecimal expected = BigDecimal.ZERO;
+
+        // Act
+        for (BigDecimal value : values) {
+            total.add(value);
+            expected = expected.add(value);
+        }
+
+        // Assert
+        assertEquals(expected, total.toBigDecimal());
+    }
+
+    @Property(tries = 500)
+    @Label("add - Unscaled and BigDecimal additions should give the same total")
+    void addUnscaled_MatchesBigDecimalAdd(@ForAll("values") List<BigDecimal> values) {
+        // Arrange
+        MoneyTotal unscaledTotal = new MoneyTotal();
+        MoneyTotal decimalTotal = new MoneyTotal();
+
+        // Act
+        for (BigDecimal value : values) {
+            if (value.precision() <= 18) {
+                unscaledTotal.add(value.unscaledValue().longValue(), value.scale());
+            } else {
+                unscaledTotal.add(value);
+            }
+            decimalTotal.add(value);
+        }
+
+        // Assert
+        assertEquals(decimalTotal.toBigDecimal(), unscaledTotal.toBigDecimal());
+    }
+
+    @Example
+    @Label("add - Empty total should equal BigDecimal.ZERO")
+    void add_Empty_IsZero() {
+        assertEquals(BigDecimal.ZERO, new MoneyTotal().toBigDecimal());
+    }
+
+    @Example
+    @Label("add - Sum past Long.MAX_VALUE should continue in BigDecimal")
+    void add_Overflow_ContinuesInBigDecimal() {
+        // Arrange
+        MoneyTotal total = new MoneyTotal();
+
+        // Act
+        total.add(Long.MAX_VALUE, 2);
+        total.add(Long.MAX_VALUE, 2);
+        total.add(1, 3);
+
+        // Assert
+        BigDecimal max = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+        assertEquals(max.add(max).add(new BigDecimal("0.001")), total.toBigDecimal());
+    }
+
+    @Provide
+    Arbitrary<List<BigDecimal>> values() {
+        Arbitrary<BigDecimal> small = Arbitraries.longs().between(-1_000_000_00L, 1_000_000_00L)
+                .flatMap(unscaled -> Arbitraries.integers().between(0, 4)
+                        .map(scale -> BigDecimal.valueOf(unscaled, scale)));
+        Arbitrary<BigDecimal> huge = Arbitraries.longs()
+                .flatMap(unscaled -> Arbitraries.integers().between(-2, 20)
+                        .map(scale -> BigDecimal.valueOf(unscaled, scale)));
+        return Arbitraries.frequencyOf(
+                        Tuple.of(9, small),
+                        Tuple.of(1, huge))
+                .list().ofMaxSize(30);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ebanking.unit.domain;
+
+import com.ebanking.domain.CurrencyCodes;
+import com.ebanking.domain.RateMatrix;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rate Matrix Unit Tests")
+class RateMatrixTest {
+
+    private static final long DAY = LocalDate.of(2024, 7, 15).toEpochDay();
+
+    private static long key(String from, String to, long epochDay) {
+        return RateMatrix.key(CurrencyCodes.pack(from), CurrencyCodes.pack(to), epochDay);
+    }
+
+    @Test
+    @DisplayName("key - Pair direction and day should give distinct keys")
+    void key_DistinguishesDirectionAndDay() {
+        assertNotEquals(key("USD", "GBP", DAY), key("GBP", "USD", DAY));
+        assertNotEquals(key("USD", "GBP", DAY), key("USD", "GBP", DAY + 1));
+        assertEquals(key("USD", "GBP", DAY), key("usd", "gbp", DAY));
+    }
+
+    @Test
+    @DisplayName("pack - Non-letter or wrong-length codes should be invalid")
+    void pack_InvalidCodes_ReturnInvalid() {
+        assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack(null));
+        assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack("US"));
+        assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack("USDX"));
+        assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack("U$D"));
+        assertTrue(CurrencyCodes.pack("ZZZ") < (1 << CurrencyCodes.BITS));
+    }
+
+    @Test
+    @DisplayName("put - Should keep every entry across resizes and overwrite existing keys")
+    void put_ManyEntries_AllRetrievable() {
+        // Arrange
+        RateMatrix<Long> matrix = new RateMatrix<>(10_000);
+
+        // Act
+        for (long day = 0; day < 1000; day++) {
+            matrix.put(key("USD", "GBP", day), day);
+        }
+        matrix.put(key("USD", "GBP", 7), -7L);
+
+        // Assert
+        assertEquals(1000, matrix.size());
+        assertEquals(-7L, matrix.get(key("USD", "GBP", 7)));
+        assertEquals(999L, matrix.get(key("USD", "GBP", 999)));
+        assertNull(matrix.get(key("GBP", "USD", 5)));
+    }
+
+    @Test
+    @DisplayName("put - Should start over once the maximum size is reached")
+    void put_MaximumSizeReached_Clears() {
+        // Arrange
+        RateMatrix<String> matrix = new RateMatrix<>(2);
+        matrix.put(key("USD", "GBP", DAY), "a");
+        matrix.put(key("USD", "EUR", DAY), "b");
+
+        // Act
+        matrix.put(key("USD", "CHF", DAY), "c");
+
+        // Assert
+        assertEquals(1, matrix.size());
+        assertNull(matrix.get(key("USD", "GBP", DAY)));
+        assertEquals("c", matrix.get(key("USD", "CHF", DAY)));
+    }
+
+    @Test
+    @DisplayName("get - Lookups should not allocate")
+    void get_DoesNotAllocate() {
+        // Arrange
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        RateMatrix<String> matrix = new RateMatrix<>(1024);
+        for (long day = 0; day < 500; day++) {
+            matrix.put(key("USD", "GBP", DAY + day), "rate");
+        }
+        long threadId = Thread.currentThread().getId();
+        int hits = 0;
+
+        // Act
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            if (matrix.get(key("USD", "GBP", DAY + (i % 500))) != null) {
+                hits++;
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Assert
+        assertEquals(100_000, hits);
+        assertTrue(allocated < 1024, "lookups allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,176 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.domain.RateTable;
+import com.ebanking.service.provider.ExchangeRateProvider;
+import com.ebanking.service.provider.ExchangeRateProviderChain;
+import com.ebanking.service.provider.StaticExchangeRateProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Exchange Rate Provider Chain Unit Tests")
+class ExchangeRateProviderChainTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ExchangeRateProviderChain chain(ExchangeRateProvider... providers) {
+        ExchangeRateProviderChain chain = new ExchangeRateProviderChain(List.of(providers), meterRegistry, executor);
+        ReflectionTestUtils.setField(chain, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(chain, "initialHedgeDelay", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(chain, "minHedgeDelay", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(chain, "minLatencySamples", 20L);
+        ReflectionTestUtils.setField(chain, "maxWait", Duration.ofSeconds(5));
+        return chain;
+    }
+
+    private static RateTable table(String base, String currency, String rate) {
+        return new RateTable(base, LocalDate.now(), Map.of(currency, new BigDecimal(rate)), Instant.now());
+    }
+
+    @Test
+    @DisplayName("fetchRates - A slow primary should be hedged and the first answer should win")
+    void fetchRates_SlowPrimary_HedgedBySecondary() {
+        // Arrange
+        TestProvider primary = new TestProvider("primary", Duration.ofSeconds(2), table("USD", "GBP", "0.79"), false);
+        TestProvider secondary = new TestProvider("secondary", Duration.ZERO, table("USD", "GBP", "0.80"), false);
+        ExchangeRateProviderChain chain = chain(primary, secondary);
+
+        // Act
+        long start = System.nanoTime();
+        RateTable result = chain.fetchRates("USD", LocalDate.now());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(new BigDecimal("0.80"), result.rateOf("GBP"));
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "hedge should answer before the primary, took " + elapsed);
+        assertEquals(1.0, meterRegistry.get("exchange.rate.provider.hedges").tag("provider", "secondary").counter().count());
+        assertEquals(1.0, meterRegistry.get("exchange.rate.provider.wins").tag("provider", "secondary").counter().count());
+    }
+
+    @Test
+    @DisplayName("fetchRates - A fast primary should answer without asking the secondary")
+    void fetchRates_FastPrimary_NoHedge() {
+        // Arrange
+        TestProvider primary = new TestProvider("primary", Duration.ZERO, table("USD", "GBP", "0.79"), false);
+        TestProvider secondary = new TestProvider("secondary", Duration.ZERO, table("USD", "GBP", "0.80"), false);
+
+        // Act
+        RateTable result = chain(primary, secondary).fetchRates("USD", LocalDate.now());
+
+        // Assert
+        assertEquals(new BigDecimal("0.79"), result.rateOf("GBP"));
+        assertEquals(0, secondary.calls.get());
+    }
+
+    @Test
+    @DisplayName("fetchRates - A failed primary should fail over to the next provider without waiting to hedge")
+    void fetchRates_PrimaryFails_FailsOverImmediately() {
+        // Arrange
+        TestProvider primary = new TestProvider("primary", Duration.ZERO, null, false);
+        TestProvider secondary = new TestProvider("secondary", Duration.ZERO, table("USD", "GBP", "0.80"), false);
+        ExchangeRateProviderChain chain = chain(primary, secondary);
+        ReflectionTestUtils.setField(chain, "hedgeEnabled", false);
+
+        // Act
+        RateTable result = chain.fetchRates("USD", LocalDate.now());
+
+        // Assert
+        assertEquals(new BigDecimal("0.80"), result.rateOf("GBP"));
+        assertEquals(1, primary.calls.get());
+    }
+
+    @Test
+    @DisplayName("fetchRates - Past dates should only be asked of providers that serve history")
+    void fetchRates_PastDate_SkipsLatestOnlyProviders() {
+        // Arrange
+        TestProvider latestOnly = new TestProvider("latest", Duration.ZERO, table("USD", "GBP", "0.79"), false);
+        ExchangeRateProviderChain chain = chain(latestOnly);
+
+        // Act
+        RateTable result = chain.fetchRates("USD", LocalDate.now().minusDays(3));
+
+        // Assert
+        assertNull(result);
+        assertFalse(chain.supportsHistorical());
+        assertEquals(0, latestOnly.calls.get());
+    }
+
+    @Test
+    @DisplayName("fallbackRate - Should use the static table and 1:1 for unknown pairs, never as a hedge")
+    void fallbackRate_UsesStaticProvider() {
+        // Arrange
+        TestProvider primary = new TestProvider("primary", Duration.ZERO, null, false);
+        ExchangeRateProviderChain chain = chain(primary, new StaticExchangeRateProvider());
+
+        // Act & Assert
+        assertNull(chain.fetchRates("GBP", LocalDate.now()));
+        assertEquals(new BigDecimal("1.27"), chain.fallbackRate("GBP", "USD", LocalDate.now()));
+        assertEquals(BigDecimal.ONE, chain.fallbackRate("JPY", "USD", LocalDate.now()));
+    }
+
+    private static final class TestProvider implements ExchangeRateProvider {
+
+        private final String name;
+        private final Duration latency;
+        private final RateTable table;
+        private final boolean historical;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        TestProvider(String name, Duration latency, RateTable table, boolean historical) {
+            this.name = name;
+            this.latency = latency;
+            this.table = table;
+            this.historical = historical;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean supportsHistorical() {
+            return historical;
+        }
+
+        @Override
+        public RateTable fetchRates(String baseCurrency, LocalDate snapshotDate) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return table;
+        }
+    }
+}
@@ -1,22 +1,58 @@
 package com.ebanking.unit.service;
 
+import com.ebanking.domain.RateSnapshot;
+import com.ebanking.domain.RateTable;
+import com.ebanking.domain.Transaction;
 import com.ebanking.service.ExchangeRateService;
+import com.ebanking.service.ExchangeRateService.BatchConversion;
+import com.ebanking.service.ExchangeRateService.ConvertedAmount;
+import com.ebanking.service.RateHistoryStore;
+import com.ebanking.service.RatePublisherElectedEvent;
+import com.ebanking.service.RateTableFetchedEvent;
+import com.ebanking.service.RateTableRequestedEvent;
+import com.ebanking.service.provider.ExchangeRateProviderChain;
+import com.ebanking.service.provider.HttpExchangeRateProvider;
+import com.ebanking.service.provider.StaticExchangeRateProvider;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,13 +65,90 @@ class ExchangeRateServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
+    @Mock
+    private RateHistoryStore rateHistoryStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MeterRegistry meterRegistry;
+
     private ExchangeRateService exchangeRateService;
 
+    private CircuitBreaker circuitBreaker;
+
+    private HttpExchangeRateProvider httpProvider;
+
+    private ExchangeRateProviderChain providerChain;
+
+    private final AtomicLong tickerNanos = new AtomicLong();
+
+    /**
+     * Wall clock driven by the same counter as the cache ticker, so tests can move time forward.
+     */
+    private final Clock testClock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.EPOCH.plusNanos(tickerNanos.get());
+        }
+    };
+
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(exchangeRateService, "exchangeRateApiUrl", "https://api.exchangerate-api.com/v4/latest");
-        ReflectionTestUtils.setField(exchangeRateService, "timeout", 5000);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = CircuitBreaker.of("exchangeRateApi", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .slowCallDurationThreshold(Duration.ofMillis(50))
+                .slowCallRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMillis(100))
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build());
+        httpProvider = new HttpExchangeRateProvider(restTemplate, circuitBreaker);
+        ReflectionTestUtils.setField(httpProvider, "exchangeRateApiUrl", "https://api.exchangerate-api.com/v4/latest");
+        ReflectionTestUtils.setField(httpProvider, "clock", testClock);
+        // Background refreshes and provider calls run inline so tests stay deterministic
+        providerChain = new ExchangeRateProviderChain(List.of(httpProvider, new StaticExchangeRateProvider()),
+                meterRegistry, Runnable::run);
+        ReflectionTestUtils.setField(providerChain, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(providerChain, "initialHedgeDelay", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(providerChain, "minHedgeDelay", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(providerChain, "minLatencySamples", 20L);
+        ReflectionTestUtils.setField(providerChain, "maxWait", Duration.ofSeconds(10));
+        exchangeRateService = new ExchangeRateService(providerChain, meterRegistry, Runnable::run,
+                rateHistoryStore, eventPublisher);
+        ReflectionTestUtils.setField(exchangeRateService, "pivotCurrency", "USD");
+        ReflectionTestUtils.setField(exchangeRateService, "cacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(exchangeRateService, "rateMatrixSize", 1024);
+        ReflectionTestUtils.setField(exchangeRateService, "currentRateTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(exchangeRateService, "historicalRateTtl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(exchangeRateService, "loadWaitTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(exchangeRateService, "refreshEnabled", true);
+        ReflectionTestUtils.setField(exchangeRateService, "refreshAfter", Duration.ofMinutes(45));
+        ReflectionTestUtils.setField(exchangeRateService, "historyEnabled", true);
+        ReflectionTestUtils.setField(exchangeRateService, "historyPreloadDays", 7);
+        ReflectionTestUtils.setField(exchangeRateService, "ticker", (Ticker) tickerNanos::get);
+        ReflectionTestUtils.setField(exchangeRateService, "clock", testClock);
+        ReflectionTestUtils.invokeMethod(exchangeRateService, "initCache");
+    }
+
+    private Map<String, Object> ratesResponse(String currency, double rate) {
+        Map<String, Object> apiResponse = new HashMap<>();
+        Map<String, Object> rates = new HashMap<>();
+        rates.put(currency, rate);
+        apiResponse.put("rates", rates);
+        return apiResponse;
     }
 
     @Test
@@ -144,26 +257,40 @@ class ExchangeRateServiceTest {
     }
 
     @Test
-    @DisplayName("convertToBaseCurrency - Different date should use different cache key")
-    void convertToBaseCurrency_DifferentDate_UsesDifferentCacheKey() {
+    @DisplayName("convertToBaseCurrency - Different dates should share the latest rate table")
+    void convertToBaseCurrency_DifferentDate_SharesLatestTable() {
         // Arrange
         BigDecimal amount = new BigDecimal("100.00");
         LocalDate date1 = LocalDate.of(2024, 1, 1);
         LocalDate date2 = LocalDate.of(2024, 1, 2);
 
-        Map<String, Object> apiResponse1 = new HashMap<>();
-        Map<String, Object> rates1 = new HashMap<>();
-        rates1.put("GBP", 0.79);
-        apiResponse1.put("rates", rates1);
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.79));
 
-        Map<String, Object> apiResponse2 = new HashMap<>();
-        Map<String, Object> rates2 = new HashMap<>();
-        rates2.put("GBP", 0.80);
-        apiResponse2.put("rates", rates2);
+        // Act
+        BigDecimal result1 = exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date1);
+        BigDecimal result2 = exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date2);
+
+        // Assert
+        assertEquals(new BigDecimal("79.00"), result1);
+        assertEquals(new BigDecimal("79.00"), result2);
+
+        // The provider only serves "latest", so both dates are answered by one fetch
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convertToBaseCurrency - Different date should use different table when history is available")
+    void convertToBaseCurrency_DifferentDate_UsesDifferentCacheKeyWithHistoricalUrl() {
+        // Arrange
+        ReflectionTestUtils.setField(httpProvider, "historicalApiUrl", "https://rates.example/{date}?base={base}");
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate date1 = LocalDate.of(2024, 1, 1);
+        LocalDate date2 = LocalDate.of(2024, 1, 2);
 
         when(restTemplate.getForObject(anyString(), eq(Map.class)))
-                .thenReturn(apiResponse1)
-                .thenReturn(apiResponse2);
+                .thenReturn(ratesResponse("GBP", 0.79))
+                .thenReturn(ratesResponse("GBP", 0.80));
 
         // Act
         BigDecimal result1 = exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date1);
@@ -173,8 +300,60 @@ class ExchangeRateServiceTest {
         assertEquals(new BigDecimal("79.00"), result1);
         assertEquals(new BigDecimal("80.00"), result2);
 
-        // Verify API was called twice (once for each date)
-        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+        // Verify API was called twice (once for each date) with the historical URL
+        verify(restTemplate).getForObject(eq("https://rates.example/2024-01-01?base=USD"), eq(Map.class));
+        verify(restTemplate).getForObject(eq("https://rates.example/2024-01-02?base=USD"), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convertToBaseCurrency - One table fetch should serve every pair it quotes")
+    void convertToBaseCurrency_OneTable_ServesCrossRates() {
+        // Arrange
+        LocalDate date = LocalDate.now();
+        Map<String, Object> rates = new HashMap<>();
+        rates.put("GBP", 0.80);
+        rates.put("EUR", 0.90);
+        rates.put("CHF", 0.88);
+        Map<String, Object> apiResponse = new HashMap<>();
+        apiResponse.put("rates", rates);
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(apiResponse);
+
+        // Act
+        BigDecimal usdToGbp = exchangeRateService.convertToBaseCurrency(new BigDecimal("100.00"), "USD", "GBP", date);
+        BigDecimal eurToGbp = exchangeRateService.convertToBaseCurrency(new BigDecimal("90.00"), "EUR", "GBP", date);
+        BigDecimal gbpToUsd = exchangeRateService.convertToBaseCurrency(new BigDecimal("80.00"), "GBP", "USD", date);
+        BigDecimal chfToEur = exchangeRateService.convertToBaseCurrency(new BigDecimal("88.00"), "CHF", "EUR", date);
+
+        // Assert
+        assertEquals(new BigDecimal("80.00"), usdToGbp);
+        assertEquals(new BigDecimal("80.00"), eurToGbp);  // via USD pivot: 0.80 / 0.90
+        assertEquals(new BigDecimal("100.00"), gbpToUsd); // inverse of USD table
+        assertEquals(new BigDecimal("90.00"), chfToEur);  // via USD pivot: 0.90 / 0.88
+        verify(restTemplate, times(1)).getForObject(eq("https://api.exchangerate-api.com/v4/latest/USD"), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convertToBaseCurrency - Pair missing from the source table is triangulated through the pivot")
+    void convertToBaseCurrency_PairMissingFromSourceTable_UsesPivotTable() {
+        // Arrange
+        LocalDate date = LocalDate.now();
+        Map<String, Object> usdRates = new HashMap<>();
+        usdRates.put("GBP", 0.80);
+        usdRates.put("SEK", 10.0);
+        Map<String, Object> usdResponse = new HashMap<>();
+        usdResponse.put("rates", usdRates);
+
+        when(restTemplate.getForObject(eq("https://api.exchangerate-api.com/v4/latest/SEK"), eq(Map.class)))
+                .thenReturn(ratesResponse("EUR", 0.087));
+        when(restTemplate.getForObject(eq("https://api.exchangerate-api.com/v4/latest/USD"), eq(Map.class)))
+                .thenReturn(usdResponse);
+
+        // Act
+        BigDecimal result = exchangeRateService.convertToBaseCurrency(new BigDecimal("1000.00"), "SEK", "GBP", date);
+
+        // Assert
+        assertEquals(new BigDecimal("80.00"), result); // 0.80 / 10.0
     }
 
     @Test
@@ -312,4 +491,845 @@ class ExchangeRateServiceTest {
         // Assert
         assertEquals(new BigDecimal("0.01"), result); // Rounded to 2 decimal places
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("convertToBaseCurrency - Today's rate should expire after the current TTL")
+    void convertToBaseCurrency_CurrentRate_ExpiresAfterCurrentTtl() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate today = LocalDate.now();
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.79))
+                .thenReturn(ratesResponse("GBP", 0.80));
+
+        // Act
+        BigDecimal result1 = exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", today);
+        tickerNanos.addAndGet(Duration.ofMinutes(61).toNanos());
+        BigDecimal result2 = exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", today);
+
+        // Assert
+        assertEquals(new BigDecimal("79.00"), result1);
+        assertEquals(new BigDecimal("80.00"), result2);
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convertToBaseCurrency - Past-dated rate should outlive the current TTL")
+    void convertToBaseCurrency_HistoricalRate_KeptForHistoricalTtl() {
+        // Arrange
+        ReflectionTestUtils.setField(httpProvider, "historicalApiUrl", "https://rates.example/{date}?base={base}");
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate pastDate = LocalDate.of(2024, 1, 1);
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.79))
+                .thenReturn(ratesResponse("GBP", 0.80));
+
+        // Act
+        exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", pastDate);
+        tickerNanos.addAndGet(Duration.ofHours(2).toNanos());
+        BigDecimal stillCached = exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", pastDate);
+        tickerNanos.addAndGet(Duration.ofDays(7).toNanos());
+        BigDecimal reloaded = exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", pastDate);
+
+        // Assert
+        assertEquals(new BigDecimal("79.00"), stillCached);
+        assertEquals(new BigDecimal("80.00"), reloaded);
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convertToBaseCurrency - Cache hits and misses should be exported as metrics")
+    void convertToBaseCurrency_ShouldRecordCacheMetrics() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate date = LocalDate.now();
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.79));
+
+        // Act
+        exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date);
+        exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date);
+        exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "exchangeRates").tag("result", "miss").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets")
+                .tag("cache", "exchangeRates").tag("result", "hit").functionCounter().count());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", "exchangeRates").functionCounter());
+    }
+
+    @Test
+    @DisplayName("convertToBaseCurrency - Concurrent misses for the same pair should share one API call")
+    void convertToBaseCurrency_ConcurrentMisses_CoalescedIntoSingleFetch() throws Exception {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate date = LocalDate.now();
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(200);
+                    return ratesResponse("GBP", 0.79);
+                });
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            // Act
+            List<Future<BigDecimal>> results = IntStream.range(0, callers)
+                    .mapToObj(i -> pool.submit(() -> {
+                        start.await();
+                        return exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date);
+                    }))
+                    .toList();
+            start.countDown();
+
+            // Assert
+            for (Future<BigDecimal> result : results) {
+                assertEquals(new BigDecimal("79.00"), result.get(5, TimeUnit.SECONDS));
+            }
+            verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("convertToBaseCurrency - Waiter should time out on a slow in-flight load and use the mock rate")
+    void convertToBaseCurrency_SlowInFlightLoad_WaiterTimesOut() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(exchangeRateService, "loadWaitTimeout", Duration.ofMillis(50));
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate date = LocalDate.now();
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenAnswer(invocation -> {
+                    fetchStarted.countDown();
+                    releaseFetch.await(5, TimeUnit.SECONDS);
+                    return ratesResponse("GBP", 0.80);
+                });
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<BigDecimal> leader = pool.submit(
+                    () -> exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date));
+            assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+
+            // Act
+            BigDecimal waiterResult = exchangeRateService.convertToBaseCurrency(amount, "USD", "GBP", date);
+            releaseFetch.countDown();
+
+            // Assert
+            assertEquals(new BigDecimal("79.00"), waiterResult); // mock USD->GBP rate
+            assertEquals(new BigDecimal("80.00"), leader.get(5, TimeUnit.SECONDS));
+            assertEquals(1.0, meterRegistry.get("exchange.rate.load.wait.timeouts").counter().count());
+            verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("convert - Stale rate should be served and flagged while the table reloads")
+    void convert_StaleTable_ServedWhileRefreshing() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate today = LocalDate.now();
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.79))
+                .thenReturn(ratesResponse("GBP", 0.80));
+
+        // Act
+        ConvertedAmount fresh = exchangeRateService.convert(amount, "USD", "GBP", today);
+        tickerNanos.addAndGet(Duration.ofMinutes(50).toNanos());
+        ConvertedAmount stale = exchangeRateService.convert(amount, "USD", "GBP", today);
+        ConvertedAmount refreshed = exchangeRateService.convert(amount, "USD", "GBP", today);
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("79.00"), false), fresh);
+        assertEquals(new ConvertedAmount(new BigDecimal("79.00"), true), stale);
+        assertEquals(new ConvertedAmount(new BigDecimal("80.00"), false), refreshed);
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("refreshHotRateTables - Should reload hot tables before they expire")
+    void refreshHotRateTables_ReloadsHotTablesDueForRefresh() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate today = LocalDate.now();
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.79))
+                .thenReturn(ratesResponse("GBP", 0.80));
+
+        exchangeRateService.convert(amount, "USD", "GBP", today);
+
+        // Act - not due yet, then due
+        exchangeRateService.refreshHotRateTables();
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+        tickerNanos.addAndGet(Duration.ofMinutes(46).toNanos());
+        exchangeRateService.refreshHotRateTables();
+
+        // Assert - requests are served the reloaded table without touching the API
+        assertEquals(new ConvertedAmount(new BigDecimal("80.00"), false),
+                exchangeRateService.convert(amount, "USD", "GBP", today));
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("refreshHotRateTables - Should leave tables nobody reads to expire")
+    void refreshHotRateTables_SkipsColdTables() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.79));
+
+        exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", LocalDate.now());
+        tickerNanos.addAndGet(Duration.ofMinutes(46).toNanos());
+        exchangeRateService.refreshHotRateTables(); // reloads, table was read since it was loaded
+
+        // Act
+        tickerNanos.addAndGet(Duration.ofMinutes(46).toNanos());
+        exchangeRateService.refreshHotRateTables();
+
+        // Assert - the second pass found no reads since the last reload
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convert - Open circuit should fail fast to the fallback rate without calling the API")
+    void convert_CircuitOpenAfterFailures_FailsFast() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate date = LocalDate.now();
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        for (int i = 0; i < 4; i++) {
+            exchangeRateService.convert(amount, "USD", "GBP", date);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // Act
+        long start = System.nanoTime();
+        ConvertedAmount result = exchangeRateService.convert(amount, "USD", "GBP", date);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("79.00"), true), result); // mock USD->GBP rate
+        assertTrue(elapsedMillis < 50, "open circuit should not wait on the API");
+        verify(restTemplate, times(4)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convert - Slow API calls should open the circuit")
+    void convert_SlowCalls_OpenCircuit() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(60);
+                    return ratesResponse("JPY", 150.0);
+                });
+
+        // Act - four different base currencies, each a slow but successful fetch
+        for (String currency : new String[]{"USD", "EUR", "CHF", "SEK"}) {
+            exchangeRateService.convert(new BigDecimal("1.00"), currency, "JPY", LocalDate.now());
+        }
+        exchangeRateService.convert(new BigDecimal("1.00"), "NOK", "JPY", LocalDate.now());
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        verify(restTemplate, times(4)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convert - Circuit should close again after a successful half-open probe")
+    void convert_HalfOpenProbeSucceeds_ClosesCircuit() throws Exception {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate date = LocalDate.now();
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(ratesResponse("GBP", 0.80));
+
+        for (int i = 0; i < 4; i++) {
+            exchangeRateService.convert(amount, "USD", "GBP", date);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // Act
+        Thread.sleep(150);
+        ConvertedAmount result = exchangeRateService.convert(amount, "USD", "GBP", date);
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("80.00"), false), result);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        verify(restTemplate, times(5)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convert - Saturated load executor should fall back without calling the API")
+    void convert_LoadExecutorSaturated_FallsBackToMockRate() {
+        // Arrange
+        ExchangeRateService saturated = new ExchangeRateService(providerChain, meterRegistry,
+                task -> { throw new RejectedExecutionException("queue full"); }, rateHistoryStore, eventPublisher);
+        ReflectionTestUtils.setField(saturated, "pivotCurrency", "USD");
+        ReflectionTestUtils.setField(saturated, "cacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(saturated, "currentRateTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(saturated, "historicalRateTtl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(saturated, "loadWaitTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(saturated, "refreshAfter", Duration.ofMinutes(45));
+        ReflectionTestUtils.setField(saturated, "ticker", (Ticker) tickerNanos::get);
+        ReflectionTestUtils.setField(saturated, "clock", testClock);
+        ReflectionTestUtils.invokeMethod(saturated, "initCache");
+
+        // Act
+        ConvertedAmount result = saturated.convert(new BigDecimal("100.00"), "USD", "GBP", LocalDate.now());
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("79.00"), true), result); // mock USD->GBP rate
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    private Transaction transaction(String amount, String currency, LocalDate valueDate) {
+        return Transaction.builder()
+                .id(UUID.randomUUID().toString())
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .accountIban("CH93-0000-0000-0000-0000-0")
+                .valueDate(valueDate)
+                .description("Batch transaction")
+                .customerId("P-0123456789")
+                .build();
+    }
+
+    @Test
+    @DisplayName("convertAll - Should resolve each distinct currency once and total credits and debits")
+    void convertAll_GroupsByCurrency_ResolvesEachRateOnce() {
+        // Arrange
+        LocalDate date = LocalDate.now();
+        List<Transaction> transactions = List.of(
+                transaction("100.00", "USD", date),
+                transaction("-40.00", "USD", date.minusDays(3)),
+                transaction("50.00", "EUR", date),
+                transaction("-20.00", "EUR", date.minusDays(1)),
+                transaction("10.00", "GBP", date));
+
+        Map<String, Object> usdRates = ratesResponse("GBP", 0.80);
+        Map<String, Object> eurRates = ratesResponse("GBP", 0.86);
+        when(restTemplate.getForObject(eq("https://api.exchangerate-api.com/v4/latest/USD"), eq(Map.class)))
+                .thenReturn(usdRates);
+        when(restTemplate.getForObject(eq("https://api.exchangerate-api.com/v4/latest/EUR"), eq(Map.class)))
+                .thenReturn(eurRates);
+
+        // Act
+        BatchConversion result = exchangeRateService.convertAll(transactions, "GBP", true);
+
+        // Assert
+        assertEquals(new BigDecimal("133.00"), result.totalCredit()); // 80.00 + 43.00 + 10.00
+        assertEquals(new BigDecimal("49.20"), result.totalDebit());   // 32.00 + 17.20
+        assertFalse(result.stale());
+        assertEquals(List.of(new BigDecimal("80.00"), new BigDecimal("-32.00"), new BigDecimal("43.00"),
+                new BigDecimal("-17.20"), new BigDecimal("10.00")), result.convertedAmounts());
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+        assertEquals(2.0, meterRegistry.get("cache.gets")
+                .tag("cache", "exchangeRates").tag("result", "miss").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("cache.gets")
+                .tag("cache", "exchangeRates").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("convertAll - Totals should match the sum of single conversions")
+    void convertAll_TotalsMatchSingleConversions() {
+        // Arrange
+        LocalDate date = LocalDate.now();
+        List<Transaction> transactions = List.of(
+                transaction("33.33", "USD", date),
+                transaction("66.67", "USD", date),
+                transaction("-0.01", "USD", date));
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(ratesResponse("GBP", 0.7913));
+
+        // Act
+        BatchConversion batch = exchangeRateService.convertAll(transactions, "GBP", false);
+        BigDecimal singleCredit = exchangeRateService.convertToBaseCurrency(new BigDecimal("33.33"), "USD", "GBP", date)
+                .add(exchangeRateService.convertToBaseCurrency(new BigDecimal("66.67"), "USD", "GBP", date));
+        BigDecimal singleDebit = exchangeRateService.convertToBaseCurrency(new BigDecimal("-0.01"), "USD", "GBP", date).abs();
+
+        // Assert
+        assertEquals(singleCredit, batch.totalCredit());
+        assertEquals(singleDebit, batch.totalDebit());
+        assertTrue(batch.convertedAmounts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("convertTotals - Should convert each currency's sum once at the rate of the given date")
+    void convertTotals_ConvertsEachCurrencySumOnce() {
+        // Arrange
+        LocalDate date = LocalDate.now();
+        when(restTemplate.getForObject(eq("https://api.exchangerate-api.com/v4/latest/USD"), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.7913));
+        List<ExchangeRateService.CurrencyTotals> totals = List.of(
+                new ExchangeRateService.CurrencyTotals("USD", new BigDecimal("100.00"), new BigDecimal("0.01")),
+                new ExchangeRateService.CurrencyTotals("GBP", new BigDecimal("5.00"), BigDecimal.ZERO));
+
+        // Act
+        BatchConversion result = exchangeRateService.convertTotals(totals, "GBP", date);
+
+        // Assert
+        assertEquals(new BigDecimal("84.13"), result.totalCredit()); // 79.13 + 5.00
+        assertEquals(new BigDecimal("0.01"), result.totalDebit());   // 0.007913 rounded once
+        assertFalse(result.stale());
+        assertTrue(result.convertedAmounts().isEmpty());
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convertAll - Failed rate lookup should keep original amounts and flag the batch stale")
+    void convertAll_ApiUnavailable_FallsBackToMockRates() {
+        // Arrange
+        LocalDate date = LocalDate.now();
+        List<Transaction> transactions = List.of(
+                transaction("100.00", "USD", date),
+                transaction("200.00", "USD", date));
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act
+        BatchConversion result = exchangeRateService.convertAll(transactions, "GBP", false);
+
+        // Assert
+        assertEquals(new BigDecimal("237.00"), result.totalCredit()); // mock USD->GBP rate 0.79
+        assertTrue(result.stale());
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convert - Past value date should be resolved from the rate history without calling the API")
+    void convert_PastDateInHistory_UsesStoredRates() {
+        // Arrange
+        LocalDate pastDate = LocalDate.now().minusDays(30);
+        RateTable stored = new RateTable("USD", pastDate, Map.of("GBP", new BigDecimal("0.75")), Instant.EPOCH);
+        when(rateHistoryStore.hasRatesFor(pastDate)).thenReturn(true);
+        when(rateHistoryStore.find("USD", pastDate)).thenReturn(Optional.of(stored));
+
+        // Act
+        ConvertedAmount result = exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", pastDate);
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("75.00"), false), result);
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("convert - Tables fetched from the API should be written to the rate history")
+    void convert_FetchedTable_IsStoredInHistory() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(ratesResponse("GBP", 0.80));
+
+        // Act
+        exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", LocalDate.now());
+
+        // Assert
+        verify(rateHistoryStore).save(argThat(table -> "USD".equals(table.getBaseCurrency())
+                && new BigDecimal("0.8").equals(table.getRates().get("GBP"))));
+    }
+
+    @Test
+    @DisplayName("convert - Stale stored table should be preferred over mock rates when the API fails")
+    void convert_ApiFailsWithStaleHistory_UsesStoredTable() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        tickerNanos.set(TimeUnit.HOURS.toNanos(2));
+        RateTable stored = new RateTable("USD", today, Map.of("GBP", new BigDecimal("0.81")), Instant.EPOCH);
+        when(rateHistoryStore.find("USD", today)).thenReturn(Optional.of(stored));
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act
+        ConvertedAmount first = exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", today);
+        ConvertedAmount second = exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", today);
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("81.00"), true), first);
+        assertEquals(new ConvertedAmount(new BigDecimal("81.00"), true), second);
+        verify(rateHistoryStore, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("warmStartFromHistory - Stored tables should be served from the cache after startup")
+    void warmStartFromHistory_PreloadsCache() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        RateTable stored = new RateTable("USD", today, Map.of("GBP", new BigDecimal("0.80")), Instant.EPOCH);
+        when(rateHistoryStore.findSince(today.minusDays(7))).thenReturn(List.of(stored));
+
+        // Act
+        exchangeRateService.warmStartFromHistory();
+        ConvertedAmount result = exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", today);
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("80.00"), false), result);
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("convert - Past date missing the source table should triangulate through the stored pivot table")
+    void convert_PastDateWithoutSourceTable_UsesStoredPivot() {
+        // Arrange
+        LocalDate pastDate = LocalDate.now().minusDays(30);
+        RateTable pivot = new RateTable("USD", pastDate,
+                Map.of("EUR", new BigDecimal("0.80"), "GBP", new BigDecimal("0.60")), Instant.EPOCH);
+        when(rateHistoryStore.hasRatesFor(pastDate)).thenReturn(true);
+        when(rateHistoryStore.find("EUR", pastDate)).thenReturn(Optional.empty());
+        when(rateHistoryStore.find("USD", pastDate)).thenReturn(Optional.of(pivot));
+
+        // Act
+        ConvertedAmount result = exchangeRateService.convert(new BigDecimal("100.00"), "EUR", "GBP", pastDate);
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("75.00"), false), result);
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("convert - Derived pair rates should be dropped once their table expires")
+    void convert_TableExpired_RateMatrixEntryNotServed() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate today = LocalDate.now();
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.80))
+                .thenReturn(ratesResponse("GBP", 0.90));
+
+        exchangeRateService.convert(amount, "USD", "GBP", today);
+        ConvertedAmount cached = exchangeRateService.convert(amount, "USD", "GBP", today);
+
+        // Act
+        tickerNanos.addAndGet(Duration.ofHours(1).plusSeconds(1).toNanos());
+        ConvertedAmount reloaded = exchangeRateService.convert(amount, "USD", "GBP", today);
+
+        // Assert
+        assertEquals(new BigDecimal("80.00"), cached.amount());
+        assertEquals(new BigDecimal("90.00"), reloaded.amount());
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private long currentRateVersion() {
+        AtomicReference<RateSnapshot> snapshot =
+                (AtomicReference<RateSnapshot>) ReflectionTestUtils.getField(exchangeRateService, "rateSnapshot");
+        return snapshot.get().getVersion();
+    }
+
+    @Test
+    @DisplayName("convertAll - A refresh published mid-batch should not change the rates of that batch")
+    void convertAll_RefreshDuringBatch_UsesOneSnapshot() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.80))
+                .thenReturn(ratesResponse("GBP", 0.90));
+        exchangeRateService.convert(new BigDecimal("1.00"), "USD", "GBP", today);
+        tickerNanos.addAndGet(Duration.ofMinutes(46).toNanos()); // stale: the batch triggers a refresh
+        long versionBefore = currentRateVersion();
+
+        // Act
+        BatchConversion result = exchangeRateService.convertAll(List.of(
+                transaction("100.00", "USD", today),
+                transaction("50.00", "USD", today)), "GBP", false);
+
+        // Assert
+        assertEquals(new BigDecimal("120.00"), result.totalCredit());
+        assertEquals(versionBefore, result.rateVersion());
+        assertEquals(versionBefore + 1, currentRateVersion()); // refreshed table published for the next request
+        assertEquals(new BigDecimal("90.00"),
+                exchangeRateService.convertToBaseCurrency(new BigDecimal("100.00"), "USD", "GBP", today));
+    }
+
+    @Test
+    @DisplayName("convertAll - Tables loaded for the batch should be read from the newest snapshot")
+    void convertAll_MissingTables_ReportsVersionAfterLoads() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(restTemplate.getForObject(eq("https://api.exchangerate-api.com/v4/latest/USD"), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.80));
+        when(restTemplate.getForObject(eq("https://api.exchangerate-api.com/v4/latest/EUR"), eq(Map.class)))
+                .thenReturn(ratesResponse("GBP", 0.86));
+        long versionBefore = currentRateVersion();
+
+        // Act
+        BatchConversion result = exchangeRateService.convertAll(List.of(
+                transaction("100.00", "USD", today),
+                transaction("50.00", "EUR", today)), "GBP", false);
+
+        // Assert
+        assertEquals(new BigDecimal("123.00"), result.totalCredit());
+        assertFalse(result.stale());
+        assertEquals(versionBefore + 2, result.rateVersion());
+        assertEquals(currentRateVersion(), result.rateVersion());
+    }
+
+    @Test
+    @DisplayName("clearCache - Should publish an empty snapshot")
+    void clearCache_PublishesNewSnapshot() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(ratesResponse("GBP", 0.80));
+        exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", LocalDate.now());
+        long versionBefore = currentRateVersion();
+
+        // Act
+        exchangeRateService.clearCache();
+        exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", LocalDate.now());
+
+        // Assert
+        assertEquals(versionBefore + 2, currentRateVersion()); // cleared, then reloaded
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convert - Tables fetched from the API should be announced for the Kafka rate feed")
+    void convert_FetchedTable_PublishesFetchedEvent() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(ratesResponse("GBP", 0.80));
+        ArgumentCaptor<RateTableFetchedEvent> event = ArgumentCaptor.forClass(RateTableFetchedEvent.class);
+
+        // Act
+        exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", LocalDate.now());
+
+        // Assert
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("USD", event.getValue().table().getBaseCurrency());
+        assertEquals(new BigDecimal("0.8"), event.getValue().table().rateOf("GBP"));
+    }
+
+    @Test
+    @DisplayName("applyPublishedTable - Published tables should be served without calling the API")
+    void applyPublishedTable_ServedFromCache() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        RateTable published = new RateTable("USD", today, Map.of("GBP", new BigDecimal("0.80")), testClock.instant());
+        long versionBefore = currentRateVersion();
+
+        // Act
+        boolean applied = exchangeRateService.applyPublishedTable(published);
+        ConvertedAmount result = exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", today);
+
+        // Assert
+        assertTrue(applied);
+        assertEquals(new ConvertedAmount(new BigDecimal("80.00"), false), result);
+        assertEquals(versionBefore + 1, currentRateVersion());
+        verify(restTemplate, never()).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("applyPublishedTable - A replayed older table should not replace a newer one")
+    void applyPublishedTable_OlderTable_Ignored() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        Instant fetchedAt = testClock.instant();
+        exchangeRateService.applyPublishedTable(
+                new RateTable("USD", today, Map.of("GBP", new BigDecimal("0.80")), fetchedAt));
+
+        // Act
+        boolean applied = exchangeRateService.applyPublishedTable(
+                new RateTable("USD", today, Map.of("GBP", new BigDecimal("0.70")), fetchedAt.minusSeconds(60)));
+
+        // Assert
+        assertFalse(applied);
+        assertEquals(new BigDecimal("80.00"),
+                exchangeRateService.convertToBaseCurrency(new BigDecimal("100.00"), "USD", "GBP", today));
+    }
+
+    @Test
+    @DisplayName("refreshHotRateTables - Only the elected publisher should refresh when the Kafka feed is enabled")
+    void refreshHotRateTables_KafkaFeed_OnlyElectedPublisherRefreshes() {
+        // Arrange
+        ReflectionTestUtils.setField(exchangeRateService, "kafkaFeedEnabled", true);
+        ReflectionTestUtils.invokeMethod(exchangeRateService, "initCache");
+        LocalDate today = LocalDate.now();
+        exchangeRateService.applyPublishedTable(
+                new RateTable("USD", today, Map.of("GBP", new BigDecimal("0.79")), testClock.instant()));
+        tickerNanos.addAndGet(Duration.ofMinutes(46).toNanos());
+
+        // Act - a follower serves the stale table and leaves the refresh to the publisher
+        ConvertedAmount stale = exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", today);
+        exchangeRateService.refreshHotRateTables();
+        verify(restTemplate, never()).getForObject(anyString(), eq(Map.class));
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(ratesResponse("GBP", 0.80));
+        exchangeRateService.onPublisherElection(new RatePublisherElectedEvent(true));
+        exchangeRateService.refreshHotRateTables();
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("79.00"), true), stale);
+        assertTrue(exchangeRateService.isRefreshOwner());
+        assertEquals(new ConvertedAmount(new BigDecimal("80.00"), false),
+                exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", today));
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convert - A follower should ask the publisher for a missing table instead of calling the provider")
+    void convert_KafkaFeedFollower_WaitsForPublishedTable() {
+        // Arrange
+        ReflectionTestUtils.setField(exchangeRateService, "kafkaFeedEnabled", true);
+        ReflectionTestUtils.setField(exchangeRateService, "publishedTableWaitTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.invokeMethod(exchangeRateService, "initCache");
+        LocalDate today = LocalDate.now();
+        // The publisher answers the request on the topic
+        doAnswer(invocation -> exchangeRateService.applyPublishedTable(
+                new RateTable("USD", today, Map.of("GBP", new BigDecimal("0.79")), testClock.instant())))
+                .when(eventPublisher).publishEvent(any(RateTableRequestedEvent.class));
+
+        // Act
+        ConvertedAmount converted = exchangeRateService.convert(new BigDecimal("100.00"), "USD", "GBP", today);
+
+        // Assert
+        assertEquals(new ConvertedAmount(new BigDecimal("79.00"), false), converted);
+        verify(eventPublisher).publishEvent(new RateTableRequestedEvent("USD", today));
+        verify(restTemplate, never()).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("convert - A follower should fall back without calling the provider when no table is published")
+    void convert_KafkaFeedFollower_NoAnswer_FallsBack() {
+        // Arrange
+        ReflectionTestUtils.setField(exchangeRateService, "kafkaFeedEnabled", true);
+        ReflectionTestUtils.setField(exchangeRateService, "publishedTableWaitTimeout", Duration.ofMillis(20));
+        ReflectionTestUtils.invokeMethod(exchangeRateService, "initCache");
+
+        // Act
+        ConvertedAmount converted = exchangeRateService.convert(new BigDecimal("100.00"), "EUR", "GBP", LocalDate.now());
+
+        // Assert
+        assertTrue(converted.stale());
+        verify(eventPublisher, atLeastOnce()).publishEvent(any(RateTableRequestedEvent.class));
+        verify(restTemplate, never()).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("serveRequestedTable - The elected publisher should load a requested table and put it on the topic")
+    void serveRequestedTable_ElectedPublisher_PublishesTable() {
+        // Arrange
+        ReflectionTestUtils.setField(exchangeRateService, "kafkaFeedEnabled", true);
+        ReflectionTestUtils.invokeMethod(exchangeRateService, "initCache");
+        LocalDate today = LocalDate.now();
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(ratesResponse("GBP", 0.80));
+
+        // Act - ignored until elected, then loaded once and republished from the cache
+        exchangeRateService.serveRequestedTable("USD", today);
+        exchangeRateService.onPublisherElection(new RatePublisherElectedEvent(true));
+        exchangeRateService.serveRequestedTable("usd", today);
+        exchangeRateService.serveRequestedTable("USD", today);
+
+        // Assert
+        ArgumentCaptor<RateTableFetchedEvent> published = ArgumentCaptor.forClass(RateTableFetchedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(published.capture());
+        assertEquals(List.of("USD", "USD"), published.getAllValues().stream().map(e -> e.table().getBaseCurrency()).toList());
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    @DisplayName("getRateVersion - A month's version should only move with the tables its days are converted with")
+    void getRateVersion_OnlyMovesWithTheMonthsTables() {
+        // Arrange - June is settled in the history, other past days map to today's tables
+        YearMonth june = YearMonth.of(2024, 6);
+        YearMonth may = YearMonth.of(2024, 5);
+        when(rateHistoryStore.hasRatesFor(any())).thenAnswer(invocation -> YearMonth.from(invocation.<LocalDate>getArgument(0)).equals(june));
+        long juneBefore = exchangeRateService.getRateVersion(june);
+        long mayBefore = exchangeRateService.getRateVersion(may);
+
+        // Act
+        exchangeRateService.applyPublishedTable(
+                new RateTable("USD", LocalDate.now(), Map.of("GBP", new BigDecimal("0.79")), testClock.instant()));
+        long juneAfterToday = exchangeRateService.getRateVersion(june);
+        long mayAfterToday = exchangeRateService.getRateVersion(may);
+        exchangeRateService.applyPublishedTable(
+                new RateTable("USD", june.atDay(10), Map.of("GBP", new BigDecimal("0.78")), testClock.instant()));
+
+        // Assert
+        assertEquals(juneBefore, juneAfterToday);
+        assertNotEquals(mayBefore, mayAfterToday);
+        assertNotEquals(juneAfterToday, exchangeRateService.getRateVersion(june));
+    }
+
+    @Test
+    @DisplayName("prewarmRateTables - Should load configured tables at startup and gate readiness on them")
+    void prewarmRateTables_LoadsConfiguredCurrencies() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(exchangeRateService, "prewarmEnabled", true);
+        ReflectionTestUtils.setField(exchangeRateService, "prewarmCurrencies", List.of("usd", "GBP"));
+        ReflectionTestUtils.setField(exchangeRateService, "prewarmTimeout", Duration.ofSeconds(5));
+        when(restTemplate.getForObject(contains("/USD"), eq(Map.class))).thenReturn(ratesResponse("GBP", 0.80));
+        when(restTemplate.getForObject(contains("/GBP"), eq(Map.class))).thenReturn(ratesResponse("USD", 1.25));
+        assertFalse(exchangeRateService.isWarmedUp());
+
+        // Act
+        exchangeRateService.prewarmRateTables();
+        exchangeRateService.getWarmup().get(5, TimeUnit.SECONDS);
+
+        // Assert - both directions are served from the cache
+        assertTrue(exchangeRateService.isWarmedUp());
+        assertEquals(new BigDecimal("80.00"),
+                exchangeRateService.convertToBaseCurrency(new BigDecimal("100.00"), "USD", "GBP", LocalDate.now()));
+        assertEquals(new BigDecimal("125.00"),
+                exchangeRateService.convertToBaseCurrency(new BigDecimal("100.00"), "GBP", "USD", LocalDate.now()));
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("prewarmRateTables - Failed loads should not keep the instance out of service")
+    void prewarmRateTables_ApiUnavailable_StillReady() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(exchangeRateService, "prewarmEnabled", true);
+        ReflectionTestUtils.setField(exchangeRateService, "prewarmCurrencies", List.of("USD", "EUR"));
+        ReflectionTestUtils.setField(exchangeRateService, "prewarmTimeout", Duration.ofSeconds(5));
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenThrow(new ResourceAccessException("down"));
+
+        // Act
+        exchangeRateService.prewarmRateTables();
+        exchangeRateService.getWarmup().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(exchangeRateService.isWarmedUp());
+    }
+
+    @Test
+    @DisplayName("prewarmRateTables - A slow provider should only hold readiness back until the timeout")
+    void prewarmRateTables_SlowProvider_ReadyAfterTimeout() throws Exception {
+        // Arrange - loads never complete
+        ExchangeRateService stuck = new ExchangeRateService(providerChain, meterRegistry, task -> { },
+                rateHistoryStore, eventPublisher);
+        ReflectionTestUtils.setField(stuck, "cacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(stuck, "rateMatrixSize", 1024);
+        ReflectionTestUtils.setField(stuck, "currentRateTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(stuck, "historicalRateTtl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(stuck, "refreshAfter", Duration.ofMinutes(45));
+        ReflectionTestUtils.setField(stuck, "prewarmEnabled", true);
+        ReflectionTestUtils.setField(stuck, "prewarmCurrencies", List.of("USD"));
+        ReflectionTestUtils.setField(stuck, "prewarmTimeout", Duration.ofMillis(100));
+        ReflectionTestUtils.invokeMethod(stuck, "initCache");
+
+        // Act
+        stuck.prewarmRateTables();
+        boolean readyAtOnce = stuck.isWarmedUp();
+        stuck.getWarmup().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertFalse(readyAtOnce);
+        assertTrue(stuck.isWarmedUp());
+    }
+}
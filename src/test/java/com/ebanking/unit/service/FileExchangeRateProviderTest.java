@@ -0,0 +1,81 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.domain.RateTable;
+import com.ebanking.service.provider.FileExchangeRateProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("File Exchange Rate Provider Unit Tests")
+class FileExchangeRateProviderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("fetchRates - Should serve the newest table on or before the requested date")
+    void fetchRates_ServesNewestTableOnOrBeforeDate() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("rates.csv");
+        Files.writeString(file, """
+                date,base,currency,rate
+                2024-07-01,USD,GBP,0.78
+                2024-07-10,USD,GBP,0.79
+                2024-07-20,USD,GBP,0.80
+                """);
+        FileExchangeRateProvider provider = new FileExchangeRateProvider();
+        ReflectionTestUtils.setField(provider, "ratesFile", file.toString());
+
+        // Act
+        RateTable table = provider.fetchRates("USD", LocalDate.of(2024, 7, 15));
+
+        // Assert
+        assertEquals(LocalDate.of(2024, 7, 15), table.getSnapshotDate());
+        assertEquals(new BigDecimal("0.79"), table.rateOf("GBP"));
+        assertNull(provider.fetchRates("EUR", LocalDate.of(2024, 7, 15)));
+        assertNull(provider.fetchRates("USD", LocalDate.of(2024, 6, 1)));
+    }
+
+    @Test
+    @DisplayName("fetchRates - Should re-read the file when it changes")
+    void fetchRates_FileChanged_Reloads() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("rates.csv");
+        Files.writeString(file, "2024-07-10,USD,GBP,0.79\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-07-10T12:00:00Z")));
+        FileExchangeRateProvider provider = new FileExchangeRateProvider();
+        ReflectionTestUtils.setField(provider, "ratesFile", file.toString());
+        provider.fetchRates("USD", LocalDate.of(2024, 7, 10));
+
+        // Act
+        Files.writeString(file, "2024-07-10,USD,GBP,0.81\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-07-10T13:00:00Z")));
+        RateTable table = provider.fetchRates("USD", LocalDate.of(2024, 7, 10));
+
+        // Assert
+        assertEquals(new BigDecimal("0.81"), table.rateOf("GBP"));
+        assertEquals(Instant.parse("2024-07-10T13:00:00Z"), table.getFetchedAt());
+    }
+
+    @Test
+    @DisplayName("fetchRates - Should not answer when no file is configured")
+    void fetchRates_NoFile_ReturnsNull() {
+        // Arrange
+        FileExchangeRateProvider provider = new FileExchangeRateProvider();
+        ReflectionTestUtils.setField(provider, "ratesFile", "");
+
+        // Act & Assert
+        assertNull(provider.fetchRates("USD", LocalDate.now()));
+        assertFalse(provider.supportsHistorical());
+    }
+}
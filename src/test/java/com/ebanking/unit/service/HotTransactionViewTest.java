@@ -0,0 +1,217 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.domain.Transaction;
+import com.ebanking.repository.TransactionRepository;
+import com.ebanking.service.ExchangeRateService.CurrencyTotals;
+import com.ebanking.service.HotTransactionView;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Hot Transaction View Unit Tests")
+class HotTransactionViewTest {
+
+    private static final String CUSTOMER = "P-0123456789";
+    private static final YearMonth JULY = YearMonth.of(2024, 7);
+    private static final YearMonth JUNE = YearMonth.of(2024, 6);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @InjectMocks
+    private HotTransactionView hotTransactionView;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hotTransactionView, "enabled", true);
+        ReflectionTestUtils.setField(hotTransactionView, "maxSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(hotTransactionView, "recentMonths", 2);
+        ReflectionTestUtils.setField(hotTransactionView, "maxMonthRows", 4);
+        ReflectionTestUtils.setField(hotTransactionView, "admitAfterRequests", 2);
+        ReflectionTestUtils.setField(hotTransactionView, "maxAge", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(hotTransactionView, "clock",
+                Clock.fixed(Instant.parse("2024-07-20T10:00:00Z"), ZoneOffset.UTC));
+        ReflectionTestUtils.setField(hotTransactionView, "ticker", (Ticker) nanos::get);
+        ReflectionTestUtils.invokeMethod(hotTransactionView, "initCache");
+    }
+
+    @Test
+    @DisplayName("getMonth - Should load a month on its second request and serve it from memory after")
+    void getMonth_AdmittedOnSecondRequest_ThenServedFromMemory() {
+        // Arrange
+        stubMonth(JULY, false, transaction("b", "2024-07-10", "-5.00"), transaction("a", "2024-07-02", "20.00"));
+
+        // Act
+        HotTransactionView.MonthView first = hotTransactionView.getMonth(CUSTOMER, JULY);
+        HotTransactionView.MonthView second = hotTransactionView.getMonth(CUSTOMER, JULY);
+        HotTransactionView.MonthView third = hotTransactionView.getMonth(CUSTOMER, JULY);
+
+        // Assert
+        assertNull(first);
+        assertNotNull(second);
+        assertSame(second, third);
+        assertEquals(2, third.size());
+        verify(transactionRepository, times(1)).findSliceByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getMonth - Should not hold months that are not recent or too large")
+    void getMonth_OldOrTooLargeMonth_ReturnsNull() {
+        // Arrange
+        stubMonth(JUNE, true, transaction("a", "2024-06-01", "1.00"), transaction("b", "2024-06-02", "1.00"),
+                transaction("c", "2024-06-03", "1.00"));
+
+        // Act & Assert
+        assertNull(hotTransactionView.getMonth(CUSTOMER, YearMonth.of(2024, 5)));
+        assertNull(hotTransactionView.getMonth(CUSTOMER, YearMonth.of(2024, 5)));
+        hotTransactionView.getMonth(CUSTOMER, JUNE);
+        assertNull(hotTransactionView.getMonth(CUSTOMER, JUNE));
+        assertNull(hotTransactionView.getMonth(CUSTOMER, JUNE));
+        verify(transactionRepository, times(1)).findSliceByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("apply - Should keep resident months in value date order, moving corrected transactions")
+    void apply_UpdatesResidentMonths() {
+        // Arrange
+        stubMonth(JULY, false, transaction("a", "2024-07-02", "20.00"));
+        stubMonth(JUNE, false, transaction("m", "2024-06-30", "7.00"));
+        load(JULY);
+        load(JUNE);
+
+        // Act
+        hotTransactionView.apply(transaction("c", "2024-07-15", "-5.00"));
+        hotTransactionView.apply(transaction("b", "2024-07-02", "3.00"));
+        hotTransactionView.apply(transaction("m", "2024-07-01", "7.00"));
+        hotTransactionView.apply(transaction("c", "2024-07-16", "-6.00"));
+
+        // Assert
+        assertEquals(List.of("m", "a", "b", "c"), ids(hotTransactionView.getMonth(CUSTOMER, JULY).page(0, 10)));
+        assertEquals(new BigDecimal("-6.00"), hotTransactionView.getMonth(CUSTOMER, JULY).page(3, 1).get(0).getAmount());
+        assertEquals(0, hotTransactionView.getMonth(CUSTOMER, JUNE).size());
+        assertEquals(List.of("b", "c"), ids(hotTransactionView.getMonth(CUSTOMER, JULY)
+                .after(LocalDate.of(2024, 7, 2), "a", 10)));
+    }
+
+    @Test
+    @DisplayName("apply - Should not keep a month loaded while a transaction of its customer was stored")
+    void apply_DuringLoad_DiscardsLoadedMonth() {
+        // Arrange
+        hotTransactionView.getMonth(CUSTOMER, JULY);
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(eq(CUSTOMER), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    // Stored after the load read the month, before it is kept
+                    hotTransactionView.apply(transaction("late", "2024-07-05", "1.00"));
+                    return new SliceImpl<>(List.of(transaction("a", "2024-07-02", "20.00")));
+                });
+
+        // Act
+        hotTransactionView.getMonth(CUSTOMER, JULY);
+        hotTransactionView.getMonth(CUSTOMER, JULY);
+
+        // Assert
+        verify(transactionRepository, times(2)).findSliceByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getMonth - Should not load months while the view is disabled")
+    void getMonth_Disabled_ReturnsNull() {
+        // Arrange
+        ReflectionTestUtils.setField(hotTransactionView, "enabled", false);
+
+        // Act
+        HotTransactionView.MonthView first = hotTransactionView.getMonth(CUSTOMER, JULY);
+        HotTransactionView.MonthView second = hotTransactionView.getMonth(CUSTOMER, JULY);
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("getMonth - Should reload a resident month from the database after max-age")
+    void getMonth_AfterMaxAge_Reloads() {
+        // Arrange
+        stubMonth(JULY, false, transaction("a", "2024-07-02", "20.00"));
+        load(JULY);
+
+        // Act
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        HotTransactionView.MonthView reloaded = hotTransactionView.getMonth(CUSTOMER, JULY);
+
+        // Assert
+        assertNotNull(reloaded);
+        verify(transactionRepository, times(2)).findSliceByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("currencyTotals - Should sum credits and debits per currency")
+    void currencyTotals_SumsPerCurrency() {
+        // Arrange
+        stubMonth(JULY, false, transaction("a", "2024-07-02", "20.00"), transaction("b", "2024-07-03", "-5.50"));
+        HotTransactionView.MonthView month = load(JULY);
+
+        // Act
+        List<CurrencyTotals> totals = month.currencyTotals();
+
+        // Assert
+        assertEquals(List.of(new CurrencyTotals("USD", new BigDecimal("20.00"), new BigDecimal("5.50"))), totals);
+    }
+
+    private HotTransactionView.MonthView load(YearMonth month) {
+        hotTransactionView.getMonth(CUSTOMER, month);
+        return hotTransactionView.getMonth(CUSTOMER, month);
+    }
+
+    private void stubMonth(YearMonth month, boolean hasNext, Transaction... rows) {
+        List<Transaction> sorted = Arrays.stream(rows)
+                .sorted(Comparator.comparing(Transaction::getValueDate).thenComparing(Transaction::getId))
+                .toList();
+        lenient().when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                        CUSTOMER, month.atDay(1), month.atEndOfMonth(), PageRequest.of(0, 4)))
+                .thenReturn(new SliceImpl<>(sorted, PageRequest.of(0, 4), hasNext));
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+
+    private static Transaction transaction(String id, String valueDate, String amount) {
+        return Transaction.builder()
+                .id(id)
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .valueDate(LocalDate.parse(valueDate))
+                .customerId(CUSTOMER)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.domain.RateTable;
+import com.ebanking.service.KafkaExchangeRatePublisher;
+import com.ebanking.service.RatePublisherElectedEvent;
+import com.ebanking.service.RateTableFetchedEvent;
+import com.ebanking.service.RateTableRequestedEvent;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Kafka Exchange Rate Publisher Unit Tests")
+class KafkaExchangeRatePublisherTest {
+
+    private static final String TOPIC = "exchange-rates";
+    private static final String REQUEST_TOPIC = "exchange-rate-requests";
+
+    @Mock
+    private KafkaTemplate<String, RateTable> rateTableKafkaTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Consumer<?, ?> consumer;
+
+    private KafkaExchangeRatePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new KafkaExchangeRatePublisher(rateTableKafkaTemplate, eventPublisher);
+        ReflectionTestUtils.setField(publisher, "topicName", TOPIC);
+        ReflectionTestUtils.setField(publisher, "requestTopicName", REQUEST_TOPIC);
+    }
+
+    @Test
+    @DisplayName("onRateTableFetched - Should publish the table keyed by base currency and date")
+    void onRateTableFetched_SendsCompactionKeyedRecord() {
+        // Arrange
+        RateTable table = new RateTable("USD", LocalDate.of(2024, 7, 15),
+                Map.of("GBP", new BigDecimal("0.79")), Instant.now());
+        when(rateTableKafkaTemplate.send(any(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        publisher.onRateTableFetched(new RateTableFetchedEvent(table));
+
+        // Assert
+        verify(rateTableKafkaTemplate).send(TOPIC, "USD:2024-07-15", table);
+    }
+
+    @Test
+    @DisplayName("onRateTableRequested - Should send the table key to the request topic")
+    void onRateTableRequested_SendsKeyOnly() {
+        // Arrange
+        LocalDate date = LocalDate.of(2024, 7, 15);
+        when(rateTableKafkaTemplate.send(any(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        publisher.onRateTableRequested(new RateTableRequestedEvent("USD", date));
+
+        // Assert
+        verify(rateTableKafkaTemplate).send(REQUEST_TOPIC, "USD:2024-07-15", null);
+        assertEquals(new RateTableRequestedEvent("USD", date), KafkaExchangeRatePublisher.parseKey("USD:2024-07-15"));
+    }
+
+    @Test
+    @DisplayName("onPartitionsAssigned - Instance holding partition 0 should become the publisher")
+    void onPartitionsAssigned_ElectionPartition_ElectsInstance() {
+        // Arrange
+        List<TopicPartition> partitions = List.of(new TopicPartition(TOPIC, 0));
+
+        // Act
+        publisher.onPartitionsAssigned(consumer, partitions);
+
+        // Assert
+        verify(consumer).seekToEnd(partitions);
+        verify(eventPublisher).publishEvent(new RatePublisherElectedEvent(true));
+    }
+
+    @Test
+    @DisplayName("onPartitionsRevokedBeforeCommit - Losing partition 0 should step down")
+    void onPartitionsRevoked_ElectionPartition_StepsDown() {
+        // Act
+        publisher.onPartitionsRevokedBeforeCommit(consumer, List.of(new TopicPartition(TOPIC, 0)));
+
+        // Assert
+        verify(eventPublisher).publishEvent(new RatePublisherElectedEvent(false));
+    }
+
+    @Test
+    @DisplayName("onPartitionsAssigned - Other partitions should not elect the instance")
+    void onPartitionsAssigned_OtherTopic_NoElection() {
+        // Act
+        publisher.onPartitionsAssigned(consumer, List.of(new TopicPartition("transactions", 0)));
+
+        // Assert
+        verifyNoInteractions(eventPublisher);
+    }
+}
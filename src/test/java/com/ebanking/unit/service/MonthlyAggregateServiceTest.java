@@ -0,0 +1,194 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.domain.MonthlyAggregate;
+import com.ebanking.domain.Transaction;
+import com.ebanking.repository.MonthlyAggregateRepository;
+import com.ebanking.repository.TransactionRepository;
+import com.ebanking.repository.TransactionRepository.MonthlyTotals;
+import com.ebanking.service.MonthlyAggregateService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Monthly Aggregate Service Unit Tests")
+class MonthlyAggregateServiceTest {
+
+    @Mock
+    private MonthlyAggregateRepository monthlyAggregateRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private MonthlyAggregateService monthlyAggregateService;
+
+    @Test
+    @DisplayName("add - Should add a credit to the existing row of its month")
+    void add_Credit_UpdatesExistingRow() {
+        // Arrange
+        when(monthlyAggregateRepository.addTo(any(), any(), any(), any(), any(), anyLong())).thenReturn(1);
+
+        // Act
+        monthlyAggregateService.add(transaction("150.25", "usd"));
+
+        // Assert
+        verify(monthlyAggregateRepository).addTo("P-0123456789", "2024-07", "USD",
+                new BigDecimal("150.25"), BigDecimal.ZERO, 1);
+        verify(monthlyAggregateRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("add - Should create the row of a month's first transaction, then add to it")
+    void add_FirstOfMonth_CreatesRow() {
+        // Arrange
+        when(monthlyAggregateRepository.addTo(any(), any(), any(), any(), any(), anyLong())).thenReturn(0, 1);
+
+        // Act
+        monthlyAggregateService.add(transaction("-40.00", "EUR"));
+
+        // Assert
+        ArgumentCaptor<MonthlyAggregate> created = ArgumentCaptor.forClass(MonthlyAggregate.class);
+        verify(monthlyAggregateRepository).saveAndFlush(created.capture());
+        assertEquals("2024-07", created.getValue().getYearMonth());
+        assertEquals(0, created.getValue().getTransactionCount());
+        verify(monthlyAggregateRepository, times(2)).addTo("P-0123456789", "2024-07", "EUR",
+                BigDecimal.ZERO, new BigDecimal("40.00"), 1);
+    }
+
+    @Test
+    @DisplayName("add - Should add to the row another writer created first")
+    void add_ConcurrentCreate_AddsToWinnersRow() {
+        // Arrange
+        when(monthlyAggregateRepository.addTo(any(), any(), any(), any(), any(), anyLong())).thenReturn(0, 1);
+        when(monthlyAggregateRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act
+        monthlyAggregateService.add(transaction("10.00", "GBP"));
+
+        // Assert
+        verify(monthlyAggregateRepository, times(2)).addTo("P-0123456789", "2024-07", "GBP",
+                new BigDecimal("10.00"), BigDecimal.ZERO, 1);
+    }
+
+    @Test
+    @DisplayName("subtract - Should take a stored transaction out of its month")
+    void subtract_RemovesContribution() {
+        // Arrange
+        when(monthlyAggregateRepository.addTo(any(), any(), any(), any(), any(), anyLong())).thenReturn(1);
+
+        // Act
+        monthlyAggregateService.subtract(transaction("-40.00", "EUR"));
+
+        // Assert
+        verify(monthlyAggregateRepository).addTo("P-0123456789", "2024-07", "EUR",
+                BigDecimal.ZERO, new BigDecimal("-40.00"), -1);
+    }
+
+    @Test
+    @DisplayName("rebuild - Should recompute every customer's rows in place from the transactions table")
+    @SuppressWarnings("unchecked")
+    void rebuild_RecomputesRowsPerCustomer() {
+        // Arrange
+        ReflectionTestUtils.setField(monthlyAggregateService, "monthlyAggregateRebuildExecutor", (Executor) Runnable::run);
+        when(transactionRepository.findDistinctCustomerIds()).thenReturn(List.of("P-1", "P-2"));
+        MonthlyAggregate storedJuly = aggregate(7L, "P-1", "2024-07", "USD");
+        MonthlyAggregate storedJune = aggregate(6L, "P-1", "2024-06", "USD");
+        when(monthlyAggregateRepository.lockByCustomer("P-1")).thenReturn(List.of(storedJune, storedJuly));
+        when(monthlyAggregateRepository.lockByCustomer("P-2")).thenReturn(List.of());
+        MonthlyTotals july = totals(2024, 7, "USD", "300.00", "20.00", 4);
+        MonthlyTotals august = totals(2024, 8, "EUR", "0", "15.00", 1);
+        when(transactionRepository.sumMonthlyTotals("P-1")).thenReturn(List.of(july, august));
+        when(transactionRepository.sumMonthlyTotals("P-2")).thenReturn(List.of());
+
+        // Act
+        MonthlyAggregateService.RebuildResult result = monthlyAggregateService.rebuild();
+
+        // Assert
+        assertEquals(2, result.customers());
+        assertEquals(2, result.aggregates());
+        assertEquals(0, result.failed());
+        ArgumentCaptor<List<MonthlyAggregate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(monthlyAggregateRepository, times(2)).saveAll(saved.capture());
+        List<MonthlyAggregate> rows = saved.getAllValues().stream().filter(r -> !r.isEmpty()).findFirst().orElseThrow();
+        assertSame(storedJuly, rows.get(0));
+        assertEquals(new BigDecimal("300.00"), rows.get(0).getCreditTotal());
+        assertEquals(4, rows.get(0).getTransactionCount());
+        assertNull(rows.get(1).getId());
+        assertEquals("2024-08", rows.get(1).getYearMonth());
+        ArgumentCaptor<Collection<MonthlyAggregate>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(monthlyAggregateRepository, times(2)).deleteAll(deleted.capture());
+        assertEquals(List.of(storedJune), List.copyOf(deleted.getAllValues().get(0)));
+    }
+
+    @Test
+    @DisplayName("rebuild - A failing customer should be counted and not stop the others")
+    void rebuild_CustomerFails_CountsFailure() {
+        // Arrange
+        ReflectionTestUtils.setField(monthlyAggregateService, "monthlyAggregateRebuildExecutor", (Executor) Runnable::run);
+        when(transactionRepository.findDistinctCustomerIds()).thenReturn(List.of("P-1", "P-2"));
+        when(monthlyAggregateRepository.lockByCustomer("P-1")).thenThrow(new DataIntegrityViolationException("lock"));
+        when(monthlyAggregateRepository.lockByCustomer("P-2")).thenReturn(List.of());
+        when(transactionRepository.sumMonthlyTotals("P-2")).thenReturn(List.of());
+
+        // Act
+        MonthlyAggregateService.RebuildResult result = monthlyAggregateService.rebuild();
+
+        // Assert
+        assertEquals(1, result.customers());
+        assertEquals(1, result.failed());
+    }
+
+    private static Transaction transaction(String amount, String currency) {
+        return Transaction.builder()
+                .id("89d3f179-abcd-465b-a9ee-e2d5f6fe1d46")
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .valueDate(LocalDate.of(2024, 7, 15))
+                .customerId("P-0123456789")
+                .build();
+    }
+
+    private static MonthlyAggregate aggregate(Long id, String customerId, String yearMonth, String currency) {
+        return MonthlyAggregate.builder()
+                .id(id)
+                .customerId(customerId)
+                .yearMonth(yearMonth)
+                .currency(currency)
+                .creditTotal(BigDecimal.ONE)
+                .debitTotal(BigDecimal.ONE)
+                .transactionCount(1)
+                .build();
+    }
+
+    private static MonthlyTotals totals(int year, int month, String currency, String credit, String debit, long count) {
+        MonthlyTotals totals = mock(MonthlyTotals.class);
+        when(totals.getValueYear()).thenReturn(year);
+        when(totals.getValueMonth()).thenReturn(month);
+        when(totals.getCurrency()).thenReturn(currency);
+        when(totals.getCredit()).thenReturn(new BigDecimal(credit));
+        when(totals.getDebit()).thenReturn(new BigDecimal(debit));
+        when(totals.getTransactionCount()).thenReturn(count);
+        return totals;
+    }
+}
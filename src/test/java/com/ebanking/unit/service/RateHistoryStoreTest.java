@@ -0,0 +1,146 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.domain.ExchangeRateRecord;
+import com.ebanking.domain.RateTable;
+import com.ebanking.repository.ExchangeRateRecordRepository;
+import com.ebanking.service.RateHistoryStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Rate History Store Unit Tests")
+class RateHistoryStoreTest {
+
+    @Mock
+    private ExchangeRateRecordRepository exchangeRateRecordRepository;
+
+    @InjectMocks
+    private RateHistoryStore rateHistoryStore;
+
+    @Test
+    @DisplayName("importCsv - Should group rows into one table per base currency and date")
+    @SuppressWarnings("unchecked")
+    void importCsv_GroupsRowsIntoTables() throws Exception {
+        // Arrange
+        String csv = """
+                date,base,currency,rate
+                2024-07-01,USD,GBP,0.79
+                2024-07-01,USD,EUR,0.92
+                2024-07-02,usd,gbp,0.78
+                """;
+
+        // Act
+        int imported = rateHistoryStore.importCsv(new StringReader(csv));
+
+        // Assert
+        assertEquals(3, imported);
+        verify(exchangeRateRecordRepository).deleteTable("USD", LocalDate.of(2024, 7, 1));
+        verify(exchangeRateRecordRepository).deleteTable("USD", LocalDate.of(2024, 7, 2));
+        ArgumentCaptor<List<ExchangeRateRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(exchangeRateRecordRepository, times(2)).saveAll(saved.capture());
+        assertEquals(2, saved.getAllValues().get(0).size());
+        assertEquals("GBP", saved.getAllValues().get(1).get(0).getQuoteCurrency());
+        assertTrue(rateHistoryStore.hasRatesFor(LocalDate.of(2024, 7, 2)));
+        assertFalse(rateHistoryStore.hasRatesFor(LocalDate.of(2024, 7, 3)));
+    }
+
+    @Test
+    @DisplayName("importCsv - Malformed row should be rejected with its line number")
+    void importCsv_MalformedRow_Throws() {
+        // Arrange
+        String csv = "date,base,currency,rate\n2024-07-01,USD,GBP,abc\n";
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> rateHistoryStore.importCsv(new StringReader(csv)));
+        assertTrue(e.getMessage().startsWith("Line 2"));
+        verify(exchangeRateRecordRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("save - Date should only be marked as stored once the transaction commits")
+    void save_InTransaction_IndexesDateAfterCommit() {
+        // Arrange
+        LocalDate committed = LocalDate.of(2024, 7, 1);
+        LocalDate rolledBack = LocalDate.of(2024, 7, 2);
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rateHistoryStore.save(new RateTable("USD", committed, Map.of("EUR", new BigDecimal("0.92")), Instant.now()));
+            assertFalse(rateHistoryStore.hasRatesFor(committed));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rateHistoryStore.save(new RateTable("USD", rolledBack, Map.of("EUR", new BigDecimal("0.93")), Instant.now()));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertTrue(rateHistoryStore.hasRatesFor(committed));
+        assertFalse(rateHistoryStore.hasRatesFor(rolledBack));
+    }
+
+    @Test
+    @DisplayName("find - Should rebuild the table from its stored rates")
+    void find_RebuildsRateTable() {
+        // Arrange
+        LocalDate date = LocalDate.of(2024, 7, 1);
+        when(exchangeRateRecordRepository.findByBaseCurrencyAndRateDate("USD", date)).thenReturn(List.of(
+                record("GBP", "0.79", Instant.parse("2024-07-01T10:00:00Z")),
+                record("EUR", "0.92", Instant.parse("2024-07-01T11:00:00Z"))));
+
+        // Act
+        Optional<RateTable> table = rateHistoryStore.find("USD", date);
+
+        // Assert
+        assertTrue(table.isPresent());
+        assertEquals(Map.of("GBP", new BigDecimal("0.79"), "EUR", new BigDecimal("0.92")), table.get().getRates());
+        assertEquals(Instant.parse("2024-07-01T11:00:00Z"), table.get().getFetchedAt());
+    }
+
+    @Test
+    @DisplayName("find - Should return empty when nothing is stored")
+    void find_NothingStored_ReturnsEmpty() {
+        // Arrange
+        when(exchangeRateRecordRepository.findByBaseCurrencyAndRateDate(anyString(), any())).thenReturn(List.of());
+
+        // Act & Assert
+        assertTrue(rateHistoryStore.find("USD", LocalDate.of(2024, 7, 1)).isEmpty());
+    }
+
+    private ExchangeRateRecord record(String quoteCurrency, String rate, Instant fetchedAt) {
+        return ExchangeRateRecord.builder()
+                .baseCurrency("USD")
+                .quoteCurrency(quoteCurrency)
+                .rateDate(LocalDate.of(2024, 7, 1))
+                .rate(new BigDecimal(rate))
+                .fetchedAt(fetchedAt)
+                .build();
+    }
+}
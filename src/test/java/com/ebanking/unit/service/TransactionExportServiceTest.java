@@ -0,0 +1,118 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.domain.Transaction;
+import com.ebanking.repository.TransactionRepository;
+import com.ebanking.service.TransactionExportService;
+import com.ebanking.service.TransactionExportService.Format;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Transaction Export Service Unit Tests")
+class TransactionExportServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 7, 1);
+    private static final LocalDate END = LocalDate.of(2024, 7, 31);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        transactionExportService = new TransactionExportService(transactionRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("export - Should write one JSON object per line and close the row stream")
+    void export_Ndjson_WritesOneObjectPerLine() throws Exception {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionRepository.streamByCustomerIdAndValueDateBetween("P-0123456789", START, END))
+                .thenReturn(Stream.of(transaction("t-1", "150.25", "Salary"), transaction("t-2", "-40.00", "Groceries"))
+                        .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = transactionExportService.export("P-0123456789", START, END, Format.NDJSON, out);
+
+        // Assert
+        assertEquals(2, rows);
+        assertTrue(closed.get());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("t-1", first.get("id").asText());
+        assertEquals(new BigDecimal("150.25"), first.get("amount").decimalValue());
+        assertEquals("t-2", new ObjectMapper().readTree(lines[1]).get("id").asText());
+    }
+
+    @Test
+    @DisplayName("export - Should write a CSV header and quote fields that need it")
+    void export_Csv_QuotesFields() throws Exception {
+        // Arrange
+        when(transactionRepository.streamByCustomerIdAndValueDateBetween("P-0123456789", START, END))
+                .thenReturn(Stream.of(transaction("t-1", "-40.00", "Coffee, \"large\""),
+                        transaction("t-2", "12.50", "=SUM(A1:A9)")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = transactionExportService.export("P-0123456789", START, END, Format.CSV, out);
+
+        // Assert
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,valueDate,amount,currency,accountIban,description,customerId", lines[0]);
+        assertEquals("t-1,2024-07-15,-40.00,USD,CH93-0000-0000-0000-0000-0,\"Coffee, \"\"large\"\"\",P-0123456789",
+                lines[1]);
+        assertEquals("t-2,2024-07-15,12.50,USD,CH93-0000-0000-0000-0000-0,'=SUM(A1:A9),P-0123456789", lines[2]);
+    }
+
+    @Test
+    @DisplayName("export - Should write only the CSV header when the range has no transactions")
+    void export_Csv_Empty_WritesHeader() throws Exception {
+        // Arrange
+        when(transactionRepository.streamByCustomerIdAndValueDateBetween("P-0123456789", START, END))
+                .thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = transactionExportService.export("P-0123456789", START, END, Format.CSV, out);
+
+        // Assert
+        assertEquals(0, rows);
+        assertEquals("id,valueDate,amount,currency,accountIban,description,customerId\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static Transaction transaction(String id, String amount, String description) {
+        return Transaction.builder()
+                .id(id)
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .accountIban("CH93-0000-0000-0000-0000-0")
+                .valueDate(LocalDate.of(2024, 7, 15))
+                .description(description)
+                .customerId("P-0123456789")
+                .build();
+    }
+}
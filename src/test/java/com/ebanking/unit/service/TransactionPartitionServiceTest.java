@@ -0,0 +1,140 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.repository.MonthlyAggregateRepository;
+import com.ebanking.service.TransactionPartitionService;
+import com.ebanking.service.TransactionPartitionService.MaintenanceResult;
+import com.ebanking.service.TransactionResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Transaction Partition Service Unit Tests")
+class TransactionPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MonthlyAggregateRepository monthlyAggregateRepository;
+
+    @Mock
+    private TransactionResponseCache transactionResponseCache;
+
+    @InjectMocks
+    private TransactionPartitionService transactionPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionPartitionService, "enabled", true);
+        ReflectionTestUtils.setField(transactionPartitionService, "monthsAhead", 2);
+        ReflectionTestUtils.setField(transactionPartitionService, "clock",
+                Clock.fixed(Instant.parse("2024-07-15T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("maintain - Should create the missing partitions of the current and next months")
+    void maintain_CreatesMissingPartitions() {
+        // Arrange
+        stubDatabase("PostgreSQL", "transactions_default", "transactions_2024_06", "transactions_2024_07");
+
+        // Act
+        MaintenanceResult result = transactionPartitionService.maintain();
+
+        // Assert
+        assertEquals(List.of("transactions_2024_08", "transactions_2024_09"), result.created());
+        assertEquals(List.of(), result.detached());
+        verify(jdbcTemplate, times(2)).execute("LOCK TABLE transactions_default IN SHARE ROW EXCLUSIVE MODE");
+        verify(jdbcTemplate).execute("CREATE TABLE transactions_2024_08 (LIKE transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        verify(jdbcTemplate).update("INSERT INTO transactions_2024_08 SELECT * FROM transactions_default "
+                + "WHERE value_date >= DATE '2024-08-01' AND value_date < DATE '2024-09-01'");
+        verify(jdbcTemplate).execute("ALTER TABLE transactions ATTACH PARTITION transactions_2024_08 "
+                + "FOR VALUES FROM ('2024-08-01') TO ('2024-09-01')");
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE transactions_2024_07"));
+    }
+
+    @Test
+    @DisplayName("maintain - Should restore the ids of rows moved out of the default partition")
+    void maintain_MovedRows_KeepTheirIds() {
+        // Arrange
+        stubDatabase("PostgreSQL", "transactions_default", "transactions_2024_07", "transactions_2024_08");
+        when(jdbcTemplate.update(startsWith("INSERT INTO transactions_2024_09"))).thenReturn(3);
+
+        // Act
+        transactionPartitionService.maintain();
+
+        // Assert
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("LOCK TABLE transactions_default IN SHARE ROW EXCLUSIVE MODE");
+        order.verify(jdbcTemplate).update("DELETE FROM transactions_default "
+                + "WHERE value_date >= DATE '2024-09-01' AND value_date < DATE '2024-10-01'");
+        order.verify(jdbcTemplate).update("INSERT INTO transaction_ids (id, value_date) "
+                + "SELECT id, value_date FROM transactions_2024_09");
+        order.verify(jdbcTemplate).execute(startsWith("ALTER TABLE transactions ATTACH PARTITION transactions_2024_09"));
+    }
+
+    @Test
+    @DisplayName("maintain - Should detach partitions past retention and delete their aggregates")
+    void maintain_DetachesPartitionsPastRetention() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionPartitionService, "retentionMonths", 12);
+        ReflectionTestUtils.setField(transactionPartitionService, "dropDetached", true);
+        stubDatabase("PostgreSQL", "transactions_default", "transactions_2023_06", "transactions_2023_07",
+                "transactions_2024_07", "transactions_2024_08", "transactions_2024_09");
+
+        // Act
+        MaintenanceResult result = transactionPartitionService.maintain();
+
+        // Assert
+        assertEquals(List.of(), result.created());
+        assertEquals(List.of("transactions_2023_06"), result.detached());
+        verify(jdbcTemplate).execute("ALTER TABLE transactions DETACH PARTITION transactions_2023_06");
+        verify(jdbcTemplate).update("DELETE FROM transaction_ids "
+                + "WHERE value_date >= DATE '2023-06-01' AND value_date < DATE '2023-07-01'");
+        verify(jdbcTemplate).execute("DROP TABLE transactions_2023_06");
+        verify(monthlyAggregateRepository).deleteByYearMonthBefore("2023-07");
+        verify(transactionResponseCache).invalidateBefore(YearMonth.of(2023, 7));
+    }
+
+    @Test
+    @DisplayName("maintain - Should do nothing when the database has no partitioning")
+    void maintain_NotPostgres_DoesNothing() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        // Act
+        MaintenanceResult result = transactionPartitionService.maintain();
+
+        // Assert
+        assertTrue(result.created().isEmpty());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+        verifyNoInteractions(monthlyAggregateRepository, transactionResponseCache);
+    }
+
+    private void stubDatabase(String product, String... partitions) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(product);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(partitions));
+    }
+}
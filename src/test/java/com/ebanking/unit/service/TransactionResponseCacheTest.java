@@ -0,0 +1,195 @@
+package com.ebanking.unit.service;
+
+import com.ebanking.dto.TransactionRequest;
+import com.ebanking.dto.TransactionResponse;
+import com.ebanking.service.ExchangeRateService;
+import com.ebanking.service.TransactionResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Transaction Response Cache Unit Tests")
+class TransactionResponseCacheTest {
+
+    private static final String CUSTOMER = "P-0123456789";
+
+    private TransactionResponseCache responseCache;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger renders = new AtomicInteger();
+    private final ExchangeRateService exchangeRateService = mock(ExchangeRateService.class);
+    private long rateVersion = 7;
+
+    @BeforeEach
+    void setUp() {
+        when(exchangeRateService.getRateVersion(any(YearMonth.class)))
+                .thenAnswer(invocation -> YearMonth.of(2024, 7).equals(invocation.getArgument(0)) ? rateVersion : 1L);
+        responseCache = new TransactionResponseCache(objectMapper, new SimpleMeterRegistry(), exchangeRateService);
+        ReflectionTestUtils.setField(responseCache, "enabled", true);
+        ReflectionTestUtils.setField(responseCache, "maxSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(responseCache, "expireAfterWrite", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(responseCache, "clock",
+                Clock.fixed(Instant.parse("2024-09-10T12:00:00Z"), ZoneOffset.UTC));
+        ReflectionTestUtils.invokeMethod(responseCache, "initCache");
+    }
+
+    @Test
+    @DisplayName("getOrRender - Closed month should be served from the cached bytes")
+    void getOrRender_ClosedMonth_ServedFromCache() throws Exception {
+        // Act
+        byte[] first = responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+        byte[] second = responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+
+        // Assert
+        assertEquals(1, renders.get());
+        assertSame(first, second);
+        assertEquals(new BigDecimal("79.00"), objectMapper.readValue(second, TransactionResponse.class).getTotalCredit());
+    }
+
+    @Test
+    @DisplayName("getOrRender - Current month should never be cached")
+    void getOrRender_CurrentMonth_NotCached() {
+        // Act
+        responseCache.getOrRender(CUSTOMER, request(9), () -> response(false));
+        responseCache.getOrRender(CUSTOMER, request(9), () -> response(false));
+
+        // Assert
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("getOrRender - Response with stale rates should not be cached")
+    void getOrRender_StaleRates_NotCached() {
+        // Act
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(true));
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+
+        // Assert
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("getOrRender - A new rate snapshot should not be served responses converted with the old one")
+    void getOrRender_NewRateVersion_RendersAgain() {
+        // Arrange
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+
+        // Act
+        rateVersion = 8;
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+
+        // Assert
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("getOrRender - New rates for another month should not drop a cached response")
+    void getOrRender_OtherMonthRatesChanged_ServedFromCache() {
+        // Arrange
+        responseCache.getOrRender(CUSTOMER, request(6), () -> response(false));
+
+        // Act
+        rateVersion = 8;
+        responseCache.getOrRender(CUSTOMER, request(6), () -> response(false));
+
+        // Assert
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("getOrRender - Response converted with another rate version should not be cached under this one")
+    void getOrRender_RatesChangedWhileRendering_NotCached() {
+        // Act
+        responseCache.getOrRender(CUSTOMER, request(7), () -> {
+            rateVersion = 8;
+            return response(false);
+        });
+        rateVersion = 7;
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+
+        // Assert
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("invalidate - Should drop only the affected customer month")
+    void invalidate_DropsOnlyThatCustomerMonth() {
+        // Arrange
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+        responseCache.getOrRender(CUSTOMER, request(6), () -> response(false));
+        responseCache.getOrRender("P-9999999999", request(7), () -> response(false));
+
+        // Act
+        responseCache.invalidate(CUSTOMER, YearMonth.of(2024, 7));
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+        responseCache.getOrRender(CUSTOMER, request(6), () -> response(false));
+        responseCache.getOrRender("P-9999999999", request(7), () -> response(false));
+
+        // Assert
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    @DisplayName("getOrRender - Response computed across an invalidation should not be cached")
+    void getOrRender_InvalidatedWhileRendering_NotCached() {
+        // Act
+        responseCache.getOrRender(CUSTOMER, request(7), () -> {
+            responseCache.invalidate(CUSTOMER, YearMonth.of(2024, 7));
+            return response(false);
+        });
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+
+        // Assert
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("invalidateBefore - Should drop responses of removed months only")
+    void invalidateBefore_DropsOlderMonths() {
+        // Arrange
+        responseCache.getOrRender(CUSTOMER, request(6), () -> response(false));
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+
+        // Act
+        responseCache.invalidateBefore(YearMonth.of(2024, 7));
+        responseCache.getOrRender(CUSTOMER, request(6), () -> response(false));
+        responseCache.getOrRender(CUSTOMER, request(6), () -> response(false));
+        responseCache.getOrRender(CUSTOMER, request(7), () -> response(false));
+
+        // Assert: June rendered again once, then cached again; July still cached
+        assertEquals(3, renders.get());
+    }
+
+    private static TransactionRequest request(int month) {
+        return TransactionRequest.builder().year(2024).month(month).baseCurrency("GBP").build();
+    }
+
+    private TransactionResponse response(boolean staleRates) {
+        renders.incrementAndGet();
+        return TransactionResponse.builder()
+                .transactions(List.of())
+                .totalCredit(new BigDecimal("79.00"))
+                .totalDebit(BigDecimal.ZERO)
+                .baseCurrency("GBP")
+                .staleRates(staleRates)
+                .rateVersion(rateVersion)
+                .build();
+    }
+}
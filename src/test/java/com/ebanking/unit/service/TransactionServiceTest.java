@@ -1,10 +1,20 @@
 package com.ebanking.unit.service;
 
+import com.ebanking.domain.MonthlyAggregate;
 import com.ebanking.domain.Transaction;
+import com.ebanking.dto.StatementResponse;
+import com.ebanking.dto.TransactionCursor;
 import com.ebanking.dto.TransactionRequest;
 import com.ebanking.dto.TransactionResponse;
+import com.ebanking.exception.InvalidCursorException;
+import com.ebanking.exception.InvalidStatementRangeException;
 import com.ebanking.repository.TransactionRepository;
 import com.ebanking.service.ExchangeRateService;
+import com.ebanking.service.ExchangeRateService.BatchConversion;
+import com.ebanking.service.ExchangeRateService.CurrencyTotals;
+import com.ebanking.service.HotTransactionView;
+import com.ebanking.service.MonthlyAggregateService;
+import com.ebanking.service.TransactionResponseCache;
 import com.ebanking.service.TransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,11 +26,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,6 +54,15 @@ class TransactionServiceTest {
     @Mock
     private ExchangeRateService exchangeRateService;
 
+    @Mock
+    private MonthlyAggregateService monthlyAggregateService;
+
+    @Mock
+    private TransactionResponseCache transactionResponseCache;
+
+    @Mock
+    private HotTransactionView hotTransactionView;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -72,6 +99,11 @@ class TransactionServiceTest {
                 .size(20)
                 .baseCurrency("GBP")
                 .build();
+
+        ReflectionTestUtils.setField(transactionService, "transactionCountExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(transactionService, "transactionStatementExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(transactionService, "statementMaxMonths", 12);
+        ReflectionTestUtils.setField(transactionService, "statementMaxRows", 1000);
     }
 
     @Test
@@ -82,6 +114,89 @@ class TransactionServiceTest {
 
         // Assert
         verify(transactionRepository).save(creditTransaction);
+        verify(monthlyAggregateService).add(creditTransaction);
+        verify(transactionResponseCache).invalidate("P-0123456789", YearMonth.of(2024, 7));
+    }
+
+    @Test
+    @DisplayName("processTransaction - Should replace the stored version in the aggregates when corrected")
+    void processTransaction_ShouldReplaceCorrectedTransactionInAggregates() {
+        // Arrange
+        Transaction stored = withAmount(creditTransaction, new BigDecimal("100.00"));
+        Transaction corrected = withAmount(creditTransaction, new BigDecimal("120.00"));
+        when(transactionRepository.findById("credit-123")).thenReturn(Optional.of(stored));
+
+        // Act
+        transactionService.processTransaction(corrected);
+
+        // Assert
+        verify(monthlyAggregateService).subtract(stored);
+        verify(transactionRepository).save(corrected);
+        verify(monthlyAggregateService).add(corrected);
+    }
+
+    @Test
+    @DisplayName("processTransaction - Should leave the aggregates alone on redelivery")
+    void processTransaction_ShouldIgnoreRedeliveryInAggregates() {
+        // Arrange
+        when(transactionRepository.findById("credit-123")).thenReturn(Optional.of(withAmount(creditTransaction, new BigDecimal("100.0"))));
+
+        // Act
+        transactionService.processTransaction(creditTransaction);
+
+        // Assert
+        verify(transactionRepository).save(creditTransaction);
+        verifyNoInteractions(monthlyAggregateService, transactionResponseCache);
+    }
+
+    @Test
+    @DisplayName("getTransactions - Should total the whole month from the monthly aggregates")
+    void getTransactions_ShouldTotalMonthFromAggregates() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "monthlyAggregatesEnabled", true);
+        request.setSize(1);
+        Page<Transaction> page = new PageImpl<>(List.of(creditTransaction), PageRequest.of(0, 1), 40);
+        stubPage(page);
+        when(monthlyAggregateService.findMonth("P-0123456789", YearMonth.of(2024, 7))).thenReturn(List.of(
+                MonthlyAggregate.builder().customerId("P-0123456789").yearMonth("2024-07").currency("USD")
+                        .creditTotal(new BigDecimal("2000.00")).debitTotal(new BigDecimal("300.00")).transactionCount(30).build(),
+                MonthlyAggregate.builder().customerId("P-0123456789").yearMonth("2024-07").currency("EUR")
+                        .creditTotal(BigDecimal.ZERO).debitTotal(new BigDecimal("500.00")).transactionCount(10).build()));
+        List<CurrencyTotals> totals = List.of(
+                new CurrencyTotals("USD", new BigDecimal("2000.00"), new BigDecimal("300.00")),
+                new CurrencyTotals("EUR", BigDecimal.ZERO, new BigDecimal("500.00")));
+        when(exchangeRateService.convertTotals(totals, "GBP", LocalDate.of(2024, 7, 31)))
+                .thenReturn(new BatchConversion(new BigDecimal("1580.00"), new BigDecimal("666.00"), false, List.of(), 7L));
+
+        // Act
+        TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
+
+        // Assert
+        assertEquals(new BigDecimal("1580.00"), response.getTotalCredit());
+        assertEquals(new BigDecimal("666.00"), response.getTotalDebit());
+        assertEquals(40, response.getTotalElements());
+        verify(exchangeRateService, never()).convertAll(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("getTransactions - A month without aggregate rows should be counted and totalled from its rows")
+    void getTransactions_MonthWithoutAggregates_FallsBackToRows() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "monthlyAggregatesEnabled", true);
+        request.setSize(1);
+        Page<Transaction> page = new PageImpl<>(List.of(creditTransaction), PageRequest.of(0, 1), 40);
+        stubPage(page);
+        when(monthlyAggregateService.findMonth("P-0123456789", YearMonth.of(2024, 7))).thenReturn(List.of());
+        when(exchangeRateService.convertAll(List.of(creditTransaction), "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), BigDecimal.ZERO, false, List.of(), 7L));
+
+        // Act
+        TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
+
+        // Assert
+        assertEquals(new BigDecimal("79.00"), response.getTotalCredit());
+        assertEquals(40, response.getTotalElements());
+        verify(exchangeRateService, never()).convertTotals(any(), any(), any());
     }
 
     @Test
@@ -91,19 +206,10 @@ class TransactionServiceTest {
         List<Transaction> transactions = Arrays.asList(creditTransaction, debitTransaction);
         Page<Transaction> page = new PageImpl<>(transactions, PageRequest.of(0, 20), 2);
 
-        when(transactionRepository.findByCustomerIdAndValueDateBetween(
-                eq("P-0123456789"), any(LocalDate.class), any(LocalDate.class), any(PageRequest.class)))
-                .thenReturn(page);
+        stubPage(page);
 
-        // Use lenient stubbing for exchange rate service to handle multiple calls
-        // Note: The service calls convertToBaseCurrency with the original amount (including negative sign)
-        lenient().when(exchangeRateService.convertToBaseCurrency(
-                        eq(new BigDecimal("100.00")), eq("USD"), eq("GBP"), any(LocalDate.class)))
-                .thenReturn(new BigDecimal("79.00"));
-
-        lenient().when(exchangeRateService.convertToBaseCurrency(
-                        eq(new BigDecimal("-50.00")), eq("EUR"), eq("GBP"), any(LocalDate.class)))
-                .thenReturn(new BigDecimal("-43.00")); // Note: Keep the negative sign
+        when(exchangeRateService.convertAll(transactions, "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), new BigDecimal("43.00"), false, List.of(), 7L));
 
         // Act
         TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
@@ -112,8 +218,10 @@ class TransactionServiceTest {
         assertNotNull(response);
         assertEquals(2, response.getTransactions().size());
         assertEquals(new BigDecimal("79.00"), response.getTotalCredit());
-        assertEquals(new BigDecimal("43.00"), response.getTotalDebit()); // Service will call .abs() on -43.00
+        assertEquals(new BigDecimal("43.00"), response.getTotalDebit());
         assertEquals("GBP", response.getBaseCurrency());
+        assertFalse(response.isStaleRates());
+        assertEquals(7L, response.getRateVersion());
         assertEquals(0, response.getPage());
         assertEquals(20, response.getSize());
         assertEquals(1, response.getTotalPages());
@@ -128,9 +236,9 @@ class TransactionServiceTest {
         // Arrange
         Page<Transaction> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
 
-        when(transactionRepository.findByCustomerIdAndValueDateBetween(
-                eq("P-0123456789"), any(LocalDate.class), any(LocalDate.class), any(PageRequest.class)))
-                .thenReturn(emptyPage);
+        stubPage(emptyPage);
+        when(exchangeRateService.convertAll(List.of(), "GBP", false))
+                .thenReturn(new BatchConversion(BigDecimal.ZERO, BigDecimal.ZERO, false, List.of(), 7L));
 
         // Act
         TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
@@ -150,18 +258,11 @@ class TransactionServiceTest {
         List<Transaction> transactions = Arrays.asList(creditTransaction);
         Page<Transaction> page = new PageImpl<>(transactions, PageRequest.of(0, 20), 1);
 
-        when(transactionRepository.findByCustomerIdAndValueDateBetween(
-                eq("P-0123456789"), any(LocalDate.class), any(LocalDate.class), any(PageRequest.class)))
-                .thenReturn(page);
+        stubPage(page);
 
-        // Mock the getExchangeRate method to throw an exception, which will be caught by convertToBaseCurrency
-        // and return the original amount
-        lenient().when(exchangeRateService.convertToBaseCurrency(any(), any(), any(), any()))
-                .thenAnswer(invocation -> {
-                    // Simulate what the real service does - return the original amount on exception
-                    BigDecimal amount = invocation.getArgument(0);
-                    return amount != null ? amount : BigDecimal.ZERO;
-                });
+        // Simulate what the real service does when a rate lookup fails - keep the original amount
+        when(exchangeRateService.convertAll(transactions, "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("100.00"), BigDecimal.ZERO, true, List.of(), 7L));
 
         // Act
         TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
@@ -171,6 +272,7 @@ class TransactionServiceTest {
         assertEquals(1, response.getTransactions().size());
         // Should return original amount when exchange rate fails
         assertEquals(new BigDecimal("100.00"), response.getTotalCredit());
+        assertTrue(response.isStaleRates());
     }
 
     @Test
@@ -185,14 +287,14 @@ class TransactionServiceTest {
                 .baseCurrency("GBP")
                 .build();
 
-        Page<Transaction> page = new PageImpl<>(List.of(creditTransaction), PageRequest.of(1, 10), 25);
+        // A full middle page: a short page would be known to be the last one without a count
+        List<Transaction> transactions = Collections.nCopies(10, creditTransaction);
+        Page<Transaction> page = new PageImpl<>(transactions, PageRequest.of(1, 10), 25);
 
-        when(transactionRepository.findByCustomerIdAndValueDateBetween(
-                eq("P-0123456789"), any(LocalDate.class), any(LocalDate.class), any(PageRequest.class)))
-                .thenReturn(page);
+        stubPage(page);
 
-        lenient().when(exchangeRateService.convertToBaseCurrency(any(), any(), any(), any()))
-                .thenReturn(new BigDecimal("79.00"));
+        when(exchangeRateService.convertAll(transactions, "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), BigDecimal.ZERO, false, List.of(), 7L));
 
         // Act
         TransactionResponse response = transactionService.getTransactions("P-0123456789", paginatedRequest);
@@ -207,27 +309,123 @@ class TransactionServiceTest {
     }
 
     @Test
-    @DisplayName("getTransactions - Should handle null exchange rate service response")
-    void getTransactions_ShouldHandleNullExchangeRateResponse() {
+    @DisplayName("getTransactions - Should convert the whole page in a single batch call")
+    void getTransactions_ShouldConvertPageInOneBatch() {
         // Arrange
-        List<Transaction> transactions = Arrays.asList(creditTransaction);
-        Page<Transaction> page = new PageImpl<>(transactions, PageRequest.of(0, 20), 1);
+        List<Transaction> transactions = Arrays.asList(creditTransaction, debitTransaction);
+        Page<Transaction> page = new PageImpl<>(transactions, PageRequest.of(0, 20), 2);
+
+        stubPage(page);
+        when(exchangeRateService.convertAll(transactions, "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), new BigDecimal("43.00"), false, List.of(), 7L));
+
+        // Act
+        transactionService.getTransactions("P-0123456789", request);
 
-        when(transactionRepository.findByCustomerIdAndValueDateBetween(
-                eq("P-0123456789"), any(LocalDate.class), any(LocalDate.class), any(PageRequest.class)))
-                .thenReturn(page);
+        // Assert
+        verify(exchangeRateService, times(1)).convertAll(transactions, "GBP", false);
+        verify(exchangeRateService, never()).convert(any(), any(), any(), any());
+    }
 
-        lenient().when(exchangeRateService.convertToBaseCurrency(any(), any(), any(), any()))
-                .thenReturn(null);
+    @Test
+    @DisplayName("getTransactions - Should skip the count query when no count is requested")
+    void getTransactions_WithoutCount_ReturnsSlice() {
+        // Arrange
+        request.setIncludeCount(false);
+        request.setSize(1);
+        stubPage(new PageImpl<>(List.of(creditTransaction), PageRequest.of(0, 1), 2));
+        when(exchangeRateService.convertAll(List.of(creditTransaction), "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), BigDecimal.ZERO, false, List.of(), 7L));
 
         // Act
         TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
 
         // Assert
-        assertNotNull(response);
         assertEquals(1, response.getTransactions().size());
-        // Should return original amount when exchange rate returns null
-        assertEquals(new BigDecimal("100.00"), response.getTotalCredit());
+        assertTrue(response.isFirst());
+        assertFalse(response.isLast());
+        assertEquals(0, response.getTotalElements());
+        verify(transactionRepository, never()).countByCustomerIdAndValueDateBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getTransactions - Should count the page from the month's aggregates instead of a query")
+    void getTransactions_CountsFromAggregates() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "monthlyAggregatesEnabled", true);
+        request.setSize(1);
+        stubPage(new PageImpl<>(List.of(creditTransaction), PageRequest.of(0, 1), 2));
+        when(monthlyAggregateService.findMonth("P-0123456789", YearMonth.of(2024, 7))).thenReturn(List.of(
+                MonthlyAggregate.builder().currency("USD").creditTotal(new BigDecimal("100.00"))
+                        .debitTotal(BigDecimal.ZERO).transactionCount(1).build(),
+                MonthlyAggregate.builder().currency("EUR").creditTotal(BigDecimal.ZERO)
+                        .debitTotal(new BigDecimal("50.00")).transactionCount(1).build()));
+        when(exchangeRateService.convertTotals(anyList(), eq("GBP"), eq(LocalDate.of(2024, 7, 31))))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), new BigDecimal("43.00"), false, List.of(), 7L));
+
+        // Act
+        TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
+
+        // Assert
+        assertEquals(2, response.getTotalElements());
+        assertEquals(2, response.getTotalPages());
+        verify(transactionRepository, never()).countByCustomerIdAndValueDateBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getTransactions - Empty cursor should seek from the start of the month and return the next cursor")
+    void getTransactions_EmptyCursor_ReturnsFirstKeysetPage() {
+        // Arrange
+        request.setSize(1);
+        request.setCursor("");
+        when(transactionRepository.findPageAfter("P-0123456789", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31),
+                LocalDate.of(2024, 7, 1), "", PageRequest.of(0, 2)))
+                .thenReturn(List.of(creditTransaction, debitTransaction));
+        when(exchangeRateService.convertAll(List.of(creditTransaction), "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), BigDecimal.ZERO, false, List.of(), 7L));
+
+        // Act
+        TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
+
+        // Assert
+        assertEquals(List.of(creditTransaction), response.getTransactions());
+        assertEquals(new TransactionCursor(LocalDate.of(2024, 7, 15), "credit-123"),
+                TransactionCursor.decode(response.getNextCursor()));
+        assertTrue(response.isFirst());
+        assertFalse(response.isLast());
+        verify(transactionRepository, never()).findSliceByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getTransactions - Cursor should seek past its row and mark the final page last")
+    void getTransactions_Cursor_SeeksPastPosition() {
+        // Arrange
+        request.setCursor(TransactionCursor.after(creditTransaction).encode());
+        when(transactionRepository.findPageAfter("P-0123456789", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31),
+                LocalDate.of(2024, 7, 15), "credit-123", PageRequest.of(0, 21)))
+                .thenReturn(List.of(debitTransaction));
+        when(exchangeRateService.convertAll(List.of(debitTransaction), "GBP", false))
+                .thenReturn(new BatchConversion(BigDecimal.ZERO, new BigDecimal("43.00"), false, List.of(), 7L));
+
+        // Act
+        TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
+
+        // Assert
+        assertEquals(List.of(debitTransaction), response.getTransactions());
+        assertNull(response.getNextCursor());
+        assertFalse(response.isFirst());
+        assertTrue(response.isLast());
+    }
+
+    @Test
+    @DisplayName("getTransactions - Should reject a cursor it did not issue")
+    void getTransactions_InvalidCursor_Throws() {
+        // Arrange
+        request.setCursor("not-a-cursor");
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> transactionService.getTransactions("P-0123456789", request));
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
@@ -257,18 +455,11 @@ class TransactionServiceTest {
         List<Transaction> transactions = Arrays.asList(usdTransaction, eurTransaction);
         Page<Transaction> page = new PageImpl<>(transactions, PageRequest.of(0, 20), 2);
 
-        when(transactionRepository.findByCustomerIdAndValueDateBetween(
-                eq("P-0123456789"), any(LocalDate.class), any(LocalDate.class), any(PageRequest.class)))
-                .thenReturn(page);
-
-        // Stub for the actual amounts being passed (including negative sign for EUR transaction)
-        lenient().when(exchangeRateService.convertToBaseCurrency(
-                        eq(new BigDecimal("200.00")), eq("USD"), eq("GBP"), any(LocalDate.class)))
-                .thenReturn(new BigDecimal("158.00"));
+        stubPage(page);
 
-        lenient().when(exchangeRateService.convertToBaseCurrency(
-                        eq(new BigDecimal("-150.00")), eq("EUR"), eq("GBP"), any(LocalDate.class)))
-                .thenReturn(new BigDecimal("-129.00")); // Keep the negative sign
+        // EUR rate is served stale
+        when(exchangeRateService.convertAll(transactions, "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("158.00"), new BigDecimal("129.00"), true, List.of(), 7L));
 
         // Act
         TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
@@ -277,6 +468,194 @@ class TransactionServiceTest {
         assertNotNull(response);
         assertEquals(2, response.getTransactions().size());
         assertEquals(new BigDecimal("158.00"), response.getTotalCredit());
-        assertEquals(new BigDecimal("129.00"), response.getTotalDebit()); // Service will call .abs() on -129.00
+        assertEquals(new BigDecimal("129.00"), response.getTotalDebit());
+        assertTrue(response.isStaleRates()); // EUR rate was served stale
+    }
+
+    @Test
+    @DisplayName("getTransactions - Should serve a resident month from the hot view without querying")
+    void getTransactions_ResidentMonth_ServedFromView() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "monthlyAggregatesEnabled", true);
+        HotTransactionView.MonthView month = mock(HotTransactionView.MonthView.class);
+        when(hotTransactionView.getMonth("P-0123456789", YearMonth.of(2024, 7))).thenReturn(month);
+        when(month.page(0, 20)).thenReturn(List.of(creditTransaction, debitTransaction));
+        when(month.size()).thenReturn(2);
+        List<CurrencyTotals> totals = List.of(new CurrencyTotals("USD", new BigDecimal("100.00"), BigDecimal.ZERO));
+        when(month.currencyTotals()).thenReturn(totals);
+        when(exchangeRateService.convertTotals(totals, "GBP", LocalDate.of(2024, 7, 31)))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), BigDecimal.ZERO, false, List.of(), 7L));
+
+        // Act
+        TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
+
+        // Assert
+        assertEquals(2, response.getTransactions().size());
+        assertEquals(2, response.getTotalElements());
+        assertEquals(1, response.getTotalPages());
+        assertEquals(new BigDecimal("79.00"), response.getTotalCredit());
+        assertTrue(response.isLast());
+        verifyNoInteractions(transactionRepository, monthlyAggregateService);
+    }
+
+    @Test
+    @DisplayName("getTransactions - Should serve keyset pages of a resident month from the hot view")
+    void getTransactions_ResidentMonthCursor_ServedFromView() {
+        // Arrange
+        HotTransactionView.MonthView month = mock(HotTransactionView.MonthView.class);
+        when(hotTransactionView.getMonth("P-0123456789", YearMonth.of(2024, 7))).thenReturn(month);
+        when(month.after(LocalDate.of(2024, 7, 1), "", 2)).thenReturn(List.of(creditTransaction, debitTransaction));
+        when(exchangeRateService.convertAll(List.of(creditTransaction), "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), BigDecimal.ZERO, false, List.of(), 7L));
+        request.setCursor("");
+        request.setSize(1);
+
+        // Act
+        TransactionResponse response = transactionService.getTransactions("P-0123456789", request);
+
+        // Assert
+        assertEquals(List.of(creditTransaction), response.getTransactions());
+        assertEquals(TransactionCursor.after(creditTransaction).encode(), response.getNextCursor());
+        assertFalse(response.isLast());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("getStatement - Should merge the months of a range in order with combined totals")
+    void getStatement_MergesMonthsInOrder() {
+        // Arrange
+        Transaction june = withValueDate(creditTransaction, "june-1", LocalDate.of(2024, 6, 20));
+        Transaction august = withValueDate(debitTransaction, "august-1", LocalDate.of(2024, 8, 10));
+        stubStatementMonth(LocalDate.of(2024, 6, 20), LocalDate.of(2024, 6, 30), List.of(june));
+        stubStatementMonth(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), List.of(creditTransaction, debitTransaction));
+        stubStatementMonth(LocalDate.of(2024, 8, 1), LocalDate.of(2024, 8, 10), List.of(august));
+        when(exchangeRateService.convertAll(List.of(june), "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), BigDecimal.ZERO, false, List.of(), 7L));
+        when(exchangeRateService.convertAll(List.of(creditTransaction, debitTransaction), "GBP", false))
+                .thenReturn(new BatchConversion(new BigDecimal("79.00"), new BigDecimal("43.00"), true, List.of(), 8L));
+        when(exchangeRateService.convertAll(List.of(august), "GBP", false))
+                .thenReturn(new BatchConversion(BigDecimal.ZERO, new BigDecimal("43.00"), false, List.of(), 8L));
+
+        // Act
+        StatementResponse response = transactionService.getStatement("P-0123456789",
+                LocalDate.of(2024, 6, 20), LocalDate.of(2024, 8, 10), "GBP");
+
+        // Assert
+        assertEquals(List.of("june-1", "credit-123", "debit-456", "august-1"),
+                response.getTransactions().stream().map(Transaction::getId).toList());
+        assertEquals(4, response.getTransactionCount());
+        assertEquals(new BigDecimal("158.00"), response.getTotalCredit());
+        assertEquals(new BigDecimal("86.00"), response.getTotalDebit());
+        assertTrue(response.isStaleRates());
+        assertEquals(8L, response.getRateVersion());
+        assertEquals(List.of("2024-06", "2024-07", "2024-08"),
+                response.getMonths().stream().map(StatementResponse.MonthTotals::getMonth).toList());
+        assertEquals(2, response.getMonths().get(1).getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("getStatement - Should total whole months from the monthly aggregates")
+    void getStatement_WholeMonth_UsesMonthlyAggregates() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "monthlyAggregatesEnabled", true);
+        stubStatementMonth(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), List.of(creditTransaction));
+        when(monthlyAggregateService.findMonths("P-0123456789", YearMonth.of(2024, 7), YearMonth.of(2024, 7)))
+                .thenReturn(Map.of(YearMonth.of(2024, 7), List.of(
+                        MonthlyAggregate.builder().currency("USD").creditTotal(new BigDecimal("2000.00"))
+                                .debitTotal(BigDecimal.ZERO).transactionCount(20).build())));
+        when(exchangeRateService.convertTotals(List.of(new CurrencyTotals("USD", new BigDecimal("2000.00"), BigDecimal.ZERO)),
+                "GBP", LocalDate.of(2024, 7, 31)))
+                .thenReturn(new BatchConversion(new BigDecimal("1580.00"), BigDecimal.ZERO, false, List.of(), 7L));
+
+        // Act
+        StatementResponse response = transactionService.getStatement("P-0123456789",
+                LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), "GBP");
+
+        // Assert
+        assertEquals(new BigDecimal("1580.00"), response.getTotalCredit());
+        verify(exchangeRateService, never()).convertAll(any(), any(), anyBoolean());
+        verify(transactionRepository, never()).countByCustomerIdAndValueDateBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getStatement - Should reject reversed and too long ranges")
+    void getStatement_InvalidRange_Throws() {
+        // Act & Assert
+        assertThrows(InvalidStatementRangeException.class, () -> transactionService.getStatement("P-0123456789",
+                LocalDate.of(2024, 8, 1), LocalDate.of(2024, 7, 1), "GBP"));
+        assertThrows(InvalidStatementRangeException.class, () -> transactionService.getStatement("P-0123456789",
+                LocalDate.of(2023, 1, 1), LocalDate.of(2024, 1, 1), "GBP"));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("getStatement - Should refuse a range counted over the row limit before reading any row")
+    void getStatement_CountedOverLimit_ThrowsBeforeReading() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "statementMaxRows", 100);
+        when(transactionRepository.countByCustomerIdAndValueDateBetween(
+                "P-0123456789", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30))).thenReturn(60L);
+        when(transactionRepository.countByCustomerIdAndValueDateBetween(
+                "P-0123456789", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31))).thenReturn(60L);
+
+        // Act & Assert
+        assertThrows(InvalidStatementRangeException.class, () -> transactionService.getStatement("P-0123456789",
+                LocalDate.of(2024, 6, 1), LocalDate.of(2024, 12, 31), "GBP"));
+        verify(transactionRepository, times(2)).countByCustomerIdAndValueDateBetween(any(), any(), any());
+        verify(transactionRepository, never()).findSliceByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getStatement - Should reject a range holding more than the row limit")
+    void getStatement_TooManyRows_Throws() {
+        // Arrange
+        ReflectionTestUtils.setField(transactionService, "statementMaxRows", 1);
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                "P-0123456789", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(creditTransaction), PageRequest.of(0, 1), true));
+
+        // Act & Assert
+        assertThrows(InvalidStatementRangeException.class, () -> transactionService.getStatement("P-0123456789",
+                LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), "GBP"));
+    }
+
+    private static Transaction withAmount(Transaction transaction, BigDecimal amount) {
+        return Transaction.builder()
+                .id(transaction.getId())
+                .amount(amount)
+                .currency(transaction.getCurrency())
+                .accountIban(transaction.getAccountIban())
+                .valueDate(transaction.getValueDate())
+                .description(transaction.getDescription())
+                .customerId(transaction.getCustomerId())
+                .build();
+    }
+
+    private static Transaction withValueDate(Transaction transaction, String id, LocalDate valueDate) {
+        return Transaction.builder()
+                .id(id)
+                .amount(transaction.getAmount())
+                .currency(transaction.getCurrency())
+                .accountIban(transaction.getAccountIban())
+                .valueDate(valueDate)
+                .description(transaction.getDescription())
+                .customerId(transaction.getCustomerId())
+                .build();
+    }
+
+    private void stubStatementMonth(LocalDate start, LocalDate end, List<Transaction> rows) {
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                "P-0123456789", start, end, PageRequest.of(0, 1000)))
+                .thenReturn(new SliceImpl<>(rows, PageRequest.of(0, 1000), false));
+    }
+
+    private void stubPage(Page<Transaction> page) {
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                eq("P-0123456789"), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(page.getContent(), page.getPageable(), page.hasNext()));
+        // Skipped when the page itself shows the total
+        lenient().when(transactionRepository.countByCustomerIdAndValueDateBetween(
+                eq("P-0123456789"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(page.getTotalElements());
     }
-}
\ No newline at end of file
+}
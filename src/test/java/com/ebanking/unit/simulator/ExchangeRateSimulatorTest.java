@@ -0,0 +1,120 @@
+package com.ebanking.unit.simulator;
+
+import com.ebanking.domain.RateTable;
+import com.ebanking.service.provider.HttpExchangeRateProvider;
+import com.ebanking.simulator.ExchangeRateSimulator;
+import com.ebanking.simulator.ExchangeRateSimulator.LatencyDistribution;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Exchange Rate Simulator Unit Tests")
+class ExchangeRateSimulatorTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private ExchangeRateSimulator simulator;
+
+    @AfterEach
+    void tearDown() {
+        simulator.stop();
+    }
+
+    private ExchangeRateSimulator start(ExchangeRateSimulator.Settings settings) throws Exception {
+        simulator = new ExchangeRateSimulator(settings);
+        simulator.start();
+        return simulator;
+    }
+
+    private int status(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(simulator.getBaseUrl() + path)).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    @DisplayName("GET /latest/{base} - Should serve a consistent rate table the HTTP provider can read")
+    void latest_ServesTableReadableByHttpProvider() throws Exception {
+        // Arrange
+        start(ExchangeRateSimulator.Settings.builder().build());
+        HttpExchangeRateProvider provider = new HttpExchangeRateProvider(new RestTemplate(), CircuitBreaker.ofDefaults("test"));
+        ReflectionTestUtils.setField(provider, "exchangeRateApiUrl", simulator.getBaseUrl());
+
+        // Act
+        RateTable usd = provider.fetchRates("USD", LocalDate.now());
+        RateTable gbp = provider.fetchRates("GBP", LocalDate.now());
+
+        // Assert
+        assertTrue(usd.getRates().size() > 20);
+        assertEquals(0, BigDecimal.ONE.compareTo(usd.rateOf("GBP").multiply(gbp.rateOf("USD")).round(new MathContext(6))));
+        assertEquals(2, simulator.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("GET /latest/{base} - Should delay responses by the configured latency")
+    void latest_FixedLatency_DelaysResponse() throws Exception {
+        // Arrange
+        start(ExchangeRateSimulator.Settings.builder()
+                .distribution(LatencyDistribution.FIXED)
+                .latencyMedian(Duration.ofMillis(150))
+                .build());
+
+        // Act
+        long start = System.nanoTime();
+        int status = status("/EUR");
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(200, status);
+        assertTrue(elapsed.compareTo(Duration.ofMillis(150)) >= 0, "took " + elapsed);
+    }
+
+    @Test
+    @DisplayName("GET /latest/{base} - Should fail requests at the configured error rate")
+    void latest_ErrorRate_Answers500() throws Exception {
+        // Arrange
+        start(ExchangeRateSimulator.Settings.builder().errorRate(1.0).build());
+
+        // Act & Assert
+        assertEquals(500, status("/USD"));
+    }
+
+    @Test
+    @DisplayName("GET /latest/{base} - Should throttle above the configured request rate")
+    void latest_Throttling_Answers429() throws Exception {
+        // Arrange
+        start(ExchangeRateSimulator.Settings.builder().requestsPerSecond(1).build());
+
+        // Act - three calls span at most two one-second windows, so one window sees two
+        int first = status("/USD");
+        int second = status("/USD");
+        int third = status("/USD");
+
+        // Assert
+        assertEquals(200, first);
+        assertTrue(second == 429 || third == 429, "statuses " + second + ", " + third);
+    }
+
+    @Test
+    @DisplayName("GET /latest/{base} - Unknown base currency should answer 404")
+    void latest_UnknownBase_Answers404() throws Exception {
+        // Arrange
+        start(ExchangeRateSimulator.Settings.builder().build());
+
+        // Act & Assert
+        assertEquals(404, status("/XYZ"));
+    }
+}